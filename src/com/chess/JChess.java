@@ -2,14 +2,27 @@ package com.chess;
 
 import com.chess.engine.board.Board;
 import com.chess.gui.Table;
+import com.chess.protocol.UCIEngine;
+import com.chess.protocol.XBoardEngine;
+
+import java.io.IOException;
 
 public class JChess {
 
     /**
      * Creates the instance of the standard chess game board, prints the String representation and
-     * displays the GUI.
+     * displays the GUI, or runs a headless engine on standard input and output when given the --uci
+     * or --xboard argument.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--uci")) {
+            UCIEngine.main(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--xboard")) {
+            XBoardEngine.main(args);
+            return;
+        }
         Board board = Board.createStandardBoard();
         System.out.println(board);
         Table.get().show();
@@ -6,6 +6,7 @@ import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceSquareTables;
 import com.chess.engine.pieces.Queen;
 import com.chess.engine.pieces.Rook;
 import com.chess.engine.player.BlackPlayer;
@@ -35,6 +36,28 @@ public class Board {
         - whitePlayer: the player in control of the white pieces.
         - blackPlayer: the player in control of the black pieces
         - currentPlayer: the player whose turn it is to make a move.
+        - zobristHash: the hash of the board state, used to identify transpositions during search.
+        - pawnHash: the hash of the Pawns alone, used to cache the evaluation of pawn structure.
+        - halfmoveClock: the number of half moves since the last capture or Pawn move, for the
+                         fifty-move rule.
+        - history: the hashes of the earlier board states since the last capture or Pawn move,
+                   most recent first, or null if there are none. No earlier board state can
+                   repeat, so the history is only as long as the halfmove clock, and is shared by
+                   every Board that descends from the same game or search line.
+        - previousBoard: the board on which the last Move was played, or null if the Board was
+                         built from scratch.
+        - transitionMove: the last Move, played on the previous board, or null if the Board was
+                          built from scratch. Evaluators that keep state for each Board, such as
+                          a neural network accumulator, derive it from the previous Board's by
+                          comparing the tiles that the Move changed.
+        - materialScore, middlegameScore, endgameScore: the summed piece values and the summed
+                                                        middlegame and endgame PieceSquareTables
+                                                        values, white's minus black's.
+        - phase: the summed phase weights of every piece on the board.
+        The scores are carried over from the Board on which a Move was played and updated by the
+        pieces the Move moved, captured and promoted, so that an evaluation reads them in constant
+        time. Only a Board built from scratch sums them over its tiles. When incremental scores are
+        verified, every Board sums them anyway and fails if they differ.
 
      Representation Invariants:
         - gameBoard.size() == 64;
@@ -47,6 +70,19 @@ public class Board {
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
     private final Pawn enPassantPawn;
+    private final long zobristHash;
+    private final long pawnHash;
+    private final int halfmoveClock;
+    private final PositionHistory history;
+    private final Board previousBoard;
+    private final Move transitionMove;
+    private final int materialScore;
+    private final int middlegameScore;
+    private final int endgameScore;
+    private final int phase;
+
+    private static volatile boolean verifyIncrementalScores =
+        Boolean.getBoolean("chess.verifyIncrementalScores");
 
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
@@ -63,6 +99,37 @@ public class Board {
         this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
         this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
         this.enPassantPawn = builder.enPassantPawn;
+        this.zobristHash = ZobristHashing.calculateHash(this.gameBoard, builder.nextMoveMaker,
+            builder.enPassantPawn);
+        this.pawnHash = ZobristHashing.calculatePawnHash(this.gameBoard);
+        this.halfmoveClock = builder.halfmoveClock;
+        this.history = builder.history;
+        this.previousBoard = builder.previousBoard;
+        this.transitionMove = builder.transitionMove;
+        if (!builder.hasScores || verifyIncrementalScores) {
+            final Builder scores = new Builder();
+            for (final Tile tile : this.gameBoard) {
+                if (tile.isTileOccupied()) {
+                    scores.addScore(tile.getPiece().getPieceType(),
+                        tile.getPiece().getPieceAlliance(), tile.getTileCoordinate());
+                }
+            }
+            if (builder.hasScores && (scores.materialScore != builder.materialScore ||
+                scores.middlegameScore != builder.middlegameScore ||
+                scores.endgameScore != builder.endgameScore || scores.phase != builder.phase)) {
+                throw new IllegalStateException("incremental scores differ from the board:\n" +
+                    this);
+            }
+            this.materialScore = scores.materialScore;
+            this.middlegameScore = scores.middlegameScore;
+            this.endgameScore = scores.endgameScore;
+            this.phase = scores.phase;
+        } else {
+            this.materialScore = builder.materialScore;
+            this.middlegameScore = builder.middlegameScore;
+            this.endgameScore = builder.endgameScore;
+            this.phase = builder.phase;
+        }
 
         final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
         final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
@@ -103,6 +170,90 @@ public class Board {
         return this.enPassantPawn;
     }
 
+    public long getZobristHash() {
+        return this.zobristHash;
+    }
+
+    public long getPawnHash() {
+        return this.pawnHash;
+    }
+
+    public Board getPreviousBoard() {
+        return this.previousBoard;
+    }
+
+    public Move getTransitionMove() {
+        return this.transitionMove;
+    }
+
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    public int getMaterialScore() {
+        return this.materialScore;
+    }
+
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    public int getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Sets whether or not every Board checks its incremental scores against a sum over its tiles,
+     * which is slow and meant for debugging. Also enabled by the chess.verifyIncrementalScores
+     * system property.
+     *
+     * @param verify whether or not to verify the incremental scores
+     */
+    public static void setVerifyIncrementalScores(final boolean verify) {
+        verifyIncrementalScores = verify;
+    }
+
+    /**
+     * Counts the occurrences of this board state in the game or search line that led to it,
+     * including this one. Only every second earlier board state can match, since the same side
+     * must be to move.
+     *
+     * @return the number of occurrences of this board state
+     */
+    public int getRepetitionCount() {
+        int count = 1;
+        PositionHistory node = this.history;
+        for (int ply = 1; node != null && ply <= this.halfmoveClock; ply++) {
+            if ((ply & 1) == 0 && node.hash == this.zobristHash) {
+                count++;
+            }
+            node = node.previous;
+        }
+        return count;
+    }
+
+    /**
+     * Determines whether this board state has occurred before in the game or search line. A search
+     * scores such a Board as a draw, since either side could repeat the cycle.
+     *
+     * @return true if the board state is a repetition
+     */
+    public boolean isRepetition() {
+        return getRepetitionCount() > 1;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 3;
+    }
+
+    public boolean isFiftyMoveDraw() {
+        return this.halfmoveClock >= 100;
+    }
+
     public Collection<Piece> getBlackPieces() {
         return this.blackPieces;
     }
@@ -235,11 +386,27 @@ public class Board {
             - nextMoveMaker: the side that is to make the next move.
             - enPassantPawn: the piece used to calculate the en passant move. Is to be created when
                              a pawn jump occurs.
+            - halfmoveClock: the number of half moves since the last capture or Pawn move.
+            - history: the hashes of the earlier board states, most recent first, or null.
+            - previousBoard: the board on which the last Move was played, or null.
+            - transitionMove: the last Move, or null.
+            - hasScores: whether or not the evaluation scores were carried over from an earlier
+                         board, rather than left for the Board to sum.
+            - materialScore, middlegameScore, endgameScore, phase: the evaluation scores.
          */
 
         Map<Integer, Piece> boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        int halfmoveClock;
+        PositionHistory history;
+        Board previousBoard;
+        Move transitionMove;
+        boolean hasScores;
+        int materialScore;
+        int middlegameScore;
+        int endgameScore;
+        int phase;
 
         /**
          * Constructor for an empty builder.
@@ -269,5 +436,100 @@ public class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        public void setHalfmoveClock(final int halfmoveClock) {
+            this.halfmoveClock = halfmoveClock;
+        }
+
+        /**
+         * Continues the game of the board state on which a Move was played, advancing its halfmove
+         * clock and history. A capture or Pawn move resets both, since no earlier board state can
+         * occur again.
+         *
+         * @param transitionMove the move, whose board is the previous board
+         * @param isIrreversible whether or not the move was a capture or a Pawn move
+         */
+        void setPreviousBoard(final Move transitionMove, final boolean isIrreversible) {
+            final Board previousBoard = transitionMove.getBoard();
+            this.previousBoard = previousBoard;
+            this.transitionMove = transitionMove;
+            if (isIrreversible) {
+                this.halfmoveClock = 0;
+                this.history = null;
+            } else {
+                this.halfmoveClock = previousBoard.halfmoveClock + 1;
+                this.history = new PositionHistory(previousBoard.zobristHash,
+                    previousBoard.history);
+            }
+        }
+
+        /**
+         * Carries over the evaluation scores of an earlier board, to be updated by addScore and
+         * removeScore.
+         *
+         * @param previousBoard the board whose scores are carried over
+         */
+        void setScores(final Board previousBoard) {
+            this.hasScores = true;
+            this.materialScore = previousBoard.materialScore;
+            this.middlegameScore = previousBoard.middlegameScore;
+            this.endgameScore = previousBoard.endgameScore;
+            this.phase = previousBoard.phase;
+        }
+
+        /**
+         * Adds a piece on a tile to the evaluation scores.
+         *
+         * @param pieceType the type of the piece
+         * @param alliance the alliance of the piece
+         * @param coordinate the tile coordinate of the piece
+         */
+        void addScore(final Piece.PieceType pieceType, final Alliance alliance,
+                      final int coordinate) {
+            final int sign = alliance.isWhite() ? 1 : -1;
+            this.materialScore += sign * pieceType.getPieceValue();
+            this.middlegameScore += sign * PieceSquareTables.getMiddlegameValue(pieceType,
+                alliance, coordinate);
+            this.endgameScore += sign * PieceSquareTables.getEndgameValue(pieceType, alliance,
+                coordinate);
+            this.phase += PieceSquareTables.getPhaseWeight(pieceType);
+        }
+
+        /**
+         * Removes a piece on a tile from the evaluation scores.
+         *
+         * @param pieceType the type of the piece
+         * @param alliance the alliance of the piece
+         * @param coordinate the tile coordinate of the piece
+         */
+        void removeScore(final Piece.PieceType pieceType, final Alliance alliance,
+                         final int coordinate) {
+            final int sign = alliance.isWhite() ? -1 : 1;
+            this.materialScore += sign * pieceType.getPieceValue();
+            this.middlegameScore += sign * PieceSquareTables.getMiddlegameValue(pieceType,
+                alliance, coordinate);
+            this.endgameScore += sign * PieceSquareTables.getEndgameValue(pieceType, alliance,
+                coordinate);
+            this.phase -= PieceSquareTables.getPhaseWeight(pieceType);
+        }
+    }
+
+    private static final class PositionHistory {
+
+        /*
+        Abstraction Function:
+        This class represents an immutable stack of board state hashes, one node for every earlier
+        board state.
+            - hash: the Zobrist hash of the most recent earlier board state.
+            - previous: the rest of the stack, or null.
+         */
+
+        private final long hash;
+        private final PositionHistory previous;
+
+        private PositionHistory(final long hash, final PositionHistory previous) {
+            this.hash = hash;
+            this.previous = previous;
+        }
     }
 }
@@ -107,10 +107,43 @@ public abstract class Move {
         return false;
     }
 
+    public boolean isCastlingMove() {
+        return false;
+    }
+
     public Piece getAttackedPiece() {
         return null;
     }
 
+    /**
+     * Carries the evaluation scores of the board over to the board being built, updated by the
+     * pieces this Move moves and captures.
+     *
+     * @param builder the builder of the board after the move
+     */
+    void updateScores(final Builder builder) {
+        builder.setScores(this.board);
+        builder.removeScore(this.movedPiece.getPieceType(), this.movedPiece.getPieceAlliance(),
+            this.movedPiece.getPiecePosition());
+        builder.addScore(this.movedPiece.getPieceType(), this.movedPiece.getPieceAlliance(),
+            this.destinationCoordinate);
+        final Piece attackedPiece = getAttackedPiece();
+        if (attackedPiece != null) {
+            builder.removeScore(attackedPiece.getPieceType(), attackedPiece.getPieceAlliance(),
+                attackedPiece.getPiecePosition());
+        }
+    }
+
+    /**
+     * Determines whether the Move is a capture or a Pawn move, after which no earlier board state
+     * can occur again.
+     *
+     * @return true if the move resets the halfmove clock
+     */
+    public boolean isIrreversible() {
+        return isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN;
+    }
+
     /**
      * Creates the board that corresponds to board state after the move is played.
      *
@@ -128,6 +161,8 @@ public abstract class Move {
         }
         builder.setPiece(this.movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        builder.setPreviousBoard(this, isIrreversible());
+        updateScores(builder);
         return builder.build();
     }
 
@@ -309,6 +344,8 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setPreviousBoard(this, isIrreversible());
+            updateScores(builder);
             return builder.build();
         }
 
@@ -367,6 +404,12 @@ public abstract class Move {
             }
             builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            builder.setPreviousBoard(this, true);
+            builder.setScores(pawnMovedBoard);
+            builder.removeScore(this.promotedPawn.getPieceType(),
+                this.promotedPawn.getPieceAlliance(), this.destinationCoordinate);
+            builder.addScore(this.promotedPawn.getPromotionPiece().getPieceType(),
+                this.promotedPawn.getPieceAlliance(), this.destinationCoordinate);
             return builder.build();
         }
 
@@ -459,11 +502,13 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setPreviousBoard(this, isIrreversible());
+            updateScores(builder);
             return builder.build();
         }
     }
 
-    static abstract class CastleMove extends Move {
+    public static abstract class CastleMove extends Move {
 
         /*
         This class represents a castling Move, and is further subclassed in order to provide the
@@ -500,6 +545,28 @@ public abstract class Move {
             return this.castleRook;
         }
 
+        public int getCastleRookStart() {
+            return this.castleRookStart;
+        }
+
+        public int getCastleRookDestination() {
+            return this.castleRookDestination;
+        }
+
+        @Override
+        public boolean isCastlingMove() {
+            return true;
+        }
+
+        @Override
+        void updateScores(final Builder builder) {
+            super.updateScores(builder);
+            builder.removeScore(this.castleRook.getPieceType(), this.castleRook.getPieceAlliance(),
+                this.castleRookStart);
+            builder.addScore(this.castleRook.getPieceType(), this.castleRook.getPieceAlliance(),
+                this.castleRookDestination);
+        }
+
         @Override
         public Board execute() {
             final Builder builder = new Builder();
@@ -515,6 +582,8 @@ public abstract class Move {
             builder.setPiece(new Rook(this.castleRook.getPieceAlliance(),
                 this.castleRookDestination));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setPreviousBoard(this, isIrreversible());
+            updateScores(builder);
             return builder.build();
         }
 
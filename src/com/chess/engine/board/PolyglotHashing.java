@@ -0,0 +1,210 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class PolyglotHashing {
+
+    /*
+    Abstraction Function:
+    This class calculates the hash of a Board state in the layout used to key the entries of a
+    Polyglot opening book. The hash is the exclusive or of the keys that apply to the Board, taken
+    from a table of 781 random keys:
+        - 0 to 767: a key for every piece kind and square, at 64 * kind + 8 * row + column, where
+                    the kinds run black pawn, white pawn, black knight, ..., white king, and row 0
+                    is the first rank.
+        - 768 to 771: the white king side, white queen side, black king side and black queen side
+                      castling rights.
+        - 772 to 779: the column of the en passant Pawn, included only if a Pawn of the Player to
+                      move stands beside it.
+        - 780: included when white is to move.
+        - keys: the table of random keys.
+
+     Representation Invariants:
+        - keys.length == NUM_KEYS;
+
+    Published books are keyed with the standard Random64 table, which is not shipped with the
+    engine and must be loaded from a text file with fromFile. There is deliberately no default:
+    keys generated from a seed only read books built with the same seed, so every other book would
+    silently be out of book.
+     */
+
+    public static final int NUM_KEYS = 781;
+
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int WHITE_TO_MOVE_OFFSET = 780;
+    private final long[] keys;
+
+    private PolyglotHashing(final long[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Creates a PolyglotHashing whose keys are generated from the given seed. Such keys are not
+     * the Random64 table, so the books they key can only be read with the same seed.
+     *
+     * @param seed the seed of the random keys
+     * @return the PolyglotHashing
+     */
+    public static PolyglotHashing generate(final long seed) {
+        final Random random = new Random(seed);
+        final long[] keys = new long[NUM_KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return new PolyglotHashing(keys);
+    }
+
+    /**
+     * Creates a PolyglotHashing from a text file of 781 hexadecimal keys, such as the Random64
+     * array of the Polyglot sources. Keys may be separated by whitespace or commas, and may carry
+     * a 0x prefix and U or L suffixes.
+     *
+     * @param keyFile the path of the key file
+     * @return the PolyglotHashing
+     * @throws IOException if the file cannot be read or does not hold exactly 781 keys
+     */
+    public static PolyglotHashing fromFile(final Path keyFile) throws IOException {
+        final String content = new String(Files.readAllBytes(keyFile), StandardCharsets.US_ASCII);
+        final long[] keys = new long[NUM_KEYS];
+        int count = 0;
+        for (final String token : content.split("[\\s,]+")) {
+            final String key = token.replaceFirst("^0[xX]", "").replaceFirst("[uUlL]+$", "");
+            if (key.isEmpty()) {
+                continue;
+            }
+            if (count == NUM_KEYS) {
+                throw new IOException("more than " + NUM_KEYS + " keys in " + keyFile);
+            }
+            try {
+                keys[count++] = Long.parseUnsignedLong(key, 16);
+            } catch (final NumberFormatException e) {
+                throw new IOException("invalid key " + token + " in " + keyFile, e);
+            }
+        }
+        if (count != NUM_KEYS) {
+            throw new IOException("expected " + NUM_KEYS + " keys in " + keyFile + ", found " +
+                count);
+        }
+        return new PolyglotHashing(keys);
+    }
+
+    /**
+     * Calculates the Polyglot hash of a Board state.
+     *
+     * @param board the board
+     * @return the 64 bit hash of the board state
+     */
+    public long calculateHash(final Board board) {
+        long hash = 0L;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Tile tile = board.getTile(i);
+            if (tile.isTileOccupied()) {
+                final Piece piece = tile.getPiece();
+                final int kind = 2 * piece.getPieceType().ordinal() +
+                    (piece.getPieceAlliance().isWhite() ? 1 : 0);
+                hash ^= this.keys[64 * kind + 8 * getRow(i) + getColumn(i)];
+            }
+        }
+        if (isCastleCapable(board, 60, 63)) {
+            hash ^= this.keys[CASTLING_OFFSET];
+        }
+        if (isCastleCapable(board, 60, 56)) {
+            hash ^= this.keys[CASTLING_OFFSET + 1];
+        }
+        if (isCastleCapable(board, 4, 7)) {
+            hash ^= this.keys[CASTLING_OFFSET + 2];
+        }
+        if (isCastleCapable(board, 4, 0)) {
+            hash ^= this.keys[CASTLING_OFFSET + 3];
+        }
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && isEnPassantCapturable(board, enPassantPawn)) {
+            hash ^= this.keys[EN_PASSANT_OFFSET + getColumn(enPassantPawn.getPiecePosition())];
+        }
+        if (board.currentPlayer().getAlliance().isWhite()) {
+            hash ^= this.keys[WHITE_TO_MOVE_OFFSET];
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the Polyglot row of a tile coordinate, where row 0 is the first rank.
+     *
+     * @param coordinate the tile coordinate
+     * @return the row, from 0 to 7
+     */
+    public static int getRow(final int coordinate) {
+        return BoardUtils.NUM_TILES_PER_ROW - 1 - coordinate / BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**
+     * Returns the Polyglot column of a tile coordinate, where column 0 is the a file.
+     *
+     * @param coordinate the tile coordinate
+     * @return the column, from 0 to 7
+     */
+    public static int getColumn(final int coordinate) {
+        return coordinate % BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**
+     * Returns the tile coordinate of a Polyglot row and column.
+     *
+     * @param row the row, where row 0 is the first rank
+     * @param column the column, where column 0 is the a file
+     * @return the tile coordinate
+     */
+    public static int getCoordinate(final int row, final int column) {
+        return (BoardUtils.NUM_TILES_PER_ROW - 1 - row) * BoardUtils.NUM_TILES_PER_ROW + column;
+    }
+
+    /**
+     * Determines whether the King and Rook on the given tile coordinates have not moved, and so
+     * still hold a castling right.
+     *
+     * @param board the board
+     * @param kingCoordinate the starting tile coordinate of the King
+     * @param rookCoordinate the starting tile coordinate of the Rook
+     * @return true if both pieces are on their starting tiles and have not moved
+     */
+    private static boolean isCastleCapable(final Board board, final int kingCoordinate,
+                                           final int rookCoordinate) {
+        final Piece king = board.getTile(kingCoordinate).getPiece();
+        final Piece rook = board.getTile(rookCoordinate).getPiece();
+        return king != null && rook != null && king.getPieceType().isKing() &&
+            rook.getPieceType().isRook() && king.getPieceAlliance() == rook.getPieceAlliance() &&
+            king.isFirstMove() && rook.isFirstMove();
+    }
+
+    /**
+     * Determines whether a Pawn of the Player to move stands beside the en passant Pawn, as the
+     * Polyglot format only includes the en passant column in that case.
+     *
+     * @param board the board
+     * @param enPassantPawn the pawn that has just made a PawnJump
+     * @return true if the en passant Pawn could be attacked
+     */
+    private static boolean isEnPassantCapturable(final Board board, final Pawn enPassantPawn) {
+        final int position = enPassantPawn.getPiecePosition();
+        final int column = getColumn(position);
+        for (final int offset : new int[] { -1, 1 }) {
+            if (column + offset < 0 || column + offset >= BoardUtils.NUM_TILES_PER_ROW) {
+                continue;
+            }
+            final Piece piece = board.getTile(position + offset).getPiece();
+            if (piece != null && piece.getPieceType() == Piece.PieceType.PAWN &&
+                piece.getPieceAlliance() == board.currentPlayer().getAlliance()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.List;
+import java.util.Random;
+
+public final class ZobristHashing {
+
+    /*
+    A utility class that calculates the Zobrist hash of a Board state. The hash is the exclusive or
+    of one random key for every Piece on the Board, plus keys for the side to move, the column of
+    the en passant Pawn and each of the four castling rights.
+        - PIECE_KEYS: the keys for each alliance, piece type and tile coordinate.
+        - BLACK_TO_MOVE_KEY: the key that is included when black is to move.
+        - EN_PASSANT_KEYS: the keys for the column of the en passant Pawn.
+        - CASTLING_KEYS: the keys for the white king side, white queen side, black king side and
+                         black queen side castling rights.
+        - SEED: the seed of the random keys, fixed so that hashes are stable between runs.
+     */
+
+    private static final long SEED = 0x4A436865737321L;
+
+    private static final long[][][] PIECE_KEYS = new long[2][6][BoardUtils.NUM_TILES];
+    private static final long BLACK_TO_MOVE_KEY;
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long[] CASTLING_KEYS = new long[4];
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[][] allianceKeys : PIECE_KEYS) {
+            for (final long[] pieceKeys : allianceKeys) {
+                for (int i = 0; i < pieceKeys.length; i++) {
+                    pieceKeys[i] = random.nextLong();
+                }
+            }
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private ZobristHashing() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Calculates the Zobrist hash of a Board state from its tiles.
+     *
+     * @param gameBoard the 64 tiles of the board
+     * @param nextMoveMaker the side that is to make the next move
+     * @param enPassantPawn the pawn that has just made a PawnJump, or null
+     * @return the 64 bit hash of the board state
+     */
+    static long calculateHash(final List<Tile> gameBoard, final Alliance nextMoveMaker,
+                              final Pawn enPassantPawn) {
+        long hash = 0L;
+        for (final Tile tile : gameBoard) {
+            if (tile.isTileOccupied()) {
+                hash ^= pieceKey(tile.getPiece());
+            }
+        }
+        if (nextMoveMaker.isBlack()) {
+            hash ^= BLACK_TO_MOVE_KEY;
+        }
+        if (enPassantPawn != null) {
+            hash ^= EN_PASSANT_KEYS[enPassantPawn.getPiecePosition() %
+                BoardUtils.NUM_TILES_PER_ROW];
+        }
+        if (isCastleCapable(gameBoard, 60, 63)) {
+            hash ^= CASTLING_KEYS[0];
+        }
+        if (isCastleCapable(gameBoard, 60, 56)) {
+            hash ^= CASTLING_KEYS[1];
+        }
+        if (isCastleCapable(gameBoard, 4, 7)) {
+            hash ^= CASTLING_KEYS[2];
+        }
+        if (isCastleCapable(gameBoard, 4, 0)) {
+            hash ^= CASTLING_KEYS[3];
+        }
+        return hash;
+    }
+
+    /**
+     * Calculates the hash of the Pawns of a Board state alone, from the same keys as the full hash.
+     * Boards with the same Pawn structure have the same Pawn hash, whatever else differs.
+     *
+     * @param gameBoard the 64 tiles of the board
+     * @return the 64 bit hash of the pawns
+     */
+    static long calculatePawnHash(final List<Tile> gameBoard) {
+        long hash = 0L;
+        for (final Tile tile : gameBoard) {
+            if (tile.isTileOccupied() && tile.getPiece().getPieceType() == Piece.PieceType.PAWN) {
+                hash ^= pieceKey(tile.getPiece());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the random key for a Piece on its current tile coordinate.
+     *
+     * @param piece the piece
+     * @return the key of the piece
+     */
+    public static long pieceKey(final Piece piece) {
+        return PIECE_KEYS[piece.getPieceAlliance().ordinal()][piece.getPieceType().ordinal()]
+            [piece.getPiecePosition()];
+    }
+
+    /**
+     * Determines whether the King and Rook on the given tile coordinates have not moved, and so
+     * still hold a castling right.
+     *
+     * @param gameBoard the 64 tiles of the board
+     * @param kingCoordinate the starting tile coordinate of the King
+     * @param rookCoordinate the starting tile coordinate of the Rook
+     * @return true if both pieces are on their starting tiles and have not moved
+     */
+    private static boolean isCastleCapable(final List<Tile> gameBoard, final int kingCoordinate,
+                                           final int rookCoordinate) {
+        final Piece king = gameBoard.get(kingCoordinate).getPiece();
+        final Piece rook = gameBoard.get(rookCoordinate).getPiece();
+        return king != null && rook != null && king.getPieceType().isKing() &&
+            rook.getPieceType().isRook() && king.getPieceAlliance() == rook.getPieceAlliance() &&
+            king.isFirstMove() && rook.isFirstMove();
+    }
+}
@@ -0,0 +1,167 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.Alliance;
+
+public final class PieceSquareTables {
+
+    /*
+    A utility class that holds the positional value of every piece type on every tile, for the
+    middlegame and for the endgame. The tables are written from white's point of view, with the
+    eighth rank first, exactly as the tile coordinates run, and are mirrored for black. A position
+    is scored between the two by its phase: the non-Pawn material left on the board, weighted by
+    PHASE_WEIGHTS, from MAX_PHASE at the start of the game down to 0 with only Kings and Pawns.
+    The Pawn and King tables differ between the phases, since Pawns grow in value as they advance
+    and the King belongs in the centre once the Queens are gone.
+     */
+
+    public static final int MAX_PHASE = 24;
+
+    private static final int[] PHASE_WEIGHTS = { 0, 1, 1, 2, 4, 0 };
+
+    private static final int[] PAWN_MIDDLEGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         80,  80,  80,  80,  80,  80,  80,  80,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         30,  30,  30,  30,  30,  30,  30,  30,
+         20,  20,  20,  20,  20,  20,  20,  20,
+         10,  10,  10,  10,  10,  10,  10,  10,
+          0,   0,   0,   0,   0,   0,   0,   0,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0
+    };
+
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDDLEGAME = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20
+    };
+
+    private static final int[] KING_ENDGAME = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] MIDDLEGAME_TABLES = {
+        PAWN_MIDDLEGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDDLEGAME
+    };
+
+    private static final int[][] ENDGAME_TABLES = {
+        PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME
+    };
+
+    private PieceSquareTables() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Returns the middlegame positional value of a piece on a tile.
+     *
+     * @param pieceType the type of the piece
+     * @param alliance the alliance of the piece
+     * @param coordinate the tile coordinate of the piece
+     * @return the value for the piece's own side
+     */
+    public static int getMiddlegameValue(final Piece.PieceType pieceType, final Alliance alliance,
+                                         final int coordinate) {
+        return MIDDLEGAME_TABLES[pieceType.ordinal()][alliance.isWhite() ? coordinate :
+            coordinate ^ 56];
+    }
+
+    /**
+     * Returns the endgame positional value of a piece on a tile.
+     *
+     * @param pieceType the type of the piece
+     * @param alliance the alliance of the piece
+     * @param coordinate the tile coordinate of the piece
+     * @return the value for the piece's own side
+     */
+    public static int getEndgameValue(final Piece.PieceType pieceType, final Alliance alliance,
+                                      final int coordinate) {
+        return ENDGAME_TABLES[pieceType.ordinal()][alliance.isWhite() ? coordinate :
+            coordinate ^ 56];
+    }
+
+    public static int getPhaseWeight(final Piece.PieceType pieceType) {
+        return PHASE_WEIGHTS[pieceType.ordinal()];
+    }
+
+    /**
+     * Interpolates between a middlegame and an endgame score by the phase of the position.
+     *
+     * @param middlegameScore the middlegame score
+     * @param endgameScore the endgame score
+     * @param phase the summed phase weights of the pieces on the board, which may exceed
+     *              MAX_PHASE after a promotion
+     * @return the tapered score
+     */
+    public static int taper(final int middlegameScore, final int endgameScore, final int phase) {
+        final int clampedPhase = Math.min(phase, MAX_PHASE);
+        return (middlegameScore * clampedPhase + endgameScore * (MAX_PHASE - clampedPhase)) /
+            MAX_PHASE;
+    }
+}
@@ -0,0 +1,50 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+public final class AnalysisLine {
+
+    /*
+    Abstraction Function:
+    This class represents one of the ranked root Moves of a multi-PV analysis.
+        - move: the root Move.
+        - score: the score of the Move, for the Player to move at the root.
+        - depth: the depth to which the Move was searched.
+        - principalVariation: the expected line of play, starting with the root Move.
+     */
+
+    private final Move move;
+    private final int score;
+    private final int depth;
+    private final ImmutableList<Move> principalVariation;
+
+    AnalysisLine(final Move move, final int score, final int depth,
+                 final ImmutableList<Move> principalVariation) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation;
+    }
+
+    public Move getMove() {
+        return this.move;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public ImmutableList<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + this.depth + " score " + this.score + " pv " + this.principalVariation;
+    }
+}
@@ -17,4 +17,21 @@ public interface BoardEvaluator {
      * @return a comparable integer that represents the advantage a Player has given the Board
      */
     int evaluate(Board board, int depth);
+
+    /**
+     * Assesses the board state at a certain depth, within a window from white's point of view. An
+     * evaluator may stop early once the score is known to fall outside the window, returning a
+     * bound rather than the score: a value at or below alpha that the score does not exceed, or a
+     * value at or above beta that the score is not below. Within the window, the score is exact.
+     * By default, the full evaluation is returned.
+     *
+     * @param board the Board to be evaluated
+     * @param depth the depth at which the evaluation occurs
+     * @param alpha the score at or below which white will not allow the Board
+     * @param beta the score at or above which black will not allow the Board
+     * @return the score of the Board, or a bound on it outside the window
+     */
+    default int evaluate(final Board board, final int depth, final int alpha, final int beta) {
+        return evaluate(board, depth);
+    }
 }
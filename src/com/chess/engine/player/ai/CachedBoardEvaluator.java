@@ -0,0 +1,169 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class CachedBoardEvaluator implements BoardEvaluator {
+
+    /*
+    Abstraction Function:
+    This class represents a BoardEvaluator that remembers the scores of another BoardEvaluator in a
+    fixed-size hash table keyed by the Zobrist hash of each Board, so that a leaf reached again by a
+    later iteration, another thread or a transposition is not evaluated twice. The table is lossy:
+    a new score always replaces the one in its slot. Like the TranspositionTable, it may be shared
+    by any number of threads without locking, since each slot is stored as two longs, the packed
+    score and the key exclusive or'd with that score, so a torn slot fails the key check.
+    A score only depends on the depth of the evaluation when the Player to move is checkmated, so
+    Boards on which the Player to move is in check are passed straight to the delegate. A lazy
+    evaluation may return a bound outside its window rather than a score, and is not stored.
+        - delegate: the BoardEvaluator whose scores are cached.
+        - keys: the Zobrist hash of each slot, exclusive or'd with its data.
+        - data: the score of each slot in the low 32 bits, with bit 32 set once it is stored.
+        - mask: the mask that maps a Zobrist hash onto an index of the table.
+        - hits: the number of evaluations answered from the table.
+        - misses: the number of evaluations passed to the delegate, including collisions.
+        - collisions: the number of misses on a slot that held the score of another Board.
+
+     Representation Invariants:
+        - keys.length == data.length;
+        - keys.length is a power of two, and mask == keys.length - 1;
+     */
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final long STORED = 1L << 32;
+
+    private final BoardEvaluator delegate;
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder collisions;
+
+    /**
+     * Constructor for a CachedBoardEvaluator, rounded down to the nearest power of two entries.
+     *
+     * @param delegate the BoardEvaluator whose scores are cached
+     * @param megabytes the approximate size of the cache
+     */
+    public CachedBoardEvaluator(final BoardEvaluator delegate, final int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("the cache must be at least one megabyte!");
+        }
+        final long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        final int capacity = (int) Math.min(entries, 1 << 30);
+        this.delegate = delegate;
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.mask = capacity - 1;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.collisions = new LongAdder();
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        if (board.currentPlayer().isInCheck()) {
+            return this.delegate.evaluate(board, depth);
+        }
+        final long entry = probe(board.getZobristHash());
+        if (entry != 0L) {
+            return (int) entry;
+        }
+        final int score = this.delegate.evaluate(board, depth);
+        store(board.getZobristHash(), score);
+        return score;
+    }
+
+    /**
+     * Evaluates a Board within a window. The delegate may return a bound rather than a score
+     * outside the window, so only scores strictly inside it are stored.
+     */
+    @Override
+    public int evaluate(final Board board, final int depth, final int alpha, final int beta) {
+        if (board.currentPlayer().isInCheck()) {
+            return this.delegate.evaluate(board, depth, alpha, beta);
+        }
+        final long entry = probe(board.getZobristHash());
+        if (entry != 0L) {
+            return (int) entry;
+        }
+        final int score = this.delegate.evaluate(board, depth, alpha, beta);
+        if (alpha < score && score < beta) {
+            store(board.getZobristHash(), score);
+        }
+        return score;
+    }
+
+    /**
+     * Looks up the score of a Board, counting the hit, miss or collision.
+     *
+     * @param zobristHash the Zobrist hash of the Board
+     * @return the data of the slot, whose low 32 bits are the score, or 0 if it is not stored
+     */
+    private long probe(final long zobristHash) {
+        final int index = (int) zobristHash & this.mask;
+        final long entry = this.data[index];
+        if (entry != 0L) {
+            if ((this.keys[index] ^ entry) == zobristHash) {
+                this.hits.increment();
+                return entry;
+            }
+            this.collisions.increment();
+        }
+        this.misses.increment();
+        return 0L;
+    }
+
+    private void store(final long zobristHash, final int score) {
+        final int index = (int) zobristHash & this.mask;
+        final long newEntry = (score & 0xFFFFFFFFL) | STORED;
+        this.data[index] = newEntry;
+        this.keys[index] = zobristHash ^ newEntry;
+    }
+
+    /**
+     * Removes every score from the cache and resets its counters.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.data, 0L);
+        this.hits.reset();
+        this.misses.reset();
+        this.collisions.reset();
+    }
+
+    public BoardEvaluator getDelegate() {
+        return this.delegate;
+    }
+
+    public int size() {
+        return this.keys.length;
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getCollisions() {
+        return this.collisions.sum();
+    }
+
+    public double getHitRate() {
+        final long hitCount = getHits();
+        final long probeCount = hitCount + getMisses();
+        return probeCount == 0 ? 0 : (double) hitCount / probeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Cached " + this.delegate.getClass().getSimpleName() + " (hits " + getHits() +
+            ", misses " + getMisses() + ", collisions " + getCollisions() + ")";
+    }
+}
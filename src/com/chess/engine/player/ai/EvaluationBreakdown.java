@@ -0,0 +1,110 @@
+package com.chess.engine.player.ai;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+public final class EvaluationBreakdown {
+
+    /*
+    Abstraction Function:
+    This class represents an immutable breakdown of the evaluation of a Board, term by term and
+    side by side. The total is white's score minus black's, as returned by the evaluator.
+        - termNames: the name of each term, in the order in which the evaluator sums them.
+        - whiteScores: the score of each term for white.
+        - blackScores: the score of each term for black.
+
+     Representation Invariants:
+        - termNames.size() == whiteScores.length == blackScores.length;
+     */
+
+    private final List<String> termNames;
+    private final int[] whiteScores;
+    private final int[] blackScores;
+
+    EvaluationBreakdown(final List<String> termNames, final int[] whiteScores,
+                        final int[] blackScores) {
+        this.termNames = ImmutableList.copyOf(termNames);
+        this.whiteScores = whiteScores.clone();
+        this.blackScores = blackScores.clone();
+    }
+
+    public List<String> getTermNames() {
+        return this.termNames;
+    }
+
+    /**
+     * Returns the score of a term for white.
+     *
+     * @param termName the name of the term
+     * @return the score of the term for white
+     * @throws IllegalArgumentException if there is no term of that name
+     */
+    public int getWhiteScore(final String termName) {
+        return this.whiteScores[indexOf(termName)];
+    }
+
+    /**
+     * Returns the score of a term for black.
+     *
+     * @param termName the name of the term
+     * @return the score of the term for black
+     * @throws IllegalArgumentException if there is no term of that name
+     */
+    public int getBlackScore(final String termName) {
+        return this.blackScores[indexOf(termName)];
+    }
+
+    /**
+     * Returns the score of a term for white minus its score for black.
+     *
+     * @param termName the name of the term
+     * @return the score of the term
+     * @throws IllegalArgumentException if there is no term of that name
+     */
+    public int getScore(final String termName) {
+        final int index = indexOf(termName);
+        return this.whiteScores[index] - this.blackScores[index];
+    }
+
+    public int getWhiteTotal() {
+        int total = 0;
+        for (final int score : this.whiteScores) {
+            total += score;
+        }
+        return total;
+    }
+
+    public int getBlackTotal() {
+        int total = 0;
+        for (final int score : this.blackScores) {
+            total += score;
+        }
+        return total;
+    }
+
+    public int getTotal() {
+        return getWhiteTotal() - getBlackTotal();
+    }
+
+    private int indexOf(final String termName) {
+        final int index = this.termNames.indexOf(termName);
+        if (index < 0) {
+            throw new IllegalArgumentException("no evaluation term named " + termName);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(String.format("%-12s %8s %8s %8s%n",
+            "term", "white", "black", "total"));
+        for (int i = 0; i < this.termNames.size(); i++) {
+            builder.append(String.format("%-12s %8d %8d %8d%n", this.termNames.get(i),
+                this.whiteScores[i], this.blackScores[i], this.whiteScores[i] -
+                this.blackScores[i]));
+        }
+        return builder.append(String.format("%-12s %8d %8d %8d", "total", getWhiteTotal(),
+            getBlackTotal(), getTotal())).toString();
+    }
+}
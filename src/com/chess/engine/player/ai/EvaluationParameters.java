@@ -0,0 +1,179 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+public final class EvaluationParameters {
+
+    /*
+    Abstraction Function:
+    This class represents the tunable weights of the StandardBoardEvaluator, so that a tuned set can
+    be loaded from a properties file rather than compiled in. Each weight has a name, which is its
+    key in the file, and an index in the parameter vector that the EvaluatorTuner works on:
+        - pawn, knight, bishop, rook, queen: the piece values.
+        - check: the bonus for giving check.
+        - castle: the bonus for having castled.
+        - mobility.knight, mobility.bishop, mobility.rook, mobility.queen: the weight of each safe
+                                                                           tile attacked by a
+                                                                           Piece, as defined by
+                                                                           Mobility.
+    The piece value of the King is not tuned, since both Players always have one. A weight missing
+    from a file keeps its default value.
+        - values: the weight of each parameter, in the order of NAMES.
+
+     Representation Invariants:
+        - values.length == NAMES.length;
+     */
+
+    public static final String[] NAMES = { "pawn", "knight", "bishop", "rook", "queen", "check",
+        "castle", "mobility.knight", "mobility.bishop", "mobility.rook", "mobility.queen" };
+
+    public static final int CHECK = 5;
+    public static final int CASTLE = 6;
+    public static final int MOBILITY = 7;
+
+    private static final EvaluationParameters DEFAULT = new EvaluationParameters(new int[] {
+        100, 300, 300, 500, 900, 50, 60, 4, 3, 2, 1 });
+
+    private final int[] values;
+
+    private EvaluationParameters(final int[] values) {
+        if (values.length != NAMES.length) {
+            throw new IllegalArgumentException("there must be " + NAMES.length + " parameters!");
+        }
+        this.values = values;
+    }
+
+    public static EvaluationParameters getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates EvaluationParameters from a parameter vector, rounding each weight to an integer.
+     *
+     * @param vector the weight of each parameter, in the order of NAMES
+     * @return the parameters
+     */
+    public static EvaluationParameters fromVector(final double[] vector) {
+        final int[] values = new int[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            values[i] = (int) Math.round(vector[i]);
+        }
+        return new EvaluationParameters(values);
+    }
+
+    /**
+     * Reads EvaluationParameters from a properties file.
+     *
+     * @param file the properties file
+     * @return the parameters
+     * @throws IOException if the file cannot be read or a weight is not an integer
+     */
+    public static EvaluationParameters load(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (final Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        final int[] values = DEFAULT.values.clone();
+        for (int i = 0; i < NAMES.length; i++) {
+            final String value = properties.getProperty(NAMES[i]);
+            if (value != null) {
+                try {
+                    values[i] = Integer.parseInt(value.trim());
+                } catch (final NumberFormatException e) {
+                    throw new IOException(file + ": " + NAMES[i] + " is not an integer", e);
+                }
+            }
+        }
+        return new EvaluationParameters(values);
+    }
+
+    /**
+     * Writes the EvaluationParameters to a properties file.
+     *
+     * @param file the properties file
+     * @param comment the comment written at the top of the file, or null
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file, final String comment) throws IOException {
+        final Properties properties = new Properties();
+        for (int i = 0; i < NAMES.length; i++) {
+            properties.setProperty(NAMES[i], Integer.toString(this.values[i]));
+        }
+        try (final Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    public double[] toVector() {
+        return Arrays.stream(this.values).asDoubleStream().toArray();
+    }
+
+    public int get(final int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Returns the value of a PieceType, which is fixed for the King.
+     *
+     * @param pieceType the type of piece
+     * @return the value of the piece
+     */
+    public int getPieceValue(final Piece.PieceType pieceType) {
+        return pieceType.isKing() ? pieceType.getPieceValue() : this.values[pieceType.ordinal()];
+    }
+
+    /**
+     * Returns the mobility weights, indexed by the ordinal of the PieceType, as used by Mobility.
+     *
+     * @return a new array of the mobility weights, which are 0 for Pawns and Kings
+     */
+    public int[] getMobilityWeights() {
+        final int[] weights = new int[Piece.PieceType.values().length];
+        for (int i = 0; i < 4; i++) {
+            weights[Piece.PieceType.KNIGHT.ordinal() + i] = this.values[MOBILITY + i];
+        }
+        return weights;
+    }
+
+    /**
+     * Returns whether or not the piece values are those the Board keeps its material score with.
+     *
+     * @return true if every piece value is the value of its PieceType
+     */
+    public boolean hasStandardPieceValues() {
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            if (getPieceValue(pieceType) != pieceType.getPieceValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof EvaluationParameters &&
+            Arrays.equals(this.values, ((EvaluationParameters) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.values);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < NAMES.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(NAMES[i]).append('=').append(this.values[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.chess.engine.player.ai;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+public final class EvaluationProfile {
+
+    /*
+    Abstraction Function:
+    This class represents an immutable snapshot of the time an evaluator has spent in each of its
+    terms, summed over every evaluation since timing began, so that the cost of a term can be
+    weighed against what it adds to the strength of the search.
+        - termNames: the name of each term.
+        - nanos: the nanoseconds spent in each term.
+        - calls: the number of times each term was scored.
+
+     Representation Invariants:
+        - termNames.size() == nanos.length == calls.length;
+     */
+
+    private final List<String> termNames;
+    private final long[] nanos;
+    private final long[] calls;
+
+    EvaluationProfile(final List<String> termNames, final long[] nanos, final long[] calls) {
+        this.termNames = ImmutableList.copyOf(termNames);
+        this.nanos = nanos.clone();
+        this.calls = calls.clone();
+    }
+
+    public List<String> getTermNames() {
+        return this.termNames;
+    }
+
+    /**
+     * Returns the nanoseconds spent in a term.
+     *
+     * @param termName the name of the term
+     * @return the cumulative nanoseconds spent scoring the term
+     * @throws IllegalArgumentException if there is no term of that name
+     */
+    public long getNanos(final String termName) {
+        return this.nanos[indexOf(termName)];
+    }
+
+    /**
+     * Returns the number of times a term was scored.
+     *
+     * @param termName the name of the term
+     * @return the number of calls
+     * @throws IllegalArgumentException if there is no term of that name
+     */
+    public long getCalls(final String termName) {
+        return this.calls[indexOf(termName)];
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (final long termNanos : this.nanos) {
+            total += termNanos;
+        }
+        return total;
+    }
+
+    private int indexOf(final String termName) {
+        final int index = this.termNames.indexOf(termName);
+        if (index < 0) {
+            throw new IllegalArgumentException("no evaluation term named " + termName);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        final long total = getTotalNanos();
+        final StringBuilder builder = new StringBuilder(String.format("%-12s %10s %6s %12s %8s",
+            "term", "ms", "share", "calls", "ns/call"));
+        for (int i = 0; i < this.termNames.size(); i++) {
+            builder.append(String.format("%n%-12s %10.1f %5.1f%% %12d %8d", this.termNames.get(i),
+                this.nanos[i] / 1e6, total == 0 ? 0.0 : 100.0 * this.nanos[i] / total,
+                this.calls[i], this.calls[i] == 0 ? 0 : this.nanos[i] / this.calls[i]));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.player.Player;
+
+public interface EvaluationTerm {
+
+    /*
+    This interface will be used for each named component of a composable evaluator, such as the
+    material or mobility terms of the StandardBoardEvaluator. A term scores each Player on its own,
+    so that an evaluation can be broken down term by term and side by side. A term whose score is
+    bounded may report a margin, so that it can be skipped by a lazy evaluation that is already
+    outside the search window.
+        - UNBOUNDED: the margin of a term whose score cannot be bounded.
+     */
+
+    int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * Returns the name under which the term is reported in breakdowns and profiles.
+     *
+     * @return the name of the term
+     */
+    String getName();
+
+    /**
+     * Scores the advantage that this term gives a Player.
+     *
+     * @param player the Player to be scored
+     * @param depth the depth at which the evaluation occurs
+     * @return the score of the term for the Player
+     */
+    int score(Player player, int depth);
+
+    /**
+     * Scores this term for white minus black. A term whose difference the Board already keeps, such
+     * as the material, may override this to avoid scoring each Player.
+     *
+     * @param board the Board to be evaluated
+     * @param depth the depth at which the evaluation occurs
+     * @return the score of the term for white minus its score for black
+     */
+    default int scoreDifference(final Board board, final int depth) {
+        return score(board.whitePlayer(), depth) - score(board.blackPlayer(), depth);
+    }
+
+    /**
+     * Returns a bound on the absolute value of scoreDifference that holds for every Board, so
+     * that an evaluator can sum it once rather than on every evaluation. By default, the bound
+     * depends on the Board, and is given by getMargin.
+     *
+     * @return the largest score that the term can add or subtract, or UNBOUNDED
+     */
+    default int getStaticMargin() {
+        return UNBOUNDED;
+    }
+
+    /**
+     * Returns a bound on the absolute value of scoreDifference for a Board, which lets an
+     * evaluator skip the term when the score cannot reach the search window without it. It is
+     * only called for terms without a static margin. By default, the term is unbounded and so
+     * never skipped.
+     *
+     * @param board the Board to be evaluated
+     * @return the largest score that the term can add or subtract, or UNBOUNDED
+     */
+    default int getMargin(final Board board) {
+        return getStaticMargin();
+    }
+}
@@ -0,0 +1,515 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.tablebase.KPKBitbase;
+import com.chess.engine.tablebase.Tablebase;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LazySMP implements MoveStrategy {
+
+    /*
+    Abstraction Function:
+    This class represents a multi-threaded MoveStrategy using the Lazy SMP algorithm. Every search
+    thread runs its own iterative deepening alpha-beta search of the same Board, and the threads
+    communicate only through a shared lock-free TranspositionTable. Odd-numbered helper threads
+    start one ply deeper than the others, and every thread tries the root Moves in a different
+    order, so the threads fill the table with different parts of the tree. The first thread to
+    complete the full search depth stops the others. If the search is stopped from outside, the
+    best Move of the deepest iteration completed by any thread is returned.
+
+    In analysis mode, a single thread ranks the best K root Moves instead. Every iteration searches
+    the root K times, each time excluding the Moves already ranked, so the K searches share the
+    TranspositionTable: the best replies found for one root Move order the others' searches, and
+    the deeper iterations start from the ranked Moves of the shallower ones.
+        - boardEvaluator: the evaluation algorithm used to evaluate a specific board state, within
+                          the search window so that it may stop early.
+        - searchDepth: the depth at which the algorithm will search for Moves.
+        - threadCount: the number of search threads.
+        - transpositionTable: the table shared by the search threads, and kept between searches.
+        - executor: the pool on which the search threads run.
+        - nodeCounts: the number of nodes each search thread visited during the last search.
+        - searchListener: the listener to which the statistics of each search are published, or
+                          null. An iteration is published whenever any thread completes an
+                          iteration deeper than every iteration completed before it, with the
+                          principal variation read back from the transposition table.
+        - tablebase: the endgame tablebase whose values are taken as exact scores at interior
+                     nodes, or null. Drawn King and Pawn versus King nodes are scored from the
+                     KPKBitbase whether or not there is a tablebase, while won ones are searched on
+                     so that the Pawn is promoted.
+
+     Representation Invariants:
+        - searchDepth > 0;
+        - threadCount > 0;
+     */
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final BoardEvaluator boardEvaluator;
+    private volatile int searchDepth;
+    private final int threadCount;
+    private final TranspositionTable transpositionTable;
+    private final ExecutorService executor;
+    private volatile long[] nodeCounts;
+    private volatile SearchListener searchListener;
+    private volatile Tablebase tablebase;
+
+    /**
+     * Constructor for a LazySMP search that uses every available processor.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     */
+    public LazySMP(final int searchDepth) {
+        this(searchDepth, Runtime.getRuntime().availableProcessors(), DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * Constructor for a LazySMP search with a configurable thread count and table size.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     * @param threadCount the number of search threads
+     * @param hashMegabytes the size of the shared transposition table
+     */
+    public LazySMP(final int searchDepth, final int threadCount, final int hashMegabytes) {
+        this(searchDepth, threadCount, hashMegabytes, new PieceSquareTableEvaluator());
+    }
+
+    /**
+     * Constructor for a LazySMP search with a configurable evaluator.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     * @param threadCount the number of search threads
+     * @param hashMegabytes the size of the shared transposition table
+     * @param boardEvaluator the evaluation algorithm used at the leaves of the search
+     */
+    public LazySMP(final int searchDepth, final int threadCount, final int hashMegabytes,
+                   final BoardEvaluator boardEvaluator) {
+        if (searchDepth < 1 || threadCount < 1) {
+            throw new IllegalArgumentException("search depth and thread count must be positive!");
+        }
+        this.boardEvaluator = boardEvaluator;
+        this.searchDepth = searchDepth;
+        this.threadCount = threadCount;
+        this.transpositionTable = new TranspositionTable(hashMegabytes);
+        this.executor = Executors.newFixedThreadPool(threadCount,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("lazy-smp-%d").build());
+        this.nodeCounts = new long[threadCount];
+    }
+
+    @Override
+    public String toString() {
+        return "LazySMP";
+    }
+
+    @Override
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Sets the depth to which later searches are run. A search in progress keeps its depth.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     */
+    public void setSearchDepth(final int searchDepth) {
+        if (searchDepth < 1) {
+            throw new IllegalArgumentException("search depth must be positive!");
+        }
+        this.searchDepth = searchDepth;
+    }
+
+    /**
+     * Sets the endgame tablebase that is probed at interior nodes with few enough pieces.
+     *
+     * @param tablebase the tablebase, or null to search without one
+     */
+    public void setTablebase(final Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
+        final AtomicReference<RootResult> deepestResult = new AtomicReference<>();
+        final List<SearchThread> searchThreads = new ArrayList<>();
+        final List<Future<?>> futures = new ArrayList<>();
+        final StopSignal control = new StopSignal(stopSignal);
+        final SearchMonitor monitor = new SearchMonitor(this.searchListener);
+        for (int i = 0; i < this.threadCount; i++) {
+            final SearchThread searchThread = new SearchThread(i, board, control, deepestResult,
+                monitor);
+            searchThreads.add(searchThread);
+            futures.add(this.executor.submit(searchThread));
+        }
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            control.stop();
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            control.stop();
+            throw new RuntimeException(e.getCause());
+        }
+        final long[] counts = new long[this.threadCount];
+        for (int i = 0; i < this.threadCount; i++) {
+            counts[i] = searchThreads.get(i).nodes;
+        }
+        this.nodeCounts = counts;
+        final RootResult result = deepestResult.get();
+        return result == null || result.bestMove == null ? SearchUtils.firstLegalMove(board) :
+            result.bestMove;
+    }
+
+    /**
+     * Ranks the best root Moves of a Board, with their scores and principal variations, searched
+     * to the full search depth unless the StopSignal is stopped first. The search runs on the
+     * calling thread.
+     *
+     * @param board the current board state
+     * @param lineCount the number of root Moves to rank
+     * @param stopSignal the signal that stops the analysis
+     * @return the ranked root Moves of the deepest completed iteration, best first, which may be
+     * fewer than lineCount if there are fewer legal Moves
+     */
+    public List<AnalysisLine> analyze(final Board board, final int lineCount,
+                                      final StopSignal stopSignal) {
+        if (lineCount < 1) {
+            throw new IllegalArgumentException("line count must be positive!");
+        }
+        final SearchThread searchThread = new SearchThread(0, board, new StopSignal(stopSignal),
+            new AtomicReference<>(), new SearchMonitor(this.searchListener));
+        final List<AnalysisLine> lines = searchThread.analyze(lineCount);
+        this.nodeCounts = new long[] { searchThread.nodes };
+        return lines;
+    }
+
+    /**
+     * Returns the number of nodes that each search thread visited during the last search.
+     *
+     * @return the node count of each thread, indexed by thread number
+     */
+    public long[] getNodeCounts() {
+        return this.nodeCounts.clone();
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    /**
+     * Shuts down the search threads once any search in progress has finished, after which the
+     * LazySMP cannot search again.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Orders a collection of Moves so that the given Move is tried first.
+     *
+     * @param moves the moves to be ordered
+     * @param firstMove the move to be tried first, or null
+     * @param rotation the number of places the remaining moves are rotated by
+     * @return the ordered list of moves
+     */
+    private static List<Move> orderMoves(final Collection<Move> moves, final Move firstMove,
+                                         final int rotation) {
+        final List<Move> orderedMoves = new ArrayList<>(moves);
+        if (firstMove != null && orderedMoves.remove(firstMove)) {
+            Collections.rotate(orderedMoves, rotation);
+            orderedMoves.add(0, firstMove);
+        } else {
+            Collections.rotate(orderedMoves, rotation);
+        }
+        return orderedMoves;
+    }
+
+    /**
+     * Reads the principal variation of a completed iteration back from the transposition table,
+     * following the best Move of each entry until the table holds no Move or the depth runs out.
+     *
+     * @param board the root board state
+     * @param bestMove the best root Move of the iteration
+     * @param depth the depth of the iteration
+     * @return the principal variation, starting with the best root Move
+     */
+    private List<Move> extractPrincipalVariation(final Board board, final Move bestMove,
+                                                 final int depth) {
+        final List<Move> principalVariation = new ArrayList<>();
+        Board currentBoard = board;
+        Move move = bestMove;
+        while (move != null && principalVariation.size() < depth) {
+            final MoveTransition moveTransition = currentBoard.currentPlayer().makeMove(move);
+            if (!moveTransition.getMoveStatus().isDone()) {
+                break;
+            }
+            principalVariation.add(move);
+            currentBoard = moveTransition.getBoard();
+            move = TranspositionTable.getBestMove(
+                this.transpositionTable.probe(currentBoard.getZobristHash()), currentBoard);
+        }
+        return principalVariation;
+    }
+
+    private static class RootResult {
+
+        /*
+        Abstraction Function:
+        The best Move found by a completed iteration of a search thread.
+            - bestMove: the best Move found.
+            - score: the score of the best Move, for the Player to move at the root.
+            - depth: the depth of the completed iteration.
+         */
+
+        private final Move bestMove;
+        private final int score;
+        private final int depth;
+
+        private RootResult(final Move bestMove, final int score, final int depth) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+        }
+    }
+
+    private class SearchThread implements Runnable {
+
+        /*
+        Abstraction Function:
+        This class represents one of the threads of a Lazy SMP search, running an iterative
+        deepening negamax search with alpha-beta pruning. Scores are from the point of view of the
+        Player to move.
+            - threadId: the number of the thread, where thread 0 is the main thread.
+            - maxDepth: the search depth when the search started.
+            - board: the root board state.
+            - control: the signal shared with the other threads, stopped when any thread completes
+                       the full search depth or when the caller stops the search.
+            - deepestResult: the result of the deepest iteration completed by any thread.
+            - monitor: the monitor that collects the statistics shared by every thread.
+            - nodes: the number of nodes this thread has visited.
+            - iterationDepth: the depth of the iteration in progress.
+         */
+
+        private final int threadId;
+        private final int maxDepth;
+        private final Board board;
+        private final StopSignal control;
+        private final AtomicReference<RootResult> deepestResult;
+        private final SearchMonitor monitor;
+        private long nodes;
+        private int iterationDepth;
+
+        private SearchThread(final int threadId, final Board board, final StopSignal control,
+                             final AtomicReference<RootResult> deepestResult,
+                             final SearchMonitor monitor) {
+            this.threadId = threadId;
+            this.maxDepth = searchDepth;
+            this.board = board;
+            this.control = control;
+            this.deepestResult = deepestResult;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void run() {
+            Move bestMove = null;
+            final int startDepth = Math.min(this.maxDepth, 1 + this.threadId % 2);
+            for (int depth = startDepth; depth <= this.maxDepth; depth++) {
+                this.iterationDepth = depth;
+                if (this.threadId == 0) {
+                    this.monitor.startIteration(depth);
+                }
+                final RootResult result = searchRoot(depth, bestMove,
+                    Collections.emptyList());
+                if (this.control.isStopped()) {
+                    return;
+                }
+                bestMove = result.bestMove;
+                if (this.deepestResult.accumulateAndGet(result, (current, next) ->
+                    current == null || next.depth > current.depth ? next : current) == result) {
+                    this.monitor.completeIteration(depth, result.score,
+                        extractPrincipalVariation(this.board, bestMove, depth));
+                }
+            }
+            this.control.stop();
+        }
+
+        /**
+         * Runs an iterative deepening multi-PV search, ranking the best root Moves at each depth.
+         *
+         * @param lineCount the number of root Moves to rank
+         * @return the ranked root Moves of the deepest completed iteration
+         */
+        private List<AnalysisLine> analyze(final int lineCount) {
+            List<AnalysisLine> lines = Collections.emptyList();
+            for (int depth = 1; depth <= this.maxDepth; depth++) {
+                this.iterationDepth = depth;
+                this.monitor.startIteration(depth);
+                final List<AnalysisLine> iterationLines = new ArrayList<>();
+                final List<Move> rankedMoves = new ArrayList<>();
+                while (iterationLines.size() < lineCount) {
+                    final int rank = iterationLines.size();
+                    final RootResult result = searchRoot(depth, rank < lines.size() ?
+                        lines.get(rank).getMove() : null, rankedMoves);
+                    if (this.control.isStopped()) {
+                        return lines;
+                    }
+                    if (result.bestMove == null) {
+                        break;
+                    }
+                    rankedMoves.add(result.bestMove);
+                    iterationLines.add(new AnalysisLine(result.bestMove, result.score, depth,
+                        ImmutableList.copyOf(extractPrincipalVariation(this.board, result.bestMove,
+                            depth))));
+                }
+                if (iterationLines.isEmpty()) {
+                    break;
+                }
+                lines = iterationLines;
+                this.monitor.completeIteration(depth, lines.get(0).getScore(),
+                    lines.get(0).getPrincipalVariation());
+            }
+            return lines;
+        }
+
+        /**
+         * Searches every legal Move of the root board to a given depth, trying the best Move of
+         * the previous iteration first.
+         *
+         * @param depth the depth of the iteration
+         * @param previousBestMove the best Move of the previous iteration, or null
+         * @param excludedMoves the root Moves that are not searched, already ranked by a multi-PV
+         *                      search
+         * @return the best Move found and its score, or null if the search was stopped
+         */
+        private RootResult searchRoot(final int depth, final Move previousBestMove,
+                                      final List<Move> excludedMoves) {
+            this.monitor.countNode(0);
+            int alpha = -INFINITY;
+            Move bestMove = null;
+            for (final Move move : orderMoves(this.board.currentPlayer().getLegalMoves(),
+                previousBestMove, this.threadId)) {
+                if (excludedMoves.contains(move)) {
+                    continue;
+                }
+                final MoveTransition moveTransition = this.board.currentPlayer().makeMove(move);
+                if (moveTransition.getMoveStatus().isDone()) {
+                    final int currentValue = -search(moveTransition.getBoard(), depth - 1,
+                        -INFINITY, -alpha);
+                    if (this.control.isStopped()) {
+                        return null;
+                    }
+                    if (bestMove == null || currentValue > alpha) {
+                        alpha = currentValue;
+                        bestMove = move;
+                    }
+                }
+            }
+            if (excludedMoves.isEmpty()) {
+                transpositionTable.store(this.board.getZobristHash(), depth, alpha,
+                    TranspositionTable.EXACT, bestMove);
+            }
+            return new RootResult(bestMove, alpha, depth);
+        }
+
+        /**
+         * A negamax search with alpha-beta pruning that probes and fills the shared
+         * TranspositionTable.
+         *
+         * @param board the current board state
+         * @param depth the remaining depth
+         * @param alpha the score that the Player to move is already assured of
+         * @param beta the score that the opponent is already assured of
+         * @return the score of the board for the Player to move
+         */
+        private int search(final Board board, final int depth, int alpha, int beta) {
+            if (this.control.isStopped()) {
+                return 0;
+            }
+            this.nodes++;
+            this.monitor.countNode(this.iterationDepth - depth);
+            if (SearchUtils.isDrawByRule(board)) {
+                return 0;
+            }
+            final int tablebaseScore = SearchUtils.probeTablebase(tablebase, board,
+                this.iterationDepth - depth);
+            if (tablebaseScore != SearchUtils.NO_TABLEBASE_SCORE) {
+                return tablebaseScore;
+            }
+            if (KPKBitbase.probe(board) == KPKBitbase.DRAW) {
+                return 0;
+            }
+            if (depth == 0 || SearchUtils.isEndGameScenario(board)) {
+                if (board.currentPlayer().getAlliance().isWhite()) {
+                    return boardEvaluator.evaluate(board, depth, alpha, beta);
+                }
+                return -boardEvaluator.evaluate(board, depth, -beta, -alpha);
+            }
+            final int originalAlpha = alpha;
+            final long entry = transpositionTable.probe(board.getZobristHash());
+            this.monitor.countProbe(entry != TranspositionTable.NO_ENTRY);
+            Move firstMove = null;
+            if (entry != TranspositionTable.NO_ENTRY) {
+                firstMove = TranspositionTable.getBestMove(entry, board);
+                if (TranspositionTable.getDepth(entry) >= depth) {
+                    final int score = TranspositionTable.getScore(entry);
+                    final int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT) {
+                        return score;
+                    } else if (bound == TranspositionTable.LOWER_BOUND) {
+                        alpha = Math.max(alpha, score);
+                    } else {
+                        beta = Math.min(beta, score);
+                    }
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+            int highestSeenValue = -INFINITY;
+            Move bestMove = null;
+            int movesSearched = 0;
+            for (final Move move : orderMoves(board.currentPlayer().getLegalMoves(), firstMove,
+                0)) {
+                final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+                if (moveTransition.getMoveStatus().isDone()) {
+                    final int currentValue = -search(moveTransition.getBoard(), depth - 1, -beta,
+                        -alpha);
+                    if (this.control.isStopped()) {
+                        return 0;
+                    }
+                    if (currentValue > highestSeenValue) {
+                        highestSeenValue = currentValue;
+                        bestMove = move;
+                    }
+                    alpha = Math.max(alpha, currentValue);
+                    if (alpha >= beta) {
+                        this.monitor.countCutoff(movesSearched == 0);
+                        break;
+                    }
+                    movesSearched++;
+                }
+            }
+            final int bound = highestSeenValue <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                highestSeenValue >= beta ? TranspositionTable.LOWER_BOUND :
+                    TranspositionTable.EXACT;
+            transpositionTable.store(board.getZobristHash(), depth, highestSeenValue, bound,
+                bestMove);
+            return highestSeenValue;
+        }
+    }
+}
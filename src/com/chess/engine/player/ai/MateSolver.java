@@ -0,0 +1,298 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public class MateSolver implements MoveStrategy {
+
+    /*
+    Abstraction Function:
+    This class represents a MoveStrategy that proves forced checkmates rather than scoring Boards.
+    The Player to move is the attacker, and the search is an AND-OR proof search: a mate in n is
+    proven at an attacker node if any attacker Move leads to a defender node that is proven, and at
+    a defender node only if every legal reply leads to a mate in the remaining moves. The mate is
+    searched one move deeper at a time, so the first mate proven is the shortest. A defender node
+    with no legal reply is proven if it is in check and refuted if it is stalemate, which costs
+    nothing more than generating its replies.
+        - maxMoves: the longest mate searched for, in attacker moves.
+        - checksOnly: whether or not non-checking attacker Moves are pruned at every attacker node.
+                      Otherwise checks are only required of the mating Move, and are tried first
+                      elsewhere, followed by captures.
+        - searchListener: the listener to which each completed depth is published, or null.
+
+     Representation Invariants:
+        - maxMoves > 0;
+     */
+
+    private static final int MATE_SCORE = 1000000;
+
+    private final int maxMoves;
+    private final boolean checksOnly;
+    private volatile SearchListener searchListener;
+
+    /**
+     * Constructor for a MateSolver that considers every attacker Move.
+     *
+     * @param maxMoves the longest mate to search for, in attacker moves
+     */
+    public MateSolver(final int maxMoves) {
+        this(maxMoves, false);
+    }
+
+    /**
+     * Constructor for a MateSolver.
+     *
+     * @param maxMoves the longest mate to search for, in attacker moves
+     * @param checksOnly whether or not to prune attacker Moves that do not give check
+     */
+    public MateSolver(final int maxMoves, final boolean checksOnly) {
+        if (maxMoves < 1) {
+            throw new IllegalArgumentException("max moves must be positive!");
+        }
+        this.maxMoves = maxMoves;
+        this.checksOnly = checksOnly;
+    }
+
+    @Override
+    public String toString() {
+        return "MateSolver";
+    }
+
+    @Override
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Plays the first Move of the shortest proven mate, or the first legal Move if no mate is
+     * proven.
+     *
+     * @param board the current board state
+     * @param stopSignal the signal that stops the search
+     * @return the mating Move, or the first legal Move
+     */
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
+        final MateResult result = solve(board, stopSignal);
+        return result.isProven() ? result.getMateLine().get(0) :
+            SearchUtils.firstLegalMove(board);
+    }
+
+    /**
+     * Searches for the shortest forced mate for the Player to move.
+     *
+     * @param board the current board state
+     * @return the result of the search
+     */
+    public MateResult solve(final Board board) {
+        return solve(board, new StopSignal());
+    }
+
+    /**
+     * Searches for the shortest forced mate for the Player to move, until the StopSignal is
+     * stopped.
+     *
+     * @param board the current board state
+     * @param stopSignal the signal that stops the search
+     * @return the result of the search, which is not proven if the search was stopped
+     */
+    public MateResult solve(final Board board, final StopSignal stopSignal) {
+        final Proof proof = new Proof(stopSignal, new SearchMonitor(this.searchListener));
+        for (int moves = 1; moves <= this.maxMoves; moves++) {
+            proof.monitor.startIteration(2 * moves - 1);
+            final List<Move> mateLine = proof.attack(board, moves, 0);
+            if (stopSignal.isStopped()) {
+                break;
+            }
+            proof.monitor.completeIteration(2 * moves - 1, mateLine != null ?
+                MATE_SCORE - mateLine.size() : 0, mateLine != null ? mateLine :
+                ImmutableList.of());
+            if (mateLine != null) {
+                return new MateResult(ImmutableList.copyOf(mateLine), moves);
+            }
+        }
+        return new MateResult(ImmutableList.of(), 0);
+    }
+
+    private class Proof {
+
+        /*
+        Abstraction Function:
+        This class represents a single proof search.
+            - stopSignal: the signal that stops the search.
+            - monitor: the monitor that counts the nodes and cutoffs of the search.
+            - disproved: the largest number of moves in which the attacker was shown to have no
+                         mate, mapped by the Zobrist hash of the attacker node.
+         */
+
+        private final StopSignal stopSignal;
+        private final SearchMonitor monitor;
+        private final Map<Long, Integer> disproved;
+
+        private Proof(final StopSignal stopSignal, final SearchMonitor monitor) {
+            this.stopSignal = stopSignal;
+            this.monitor = monitor;
+            this.disproved = new HashMap<>();
+        }
+
+        /**
+         * Searches an attacker node.
+         *
+         * @param board the board on which the attacker is to move
+         * @param moves the number of attacker moves in which to mate
+         * @param ply the distance of the board from the root
+         * @return the mate line, or null if there is no mate in the given number of moves
+         */
+        private LinkedList<Move> attack(final Board board, final int moves, final int ply) {
+            if (this.stopSignal.isStopped()) {
+                return null;
+            }
+            this.monitor.countNode(ply);
+            final Integer disprovedMoves = this.disproved.get(board.getZobristHash());
+            if (disprovedMoves != null && disprovedMoves >= moves) {
+                return null;
+            }
+            for (final MoveTransition transition : orderAttackerMoves(board, moves)) {
+                final Board childBoard = transition.getBoard();
+                LinkedList<Move> mateLine = null;
+                if (moves == 1) {
+                    if (childBoard.currentPlayer().isInCheckMate()) {
+                        mateLine = new LinkedList<>();
+                    }
+                } else {
+                    mateLine = defend(childBoard, moves - 1, ply + 1);
+                }
+                if (mateLine != null) {
+                    mateLine.addFirst(transition.getMove());
+                    return mateLine;
+                }
+            }
+            if (!this.stopSignal.isStopped()) {
+                this.disproved.put(board.getZobristHash(), moves);
+            }
+            return null;
+        }
+
+        /**
+         * Searches a defender node, following the reply that holds out the longest.
+         *
+         * @param board the board on which the defender is to move
+         * @param moves the number of attacker moves in which to mate
+         * @param ply the distance of the board from the root
+         * @return the mate line, which is empty if the defender is already mated, or null if any
+         * reply escapes the mate
+         */
+        private LinkedList<Move> defend(final Board board, final int moves, final int ply) {
+            this.monitor.countNode(ply);
+            LinkedList<Move> longestLine = null;
+            int movesSearched = 0;
+            for (final Move move : orderDefenderMoves(board)) {
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (transition.getMoveStatus().isDone()) {
+                    final LinkedList<Move> mateLine = attack(transition.getBoard(), moves,
+                        ply + 1);
+                    if (mateLine == null) {
+                        this.monitor.countCutoff(movesSearched == 0);
+                        return null;
+                    }
+                    movesSearched++;
+                    if (longestLine == null || mateLine.size() >= longestLine.size()) {
+                        mateLine.addFirst(move);
+                        longestLine = mateLine;
+                    }
+                }
+            }
+            if (movesSearched == 0) {
+                return board.currentPlayer().isInCheck() ? new LinkedList<>() : null;
+            }
+            return longestLine;
+        }
+
+        /**
+         * Makes the legal attacker Moves, with checks first and captures second. Only checks are
+         * kept for the mating Move, and when the solver searches checks only.
+         *
+         * @param board the board on which the attacker is to move
+         * @param moves the number of attacker moves in which to mate
+         * @return the transitions of the attacker Moves to be searched, in order
+         */
+        private List<MoveTransition> orderAttackerMoves(final Board board, final int moves) {
+            final List<MoveTransition> checks = new ArrayList<>();
+            final List<MoveTransition> captures = new ArrayList<>();
+            final List<MoveTransition> others = new ArrayList<>();
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (transition.getMoveStatus().isDone()) {
+                    if (transition.getBoard().currentPlayer().isInCheck()) {
+                        checks.add(transition);
+                    } else if (moves > 1 && !checksOnly) {
+                        (move.isAttack() ? captures : others).add(transition);
+                    }
+                }
+            }
+            checks.addAll(captures);
+            checks.addAll(others);
+            return checks;
+        }
+
+        /**
+         * Orders the defender Moves with captures first, since they most often escape the mate.
+         *
+         * @param board the board on which the defender is to move
+         * @return the defender Moves, in order
+         */
+        private List<Move> orderDefenderMoves(final Board board) {
+            final List<Move> orderedMoves = new ArrayList<>();
+            final List<Move> quietMoves = new ArrayList<>();
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                (move.isAttack() ? orderedMoves : quietMoves).add(move);
+            }
+            orderedMoves.addAll(quietMoves);
+            return orderedMoves;
+        }
+    }
+
+    public static final class MateResult {
+
+        /*
+        Abstraction Function:
+        This class represents the result of a MateSolver search.
+            - mateLine: the Moves of the mate, alternating between the attacker and the defender and
+                        ending with the mating Move, or an empty list if no mate was proven.
+            - mateIn: the number of attacker moves in the mate, or 0 if no mate was proven.
+         */
+
+        private final ImmutableList<Move> mateLine;
+        private final int mateIn;
+
+        private MateResult(final ImmutableList<Move> mateLine, final int mateIn) {
+            this.mateLine = mateLine;
+            this.mateIn = mateIn;
+        }
+
+        public boolean isProven() {
+            return !this.mateLine.isEmpty();
+        }
+
+        public ImmutableList<Move> getMateLine() {
+            return this.mateLine;
+        }
+
+        public int getMateIn() {
+            return this.mateIn;
+        }
+
+        @Override
+        public String toString() {
+            return isProven() ? "mate in " + this.mateIn + " " + this.mateLine : "no mate proven";
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.chess.engine.player.ai;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
 
 public class MiniMax implements MoveStrategy {
 
@@ -14,10 +15,13 @@ public class MiniMax implements MoveStrategy {
         - boardEvaluator: the evaluation algorithm that the artificial intelligence will use to
                           evaluate a specific board state.
         - searchDepth: the depth at which the algorithm will search for Moves.
+        - searchListener: the listener to which the statistics of each search are published, or
+                          null.
      */
 
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private volatile SearchListener searchListener;
 
     /**
      * Constructor for the MiniMax class. The larger the depth, the more resource and time consuming
@@ -36,18 +40,28 @@ public class MiniMax implements MoveStrategy {
     }
 
     @Override
-    public Move execute(Board board) {
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
         Move bestMove = null;
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
-        System.out.println(board.currentPlayer() + " THINKING WITH DEPTH = " + this.searchDepth);
+        final SearchMonitor monitor = new SearchMonitor(this.searchListener);
+        monitor.startIteration(this.searchDepth);
+        monitor.countNode(0);
         for (final Move move : board.currentPlayer().getLegalMoves()) {
             final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
             if (moveTransition.getMoveStatus().isDone()) {
                 currentValue = board.currentPlayer().getAlliance().isWhite() ?
-                    min(moveTransition.getBoard(), this.searchDepth - 1) :
-                    max(moveTransition.getBoard(), this.searchDepth - 1);
+                    min(moveTransition.getBoard(), this.searchDepth - 1, stopSignal, monitor) :
+                    max(moveTransition.getBoard(), this.searchDepth - 1, stopSignal, monitor);
+                if (stopSignal.isStopped()) {
+                    break;
+                }
                 if (board.currentPlayer().getAlliance().isWhite() && currentValue >=
                     highestSeenValue) {
                     highestSeenValue = currentValue;
@@ -59,6 +73,14 @@ public class MiniMax implements MoveStrategy {
                 }
             }
         }
+        if (bestMove == null) {
+            return SearchUtils.firstLegalMove(board);
+        }
+        if (!stopSignal.isStopped()) {
+            monitor.completeIteration(this.searchDepth,
+                board.currentPlayer().getAlliance().isWhite() ? highestSeenValue : -lowestSeenValue,
+                ImmutableList.of(bestMove));
+        }
         return bestMove;
     }
 
@@ -69,17 +91,28 @@ public class MiniMax implements MoveStrategy {
      *
      * @param board the current board state
      * @param depth the depth at which this function was called
+     * @param stopSignal the signal that stops the search, after which the result is meaningless
+     * @param monitor the monitor that counts the nodes of the search
      * @return the minimum gain at this particular depth
      */
-    public int min(final Board board, final int depth) {
-        if (depth == 0 || isEndGameScenario(board)) {
+    private int min(final Board board, final int depth, final StopSignal stopSignal,
+                    final SearchMonitor monitor) {
+        if (stopSignal.isStopped()) {
+            return 0;
+        }
+        monitor.countNode(this.searchDepth - depth);
+        if (SearchUtils.isDrawByRule(board)) {
+            return 0;
+        }
+        if (depth == 0 || SearchUtils.isEndGameScenario(board)) {
             return this.boardEvaluator.evaluate(board, depth);
         }
         int lowestSeenValue = Integer.MAX_VALUE;
         for (final Move move : board.currentPlayer().getLegalMoves()) {
             final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
             if (moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = max(moveTransition.getBoard(), depth - 1);
+                final int currentValue = max(moveTransition.getBoard(), depth - 1, stopSignal,
+                    monitor);
                 if (currentValue <= lowestSeenValue) {
                     lowestSeenValue = currentValue;
                 }
@@ -88,17 +121,6 @@ public class MiniMax implements MoveStrategy {
         return lowestSeenValue;
     }
 
-    /**
-     * Helper method for the min and max functions. Determines whether or not the game has ended for
-     * a given Board.
-     *
-     * @param board the Board to be assessed
-     * @return true if the game has ended in checkmate or stalemate, and false otherwise
-     */
-    private static boolean isEndGameScenario(final Board board) {
-        return board.currentPlayer().isInCheckMate() || board.currentPlayer().isInStaleMate();
-    }
-
     /**
      * A corecursive function that will calculate the maximum gain for a certain ply. Intrinsically
      * calls the corecursive min function in order to calculate the minimum gain for the layer one
@@ -106,17 +128,28 @@ public class MiniMax implements MoveStrategy {
      *
      * @param board the current board state
      * @param depth the depth at which this function was called
+     * @param stopSignal the signal that stops the search, after which the result is meaningless
+     * @param monitor the monitor that counts the nodes of the search
      * @return the maximum gain at this particular depth
      */
-    public int max(final Board board, final int depth) {
-        if (depth == 0 || isEndGameScenario(board)) {
+    private int max(final Board board, final int depth, final StopSignal stopSignal,
+                    final SearchMonitor monitor) {
+        if (stopSignal.isStopped()) {
+            return 0;
+        }
+        monitor.countNode(this.searchDepth - depth);
+        if (SearchUtils.isDrawByRule(board)) {
+            return 0;
+        }
+        if (depth == 0 || SearchUtils.isEndGameScenario(board)) {
             return this.boardEvaluator.evaluate(board, depth);
         }
         int highestSeenValue = Integer.MIN_VALUE;
         for (final Move move : board.currentPlayer().getLegalMoves()) {
             final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
             if (moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = min(moveTransition.getBoard(), depth - 1);
+                final int currentValue = min(moveTransition.getBoard(), depth - 1, stopSignal,
+                    monitor);
                 if (currentValue >= highestSeenValue) {
                     highestSeenValue = currentValue;
                 }
@@ -0,0 +1,184 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.Player;
+
+public final class Mobility {
+
+    /*
+    A utility class that measures the mobility of a Player from attack bitboards rather than from
+    its legal Moves, so that no Move is created to evaluate a Board. Bit i of a bitboard stands for
+    tile coordinate i, so the eighth rank is the lowest byte. Each Piece scores the number of tiles
+    it attacks that are neither occupied by its own Pieces nor attacked by an enemy Pawn, since a
+    Piece gains little from a tile on which a Pawn can take it, multiplied by the weight of its
+    PieceType. Minor Pieces are weighted highest by default, since each tile means the most to them,
+    and the weights may be tuned through EvaluationParameters. Pawns and Kings are not measured:
+    their moves say more about the pawn structure and safety of the King than about activity.
+        - DEFAULT_WEIGHTS: the weight of each tile attacked, indexed by the ordinal of the
+                           PieceType.
+        - KNIGHT_ATTACKS: the tiles attacked by a Knight on each tile.
+        - RAYS: the tiles from each tile to the edge of the board in each of the eight directions,
+                excluding the tile itself.
+        - POSITIVE_DIRECTIONS: whether each direction runs towards higher coordinates, which
+                               decides whether the nearest blocker is the lowest or highest bit.
+     */
+
+    private static final int[] DEFAULT_WEIGHTS =
+        EvaluationParameters.getDefault().getMobilityWeights();
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+
+    private static final int[] ROW_STEPS = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] COLUMN_STEPS = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final boolean[] POSITIVE_DIRECTIONS =
+        { false, false, false, false, true, true, true, true };
+    private static final int[] ROOK_DIRECTIONS = { 1, 3, 4, 6 };
+    private static final int[] BISHOP_DIRECTIONS = { 0, 2, 5, 7 };
+    private static final int[] QUEEN_DIRECTIONS = { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    private static final long[] KNIGHT_ATTACKS = new long[BoardUtils.NUM_TILES];
+    private static final long[][] RAYS = new long[8][BoardUtils.NUM_TILES];
+
+    static {
+        final int[][] knightSteps = { { -2, -1 }, { -2, 1 }, { -1, -2 }, { -1, 2 }, { 1, -2 },
+            { 1, 2 }, { 2, -1 }, { 2, 1 } };
+        for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            final int row = coordinate / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = coordinate % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] step : knightSteps) {
+                KNIGHT_ATTACKS[coordinate] |= bit(row + step[0], column + step[1]);
+            }
+            for (int direction = 0; direction < 8; direction++) {
+                for (int distance = 1; distance < BoardUtils.NUM_TILES_PER_ROW; distance++) {
+                    RAYS[direction][coordinate] |= bit(row + distance * ROW_STEPS[direction],
+                        column + distance * COLUMN_STEPS[direction]);
+                }
+            }
+        }
+    }
+
+    private Mobility() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Measures the mobility of a Player with the default weights.
+     *
+     * @param player the Player whose mobility is measured
+     * @return the weighted number of safe tiles attacked by the Player's Pieces
+     */
+    public static int score(final Player player) {
+        return measure(player, DEFAULT_WEIGHTS, null);
+    }
+
+    /**
+     * Measures the mobility of a Player.
+     *
+     * @param player the Player whose mobility is measured
+     * @param weights the weight of each tile attacked, indexed by the ordinal of the PieceType
+     * @return the weighted number of safe tiles attacked by the Player's Pieces
+     */
+    public static int score(final Player player, final int[] weights) {
+        return measure(player, weights, null);
+    }
+
+    /**
+     * Counts the safe tiles attacked by the Pieces of a Player, by PieceType.
+     *
+     * @param player the Player whose mobility is measured
+     * @param tileCounts the array, indexed by the ordinal of the PieceType, to which the number of
+     *                   safe tiles attacked by the Pieces of each type are added
+     */
+    public static void countTiles(final Player player, final int[] tileCounts) {
+        measure(player, DEFAULT_WEIGHTS, tileCounts);
+    }
+
+    private static int measure(final Player player, final int[] weights, final int[] tileCounts) {
+        long ownPieces = 0L;
+        long enemyPieces = 0L;
+        long enemyPawns = 0L;
+        for (final Piece piece : player.getActivePieces()) {
+            ownPieces |= 1L << piece.getPiecePosition();
+        }
+        for (final Piece piece : player.getOpponent().getActivePieces()) {
+            enemyPieces |= 1L << piece.getPiecePosition();
+            if (piece.getPieceType() == Piece.PieceType.PAWN) {
+                enemyPawns |= 1L << piece.getPiecePosition();
+            }
+        }
+        final long enemyPawnAttacks = player.getAlliance().isWhite() ?
+            ((enemyPawns & ~FILE_A) << 7) | ((enemyPawns & ~FILE_H) << 9) :
+            ((enemyPawns & ~FILE_A) >>> 9) | ((enemyPawns & ~FILE_H) >>> 7);
+        final long mobilityArea = ~ownPieces & ~enemyPawnAttacks;
+        final long occupied = ownPieces | enemyPieces;
+        int score = 0;
+        for (final Piece piece : player.getActivePieces()) {
+            final Piece.PieceType pieceType = piece.getPieceType();
+            if (pieceType != Piece.PieceType.PAWN && !pieceType.isKing()) {
+                final int tiles = Long.bitCount(attacks(piece, occupied) & mobilityArea);
+                score += weights[pieceType.ordinal()] * tiles;
+                if (tileCounts != null) {
+                    tileCounts[pieceType.ordinal()] += tiles;
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Returns the tiles attacked by a Knight, Bishop, Rook or Queen.
+     *
+     * @param piece the Piece
+     * @param occupied the tiles occupied by either Player
+     * @return the bitboard of the tiles attacked by the Piece
+     */
+    private static long attacks(final Piece piece, final long occupied) {
+        final int coordinate = piece.getPiecePosition();
+        switch (piece.getPieceType()) {
+            case KNIGHT:
+                return KNIGHT_ATTACKS[coordinate];
+            case BISHOP:
+                return slidingAttacks(coordinate, occupied, BISHOP_DIRECTIONS);
+            case ROOK:
+                return slidingAttacks(coordinate, occupied, ROOK_DIRECTIONS);
+            default:
+                return slidingAttacks(coordinate, occupied, QUEEN_DIRECTIONS);
+        }
+    }
+
+    /**
+     * Returns the tiles attacked along a set of rays, each of which ends at the first occupied
+     * tile.
+     *
+     * @param coordinate the tile coordinate of the sliding Piece
+     * @param occupied the tiles occupied by either Player
+     * @param directions the indices of the rays along which the Piece slides
+     * @return the bitboard of the tiles attacked
+     */
+    private static long slidingAttacks(final int coordinate, final long occupied,
+                                       final int[] directions) {
+        long attacks = 0L;
+        for (final int direction : directions) {
+            final long ray = RAYS[direction][coordinate];
+            final long blockers = ray & occupied;
+            if (blockers == 0) {
+                attacks |= ray;
+            } else {
+                final int blocker = POSITIVE_DIRECTIONS[direction] ?
+                    Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+                attacks |= ray ^ RAYS[direction][blocker];
+            }
+        }
+        return attacks;
+    }
+
+    private static long bit(final int row, final int column) {
+        if (row < 0 || row >= BoardUtils.NUM_TILES_PER_ROW || column < 0 ||
+            column >= BoardUtils.NUM_TILES_PER_ROW) {
+            return 0L;
+        }
+        return 1L << (row * BoardUtils.NUM_TILES_PER_ROW + column);
+    }
+}
@@ -17,5 +17,25 @@ public interface MoveStrategy {
      * @param board the current board state
      * @return the best Move according to its algorithm
      */
-    Move execute(Board board);
+    default Move execute(final Board board) {
+        return execute(board, new StopSignal());
+    }
+
+    /**
+     * Given a board state, the MoveStrategy will determine the best possible next Move that the
+     * Player should make, returning early with the best Move found so far once the StopSignal is
+     * stopped.
+     *
+     * @param board the current board state
+     * @param stopSignal the signal that stops the search
+     * @return the best Move according to its algorithm
+     */
+    Move execute(Board board, StopSignal stopSignal);
+
+    /**
+     * Sets the listener to which the statistics of every later search are published.
+     *
+     * @param searchListener the listener, or null to publish no statistics
+     */
+    void setSearchListener(SearchListener searchListener);
 }
@@ -0,0 +1,254 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+
+public final class NNUEEvaluator implements BoardEvaluator {
+
+    /*
+    Abstraction Function:
+    This class represents an evaluator that scores Boards with an NNUENetwork. The feature
+    transformer is by far the largest layer, but a Move changes only the few features of the Pieces
+    it moves, captures and promotes, so the accumulators of a Board are derived from those of the
+    Board on which the last Move was played: only the tiles that the transition Move touched are
+    compared, that is its start and destination, the tile of a Pawn captured en passant and the
+    tiles of a castling Rook, and the weights of each Piece that left one of them are subtracted and
+    those of each Piece that arrived are added. Accumulators are kept in a fixed-size table keyed by
+    the Zobrist hash of each Board. The table is probed for the Board itself first, and only when
+    its accumulators are missing are the previous Boards followed back until one is found, up to
+    MAX_UPDATE_DISTANCE Boards, and the accumulators of every Board on the way are derived and
+    stored in turn, on the way back out of the recursion. Only when no previous Board is found are
+    the accumulators summed from every Piece. A search evaluates the children of a Board one after
+    another, so each child usually finds its parent in the table. Each slot holds an immutable
+    Accumulator, so the table may be shared by any number of searching threads without locking.
+    Scores are from white's point of view.
+        - network: the network.
+        - accumulators: the table of Accumulators, indexed by the low bits of the Zobrist hash.
+        - mask: the mask that maps a Zobrist hash onto an index of the table.
+        - scratch: the inputs of the hidden layer of each thread.
+
+     Representation Invariants:
+        - accumulators.length is a power of two, and mask == accumulators.length - 1;
+     */
+
+    public static final int DEFAULT_ENTRIES = 1 << 12;
+
+    private static final int MAX_UPDATE_DISTANCE = 16;
+    private static final byte EMPTY = 0;
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private final NNUENetwork network;
+    private final Accumulator[] accumulators;
+    private final int mask;
+    private final ThreadLocal<int[]> scratch;
+
+    /**
+     * Constructor for an NNUEEvaluator with a table of the default size.
+     *
+     * @param network the network
+     */
+    public NNUEEvaluator(final NNUENetwork network) {
+        this(network, DEFAULT_ENTRIES);
+    }
+
+    /**
+     * Constructor for an NNUEEvaluator, rounded down to the nearest power of two entries.
+     *
+     * @param network the network
+     * @param entryCount the approximate number of Boards whose accumulators are kept
+     */
+    public NNUEEvaluator(final NNUENetwork network, final int entryCount) {
+        if (entryCount < 1) {
+            throw new IllegalArgumentException("the table must have at least one entry!");
+        }
+        this.network = network;
+        this.accumulators = new Accumulator[Integer.highestOneBit(entryCount)];
+        this.mask = this.accumulators.length - 1;
+        this.scratch = ThreadLocal.withInitial(() -> new int[2 * network.getHiddenSize()]);
+    }
+
+    public NNUENetwork getNetwork() {
+        return this.network;
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        if (board.currentPlayer().isInCheckMate()) {
+            final int score = StandardBoardEvaluator.checkmateScore(depth);
+            return board.currentPlayer().getAlliance().isWhite() ? -score : score;
+        }
+        return score(board, getAccumulator(board, 0));
+    }
+
+    /**
+     * Scores a Board with the network alone, from accumulators summed from every Piece rather
+     * than found in the table. On any Board that is not checkmate, the result is the same as that
+     * of evaluate, which makes it a check on the incremental updates.
+     *
+     * @param board the board
+     * @return the score of the board from white's point of view
+     */
+    public int evaluateFromScratch(final Board board) {
+        return score(board, refresh(board));
+    }
+
+    private int score(final Board board, final Accumulator accumulator) {
+        final boolean whiteToMove = board.currentPlayer().getAlliance().isWhite();
+        final int score = whiteToMove ?
+            this.network.propagate(accumulator.white, accumulator.black, this.scratch.get()) :
+            this.network.propagate(accumulator.black, accumulator.white, this.scratch.get());
+        return whiteToMove ? score : -score;
+    }
+
+    /**
+     * Finds the accumulators of a Board in the table, or derives them from those of the nearest
+     * previous Board that is, storing the accumulators of every Board on the way.
+     *
+     * @param board the board
+     * @param distance the number of Boards already followed back
+     * @return the accumulators of the board
+     */
+    private Accumulator getAccumulator(final Board board, final int distance) {
+        final Accumulator found = probe(board);
+        if (found != null) {
+            return found;
+        }
+        final Board previousBoard = board.getPreviousBoard();
+        final Accumulator accumulator = previousBoard == null || distance == MAX_UPDATE_DISTANCE ?
+            refresh(board) : update(getAccumulator(previousBoard, distance + 1), board);
+        store(accumulator);
+        return accumulator;
+    }
+
+    private Accumulator probe(final Board board) {
+        final Accumulator accumulator =
+            this.accumulators[(int) board.getZobristHash() & this.mask];
+        if (accumulator != null && accumulator.key == board.getZobristHash()) {
+            return accumulator;
+        }
+        return null;
+    }
+
+    private void store(final Accumulator accumulator) {
+        this.accumulators[(int) accumulator.key & this.mask] = accumulator;
+    }
+
+    /**
+     * Sums the accumulators of a Board from every Piece on it.
+     *
+     * @param board the board
+     * @return the accumulators of the board
+     */
+    private Accumulator refresh(final Board board) {
+        final short[] white = new short[this.network.getHiddenSize()];
+        final short[] black = new short[this.network.getHiddenSize()];
+        this.network.initialize(white);
+        this.network.initialize(black);
+        for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            final byte code = pieceCode(board.getTile(coordinate).getPiece());
+            if (code != EMPTY) {
+                addPiece(white, black, code, coordinate);
+            }
+        }
+        return new Accumulator(board.getZobristHash(), white, black);
+    }
+
+    /**
+     * Derives the accumulators of a Board from those of the Board on which its last Move was
+     * played, by the Pieces that differ on the tiles that the Move touched.
+     *
+     * @param previous the accumulators of the previous board
+     * @param board the board
+     * @return the accumulators of the board
+     */
+    private Accumulator update(final Accumulator previous, final Board board) {
+        final short[] white = previous.white.clone();
+        final short[] black = previous.black.clone();
+        final Board previousBoard = board.getPreviousBoard();
+        final Move move = board.getTransitionMove();
+        final int current = move.getCurrentCoordinate();
+        final int destination = move.getDestinationCoordinate();
+        updateTile(white, black, previousBoard, board, current);
+        updateTile(white, black, previousBoard, board, destination);
+        final Piece attackedPiece = move.getAttackedPiece();
+        if (attackedPiece != null && attackedPiece.getPiecePosition() != destination) {
+            updateTile(white, black, previousBoard, board, attackedPiece.getPiecePosition());
+        }
+        if (move.isCastlingMove()) {
+            final Move.CastleMove castleMove = (Move.CastleMove) move;
+            updateTile(white, black, previousBoard, board, castleMove.getCastleRookStart());
+            updateTile(white, black, previousBoard, board, castleMove.getCastleRookDestination());
+        }
+        return new Accumulator(board.getZobristHash(), white, black);
+    }
+
+    private void updateTile(final short[] white, final short[] black, final Board previousBoard,
+                            final Board board, final int coordinate) {
+        final byte before = pieceCode(previousBoard.getTile(coordinate).getPiece());
+        final byte after = pieceCode(board.getTile(coordinate).getPiece());
+        if (before != after) {
+            if (before != EMPTY) {
+                removePiece(white, black, before, coordinate);
+            }
+            if (after != EMPTY) {
+                addPiece(white, black, after, coordinate);
+            }
+        }
+    }
+
+    private void addPiece(final short[] white, final short[] black, final byte code,
+                          final int coordinate) {
+        this.network.addFeature(white, getFeature(Alliance.WHITE, code, coordinate));
+        this.network.addFeature(black, getFeature(Alliance.BLACK, code, coordinate));
+    }
+
+    private void removePiece(final short[] white, final short[] black, final byte code,
+                             final int coordinate) {
+        this.network.removeFeature(white, getFeature(Alliance.WHITE, code, coordinate));
+        this.network.removeFeature(black, getFeature(Alliance.BLACK, code, coordinate));
+    }
+
+    private static int getFeature(final Alliance perspective, final byte code,
+                                  final int coordinate) {
+        return NNUENetwork.getFeature(perspective, PIECE_TYPES[(code - 1) % PIECE_TYPES.length],
+            code > PIECE_TYPES.length ? Alliance.BLACK : Alliance.WHITE, coordinate);
+    }
+
+    /**
+     * Encodes a Piece as a byte: EMPTY for no Piece, 1 to 6 for the white PieceTypes in order,
+     * and 7 to 12 for the black ones.
+     *
+     * @param piece the Piece on a tile, or null
+     * @return the code of the Piece
+     */
+    private static byte pieceCode(final Piece piece) {
+        if (piece == null) {
+            return EMPTY;
+        }
+        return (byte) (1 + piece.getPieceType().ordinal() +
+            (piece.getPieceAlliance().isWhite() ? 0 : PIECE_TYPES.length));
+    }
+
+    private static final class Accumulator {
+
+        /*
+        Abstraction Function:
+        This class represents the feature transformer output of one Board.
+            - key: the Zobrist hash of the Board.
+            - white, black: the accumulators of the white and black Players.
+         */
+
+        private final long key;
+        private final short[] white;
+        private final short[] black;
+
+        private Accumulator(final long key, final short[] white, final short[] black) {
+            this.key = key;
+            this.white = white;
+            this.black = black;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class NNUENetwork {
+
+    /*
+    Abstraction Function:
+    This class represents the quantized weights of a small efficiently updatable neural network,
+    read from a network file. The network has three layers:
+        - the feature transformer: FEATURES inputs, one for each kind of Piece on each tile as seen
+                                   by one Player, with the Player's own Pieces first and the tiles
+                                   mirrored for black, feeding hiddenSize int16 accumulators. Each
+                                   Player has an accumulator of its own, built from the same
+                                   weights.
+        - the hidden layer: the accumulators of the Player to move and then of its opponent, each
+                            clipped to [0, ACTIVATION_MAX], feeding layerSize neurons. Each sum is
+                            shifted right by HIDDEN_SHIFT and clipped to [0, ACTIVATION_MAX].
+        - the output layer: the layerSize neurons, feeding a single sum that is shifted right by
+                            OUTPUT_SHIFT to give the score in centipawns for the Player to move.
+    The weights of the feature transformer are stored feature-major, so that adding or removing a
+    feature runs over contiguous weights, and those of the hidden layer neuron-major, so that each
+    neuron is a dot product over contiguous weights. The loops are plain scalar code shaped for
+    the JIT compiler to vectorize, with no reduction in the feature loops and a single int
+    reduction per neuron. The compiler of this JDK does not vectorize products of shorts into ints,
+    so the hidden weights are widened to ints when the network is built.
+        - hiddenSize: the number of accumulators of each Player.
+        - layerSize: the number of neurons of the hidden layer.
+        - featureWeights: the weights of feature f into accumulator j, at f * hiddenSize + j.
+        - featureBiases: the bias of each accumulator.
+        - hiddenWeights: the weights of input i into neuron k, at k * 2 * hiddenSize + i.
+        - widenedHiddenWeights: the hiddenWeights, widened to ints.
+        - hiddenBiases: the bias of each neuron.
+        - outputWeights: the weight of each neuron into the output.
+        - outputBias: the bias of the output.
+
+     Representation Invariants:
+        - featureWeights.length == FEATURES * hiddenSize;
+        - featureBiases.length == hiddenSize;
+        - hiddenWeights.length == 2 * hiddenSize * layerSize;
+        - hiddenBiases.length == outputWeights.length == layerSize;
+
+    A network file is written with DataOutputStream, and holds:
+        - the MAGIC number, hiddenSize and layerSize, as ints.
+        - featureWeights and featureBiases, as shorts.
+        - hiddenWeights as shorts, and hiddenBiases as ints.
+        - outputWeights as shorts, and outputBias as an int.
+     */
+
+    public static final int MAGIC = 0x4A4E4E31;
+    public static final int FEATURES = 2 * Piece.PieceType.values().length * 64;
+    public static final int ACTIVATION_MAX = 127;
+    public static final int HIDDEN_SHIFT = 6;
+    public static final int OUTPUT_SHIFT = 4;
+
+    private final int hiddenSize;
+    private final int layerSize;
+    private final short[] featureWeights;
+    private final short[] featureBiases;
+    private final short[] hiddenWeights;
+    private final int[] widenedHiddenWeights;
+    private final int[] hiddenBiases;
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    /**
+     * Constructor for an NNUENetwork from its weights, which are not copied.
+     *
+     * @param featureWeights the feature transformer weights, feature-major
+     * @param featureBiases the feature transformer biases, whose length is the hidden size
+     * @param hiddenWeights the hidden layer weights, neuron-major
+     * @param hiddenBiases the hidden layer biases, whose length is the layer size
+     * @param outputWeights the output layer weights
+     * @param outputBias the output layer bias
+     */
+    public NNUENetwork(final short[] featureWeights, final short[] featureBiases,
+                       final short[] hiddenWeights, final int[] hiddenBiases,
+                       final short[] outputWeights, final int outputBias) {
+        this.hiddenSize = featureBiases.length;
+        this.layerSize = hiddenBiases.length;
+        if (featureWeights.length != FEATURES * this.hiddenSize ||
+            hiddenWeights.length != 2 * this.hiddenSize * this.layerSize ||
+            outputWeights.length != this.layerSize) {
+            throw new IllegalArgumentException("the layers of the network do not match!");
+        }
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.hiddenWeights = hiddenWeights;
+        this.widenedHiddenWeights = new int[hiddenWeights.length];
+        for (int i = 0; i < hiddenWeights.length; i++) {
+            this.widenedHiddenWeights[i] = hiddenWeights[i];
+        }
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Reads an NNUENetwork from a network file.
+     *
+     * @param file the network file
+     * @return the network
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public static NNUENetwork load(final Path file) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a network file");
+            }
+            final int hiddenSize = in.readInt();
+            final int layerSize = in.readInt();
+            if (hiddenSize < 1 || layerSize < 1) {
+                throw new IOException(file + " has no hidden layers");
+            }
+            final short[] featureWeights = readShorts(in, FEATURES * hiddenSize);
+            final short[] featureBiases = readShorts(in, hiddenSize);
+            final short[] hiddenWeights = readShorts(in, 2 * hiddenSize * layerSize);
+            final int[] hiddenBiases = new int[layerSize];
+            for (int i = 0; i < layerSize; i++) {
+                hiddenBiases[i] = in.readInt();
+            }
+            final short[] outputWeights = readShorts(in, layerSize);
+            final int outputBias = in.readInt();
+            if (in.read() != -1) {
+                throw new IOException(file + " is longer than its network");
+            }
+            return new NNUENetwork(featureWeights, featureBiases, hiddenWeights, hiddenBiases,
+                outputWeights, outputBias);
+        }
+    }
+
+    /**
+     * Writes the NNUENetwork to a network file.
+     *
+     * @param file the network file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(this.hiddenSize);
+            out.writeInt(this.layerSize);
+            writeShorts(out, this.featureWeights);
+            writeShorts(out, this.featureBiases);
+            writeShorts(out, this.hiddenWeights);
+            for (final int bias : this.hiddenBiases) {
+                out.writeInt(bias);
+            }
+            writeShorts(out, this.outputWeights);
+            out.writeInt(this.outputBias);
+        }
+    }
+
+    private static short[] readShorts(final DataInputStream in, final int length)
+        throws IOException {
+        final short[] values = new short[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readShort();
+        }
+        return values;
+    }
+
+    private static void writeShorts(final DataOutputStream out, final short[] values)
+        throws IOException {
+        for (final short value : values) {
+            out.writeShort(value);
+        }
+    }
+
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    public int getLayerSize() {
+        return this.layerSize;
+    }
+
+    /**
+     * Returns the input of the feature transformer for a Piece, as seen by a Player.
+     *
+     * @param perspective the Player seeing the Piece
+     * @param pieceType the type of the Piece
+     * @param pieceAlliance the alliance of the Piece
+     * @param coordinate the tile coordinate of the Piece
+     * @return the index of the feature
+     */
+    public static int getFeature(final Alliance perspective, final Piece.PieceType pieceType,
+                                 final Alliance pieceAlliance, final int coordinate) {
+        final int kind = (pieceAlliance == perspective ? 0 : Piece.PieceType.values().length) +
+            pieceType.ordinal();
+        return kind * 64 + (perspective.isWhite() ? coordinate : coordinate ^ 56);
+    }
+
+    /**
+     * Sets an accumulator to the feature transformer biases.
+     *
+     * @param accumulator the hiddenSize accumulators of a Player
+     */
+    void initialize(final short[] accumulator) {
+        System.arraycopy(this.featureBiases, 0, accumulator, 0, this.hiddenSize);
+    }
+
+    /**
+     * Adds the weights of a feature to an accumulator.
+     *
+     * @param accumulator the hiddenSize accumulators of a Player
+     * @param feature the index of the feature
+     */
+    void addFeature(final short[] accumulator, final int feature) {
+        final short[] weights = this.featureWeights;
+        final int offset = feature * this.hiddenSize;
+        for (int j = 0; j < this.hiddenSize; j++) {
+            accumulator[j] += weights[offset + j];
+        }
+    }
+
+    /**
+     * Subtracts the weights of a feature from an accumulator.
+     *
+     * @param accumulator the hiddenSize accumulators of a Player
+     * @param feature the index of the feature
+     */
+    void removeFeature(final short[] accumulator, final int feature) {
+        final short[] weights = this.featureWeights;
+        final int offset = feature * this.hiddenSize;
+        for (int j = 0; j < this.hiddenSize; j++) {
+            accumulator[j] -= weights[offset + j];
+        }
+    }
+
+    /**
+     * Runs the hidden and output layers on the accumulators of both Players.
+     *
+     * @param ownAccumulator the accumulators of the Player to move
+     * @param otherAccumulator the accumulators of its opponent
+     * @param activations the scratch array of 2 * hiddenSize inputs, which is overwritten
+     * @return the score in centipawns for the Player to move
+     */
+    int propagate(final short[] ownAccumulator, final short[] otherAccumulator,
+                  final int[] activations) {
+        final int inputCount = 2 * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            activations[i] = clip(ownAccumulator[i]);
+            activations[this.hiddenSize + i] = clip(otherAccumulator[i]);
+        }
+        final int[] weights = this.widenedHiddenWeights;
+        int output = this.outputBias;
+        for (int k = 0; k < this.layerSize; k++) {
+            final int offset = k * inputCount;
+            int neuron = this.hiddenBiases[k];
+            for (int i = 0; i < inputCount; i++) {
+                neuron += activations[i] * weights[offset + i];
+            }
+            output += clip(neuron >> HIDDEN_SHIFT) * this.outputWeights[k];
+        }
+        return output >> OUTPUT_SHIFT;
+    }
+
+    private static int clip(final int value) {
+        return Math.max(0, Math.min(ACTIVATION_MAX, value));
+    }
+}
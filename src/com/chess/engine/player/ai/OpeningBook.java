@@ -0,0 +1,101 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PolyglotHashing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+public class OpeningBook implements MoveStrategy {
+
+    /*
+    Abstraction Function:
+    This class represents a MoveStrategy that plays Moves from a PolyglotBook while the game is in
+    book, and falls back to another MoveStrategy once it is out of book. When the book holds more
+    than one Move for a Board, one is picked at random with a probability proportional to its
+    weight, so the computer does not always play the same opening.
+        - book: the opening book.
+        - fallbackStrategy: the MoveStrategy that is used when the board is out of book.
+        - random: the source of the weighted choice between book Moves.
+     */
+
+    private final PolyglotBook book;
+    private final MoveStrategy fallbackStrategy;
+    private final Random random;
+
+    /**
+     * Constructor for an OpeningBook that reads a Polyglot book file. Published books are keyed
+     * with the standard Random64 table, loaded with PolyglotHashing.fromFile.
+     *
+     * @param bookFile the path of the Polyglot book file
+     * @param hashing the keys with which the book was built
+     * @param fallbackStrategy the MoveStrategy used when the board is out of book
+     * @throws IOException if the book file cannot be mapped
+     */
+    public OpeningBook(final Path bookFile, final PolyglotHashing hashing,
+                       final MoveStrategy fallbackStrategy) throws IOException {
+        this(new PolyglotBook(bookFile, hashing), fallbackStrategy, new Random());
+    }
+
+    /**
+     * Constructor for an OpeningBook with a given book and source of randomness.
+     *
+     * @param book the opening book
+     * @param fallbackStrategy the MoveStrategy used when the board is out of book
+     * @param random the source of the weighted choice between book Moves
+     */
+    public OpeningBook(final PolyglotBook book, final MoveStrategy fallbackStrategy,
+                       final Random random) {
+        this.book = book;
+        this.fallbackStrategy = fallbackStrategy;
+        this.random = random;
+    }
+
+    @Override
+    public String toString() {
+        return "OpeningBook(" + this.fallbackStrategy + ")";
+    }
+
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
+        final Move bookMove = selectBookMove(board);
+        return bookMove != null ? bookMove : this.fallbackStrategy.execute(board, stopSignal);
+    }
+
+    @Override
+    public void setSearchListener(final SearchListener searchListener) {
+        this.fallbackStrategy.setSearchListener(searchListener);
+    }
+
+    /**
+     * Picks one of the book Moves for a Board at random, weighted by their weights. If every book
+     * Move has a weight of zero, they are picked with equal probability.
+     *
+     * @param board the current board state
+     * @return the chosen book Move, or null if the board is out of book
+     */
+    public Move selectBookMove(final Board board) {
+        final List<PolyglotBook.BookMove> bookMoves = this.book.findMoves(board);
+        if (bookMoves.isEmpty()) {
+            return null;
+        }
+        long totalWeight = 0;
+        for (final PolyglotBook.BookMove bookMove : bookMoves) {
+            totalWeight += bookMove.getWeight();
+        }
+        if (totalWeight == 0) {
+            return bookMoves.get(this.random.nextInt(bookMoves.size())).getMove();
+        }
+        long choice = (long) (this.random.nextDouble() * totalWeight);
+        for (final PolyglotBook.BookMove bookMove : bookMoves) {
+            choice -= bookMove.getWeight();
+            if (choice < 0) {
+                return bookMove.getMove();
+            }
+        }
+        return bookMoves.get(bookMoves.size() - 1).getMove();
+    }
+}
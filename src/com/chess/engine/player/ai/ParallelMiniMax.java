@@ -0,0 +1,256 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelMiniMax implements MoveStrategy {
+
+    /*
+    Abstraction Function:
+    This class represents a MoveStrategy that splits the root Moves of a Board across the worker
+    threads of a ForkJoinPool. Every root Move is searched with an alpha-beta variant of the MiniMax
+    algorithm, and the best root score found so far is shared between the workers so that later
+    root Moves can be cut off early. Since a Board is immutable, the workers share no other state.
+        - boardEvaluator: the evaluation algorithm used to evaluate a specific board state, within
+                          the search window so that it may stop early.
+        - searchDepth: the depth at which the algorithm will search for Moves.
+        - pool: the ForkJoinPool on which the root Moves are searched.
+        - searchListener: the listener to which the statistics of each search are published, or
+                          null.
+
+     Representation Invariants:
+        - searchDepth > 0;
+        - pool.getParallelism() > 0;
+
+    The Move returned is deterministic: each root Move is searched with a window one point below the
+    shared bound, so every Move that could tie with the best Move is given an exact score, and ties
+    are broken in favour of the last Move in the legal move order, exactly as MiniMax does.
+     */
+
+    private final BoardEvaluator boardEvaluator;
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    private volatile SearchListener searchListener;
+
+    /**
+     * Constructor for a ParallelMiniMax that uses every available processor.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     */
+    public ParallelMiniMax(final int searchDepth) {
+        this(searchDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a ParallelMiniMax with a configurable number of worker threads.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     * @param parallelism the number of worker threads that will search the root moves
+     */
+    public ParallelMiniMax(final int searchDepth, final int parallelism) {
+        if (searchDepth < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("search depth and parallelism must be positive!");
+        }
+        this.boardEvaluator = new StandardBoardEvaluator();
+        this.searchDepth = searchDepth;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelMiniMax";
+    }
+
+    @Override
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
+        final boolean isWhite = board.currentPlayer().getAlliance().isWhite();
+        final AtomicInteger sharedBound = new AtomicInteger(isWhite ? Integer.MIN_VALUE :
+            Integer.MAX_VALUE);
+        final SearchMonitor monitor = new SearchMonitor(this.searchListener);
+        monitor.startIteration(this.searchDepth);
+        monitor.countNode(0);
+        final List<RootMoveTask> tasks = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            tasks.add(new RootMoveTask(board, move, sharedBound, stopSignal, monitor));
+        }
+        this.pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+        Move bestMove = null;
+        int bestSeenValue = isWhite ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (final RootMoveTask task : tasks) {
+            final Integer currentValue = task.join();
+            if (currentValue != null && (isWhite ? currentValue >= bestSeenValue :
+                currentValue <= bestSeenValue)) {
+                bestSeenValue = currentValue;
+                bestMove = task.move;
+            }
+        }
+        if (bestMove == null) {
+            return SearchUtils.firstLegalMove(board);
+        }
+        if (!stopSignal.isStopped()) {
+            monitor.completeIteration(this.searchDepth, isWhite ? bestSeenValue : -bestSeenValue,
+                ImmutableList.of(bestMove));
+        }
+        return bestMove;
+    }
+
+    /**
+     * An alpha-beta version of MiniMax.min. Returns as soon as the lowest value seen is at or below
+     * alpha, since the maximizing Player one ply up will never allow this line.
+     *
+     * @param board the current board state
+     * @param depth the remaining depth
+     * @param alpha the value that the maximizing Player is already assured of
+     * @param beta the value that the minimizing Player is already assured of
+     * @param stopSignal the signal that stops the search, after which the result is meaningless
+     * @param monitor the monitor that counts the nodes and cutoffs of the search
+     * @return the minimum gain at this particular depth
+     */
+    private int min(final Board board, final int depth, final int alpha, int beta,
+                    final StopSignal stopSignal, final SearchMonitor monitor) {
+        if (stopSignal.isStopped()) {
+            return 0;
+        }
+        monitor.countNode(this.searchDepth - depth);
+        if (SearchUtils.isDrawByRule(board)) {
+            return 0;
+        }
+        if (depth == 0 || SearchUtils.isEndGameScenario(board)) {
+            return this.boardEvaluator.evaluate(board, depth, alpha, beta);
+        }
+        int lowestSeenValue = Integer.MAX_VALUE;
+        int movesSearched = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (moveTransition.getMoveStatus().isDone()) {
+                final int currentValue = max(moveTransition.getBoard(), depth - 1, alpha, beta,
+                    stopSignal, monitor);
+                lowestSeenValue = Math.min(lowestSeenValue, currentValue);
+                beta = Math.min(beta, currentValue);
+                if (beta <= alpha) {
+                    monitor.countCutoff(movesSearched == 0);
+                    break;
+                }
+                movesSearched++;
+            }
+        }
+        return lowestSeenValue;
+    }
+
+    /**
+     * An alpha-beta version of MiniMax.max. Returns as soon as the highest value seen is at or
+     * above beta, since the minimizing Player one ply up will never allow this line.
+     *
+     * @param board the current board state
+     * @param depth the remaining depth
+     * @param alpha the value that the maximizing Player is already assured of
+     * @param beta the value that the minimizing Player is already assured of
+     * @param stopSignal the signal that stops the search, after which the result is meaningless
+     * @param monitor the monitor that counts the nodes and cutoffs of the search
+     * @return the maximum gain at this particular depth
+     */
+    private int max(final Board board, final int depth, int alpha, final int beta,
+                    final StopSignal stopSignal, final SearchMonitor monitor) {
+        if (stopSignal.isStopped()) {
+            return 0;
+        }
+        monitor.countNode(this.searchDepth - depth);
+        if (SearchUtils.isDrawByRule(board)) {
+            return 0;
+        }
+        if (depth == 0 || SearchUtils.isEndGameScenario(board)) {
+            return this.boardEvaluator.evaluate(board, depth, alpha, beta);
+        }
+        int highestSeenValue = Integer.MIN_VALUE;
+        int movesSearched = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (moveTransition.getMoveStatus().isDone()) {
+                final int currentValue = min(moveTransition.getBoard(), depth - 1, alpha, beta,
+                    stopSignal, monitor);
+                highestSeenValue = Math.max(highestSeenValue, currentValue);
+                alpha = Math.max(alpha, currentValue);
+                if (alpha >= beta) {
+                    monitor.countCutoff(movesSearched == 0);
+                    break;
+                }
+                movesSearched++;
+            }
+        }
+        return highestSeenValue;
+    }
+
+    private class RootMoveTask extends RecursiveTask<Integer> {
+
+        /*
+        Abstraction Function:
+        This class represents the search of a single root Move on a worker thread. The result is
+        the score of the Move, or null if the Move leaves the Player in check or the search was
+        stopped before the Move was fully searched.
+            - board: the root board state.
+            - move: the root Move being searched.
+            - sharedBound: the best root score found by any worker so far.
+            - stopSignal: the signal that stops the search.
+            - monitor: the monitor that collects the statistics of the search.
+         */
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final Move move;
+        private final AtomicInteger sharedBound;
+        private final StopSignal stopSignal;
+        private final SearchMonitor monitor;
+
+        private RootMoveTask(final Board board, final Move move, final AtomicInteger sharedBound,
+                             final StopSignal stopSignal, final SearchMonitor monitor) {
+            this.board = board;
+            this.move = move;
+            this.sharedBound = sharedBound;
+            this.stopSignal = stopSignal;
+            this.monitor = monitor;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.stopSignal.isStopped()) {
+                return null;
+            }
+            final MoveTransition moveTransition = this.board.currentPlayer().makeMove(this.move);
+            if (!moveTransition.getMoveStatus().isDone()) {
+                return null;
+            }
+            final int bound = this.sharedBound.get();
+            final boolean isWhite = this.board.currentPlayer().getAlliance().isWhite();
+            final int currentValue;
+            if (isWhite) {
+                final int alpha = bound == Integer.MIN_VALUE ? bound : bound - 1;
+                currentValue = min(moveTransition.getBoard(), searchDepth - 1, alpha,
+                    Integer.MAX_VALUE, this.stopSignal, this.monitor);
+            } else {
+                final int beta = bound == Integer.MAX_VALUE ? bound : bound + 1;
+                currentValue = max(moveTransition.getBoard(), searchDepth - 1, Integer.MIN_VALUE,
+                    beta, this.stopSignal, this.monitor);
+            }
+            if (this.stopSignal.isStopped()) {
+                return null;
+            }
+            this.sharedBound.accumulateAndGet(currentValue, isWhite ? Math::max : Math::min);
+            return currentValue;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class PawnHashTable {
+
+    /*
+    Abstraction Function:
+    This class represents a fixed-size cache of pawn structure evaluations, keyed by the Pawn hash
+    of a Board. Pawns move far less often than other pieces, so nearly every Board of a search
+    shares its Pawn structure with a Board evaluated before, and the structure is only analysed on a
+    miss. Each slot holds an immutable Entry, so the table may be shared by any number of searching
+    threads without locking: a thread reads either the old Entry or the new one, never a mixture.
+        - entries: the cached Entries, indexed by the low bits of the Pawn hash.
+        - mask: the mask that maps a Pawn hash onto an index of the table.
+        - probes: the number of lookups.
+        - hits: the number of lookups answered from the table.
+
+     Representation Invariants:
+        - entries.length is a power of two, and mask == entries.length - 1;
+
+    Pawns are analysed as bitboards, with bit i standing for tile coordinate i, so the eighth rank
+    is the lowest byte. The structure is scored from white's point of view as follows:
+        - doubled: every Pawn beyond the first on a file.
+        - isolated: a Pawn with no Pawn of its own side on either neighbouring file.
+        - backward: a Pawn that is not isolated, whose neighbouring Pawns have all advanced past
+                    it, and whose stop square is attacked by an enemy Pawn.
+        - passed: a Pawn with no enemy Pawn ahead of it on its own or either neighbouring file,
+                  rewarded by how far it has advanced.
+     */
+
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+    private static final long WHITE_SHIELD_RANKS = 0x00FFFF0000000000L;
+    private static final long BLACK_SHIELD_RANKS = 0x0000000000FFFF00L;
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    private static final int[] PASSED_MIDDLEGAME = { 0, 5, 10, 20, 35, 60, 100, 0 };
+    private static final int[] PASSED_ENDGAME = { 0, 10, 20, 40, 70, 120, 200, 0 };
+
+    private static final long[] WHITE_FRONT_SPANS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BLACK_FRONT_SPANS = new long[BoardUtils.NUM_TILES];
+    private static final long[] WHITE_SUPPORT_SPANS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BLACK_SUPPORT_SPANS = new long[BoardUtils.NUM_TILES];
+    private static final long[] WHITE_SHELTER_ZONES = new long[BoardUtils.NUM_TILES];
+    private static final long[] BLACK_SHELTER_ZONES = new long[BoardUtils.NUM_TILES];
+
+    static {
+        for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            final int row = coordinate / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = coordinate % BoardUtils.NUM_TILES_PER_ROW;
+            for (int other = 0; other < BoardUtils.NUM_TILES; other++) {
+                final int otherRow = other / BoardUtils.NUM_TILES_PER_ROW;
+                final int columnDistance = Math.abs(other % BoardUtils.NUM_TILES_PER_ROW - column);
+                if (columnDistance > 1) {
+                    continue;
+                }
+                final long bit = 1L << other;
+                if (otherRow < row) {
+                    WHITE_FRONT_SPANS[coordinate] |= bit;
+                }
+                if (otherRow > row) {
+                    BLACK_FRONT_SPANS[coordinate] |= bit;
+                }
+                if (columnDistance == 1 && otherRow >= row) {
+                    WHITE_SUPPORT_SPANS[coordinate] |= bit;
+                }
+                if (columnDistance == 1 && otherRow <= row) {
+                    BLACK_SUPPORT_SPANS[coordinate] |= bit;
+                }
+                if (row >= 6 && (otherRow == row - 1 || otherRow == row - 2)) {
+                    WHITE_SHELTER_ZONES[coordinate] |= bit;
+                }
+                if (row <= 1 && (otherRow == row + 1 || otherRow == row + 2)) {
+                    BLACK_SHELTER_ZONES[coordinate] |= bit;
+                }
+            }
+        }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final LongAdder probes;
+    private final LongAdder hits;
+
+    /**
+     * Constructor for a PawnHashTable, rounded down to the nearest power of two entries.
+     *
+     * @param entryCount the approximate number of entries
+     */
+    public PawnHashTable(final int entryCount) {
+        if (entryCount < 1) {
+            throw new IllegalArgumentException("the table must have at least one entry!");
+        }
+        this.entries = new Entry[Integer.highestOneBit(entryCount)];
+        this.mask = this.entries.length - 1;
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
+    }
+
+    /**
+     * Looks up the pawn structure of a Board, analysing and storing it on a miss.
+     *
+     * @param board the board
+     * @return the evaluation of the board's pawn structure
+     */
+    public Entry probe(final Board board) {
+        final long pawnHash = board.getPawnHash();
+        final int index = (int) pawnHash & this.mask;
+        this.probes.increment();
+        final Entry entry = this.entries[index];
+        if (entry != null && entry.key == pawnHash) {
+            this.hits.increment();
+            return entry;
+        }
+        final Entry newEntry = analyse(board);
+        this.entries[index] = newEntry;
+        return newEntry;
+    }
+
+    public int size() {
+        return this.entries.length;
+    }
+
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public double getHitRate() {
+        final long probeCount = getProbes();
+        return probeCount == 0 ? 0 : (double) getHits() / probeCount;
+    }
+
+    /**
+     * Analyses the pawn structure of a Board.
+     *
+     * @param board the board
+     * @return the evaluation of the pawn structure
+     */
+    private static Entry analyse(final Board board) {
+        long whitePawns = 0L;
+        long blackPawns = 0L;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getTile(i).getPiece();
+            if (piece != null && piece.getPieceType() == Piece.PieceType.PAWN) {
+                if (piece.getPieceAlliance().isWhite()) {
+                    whitePawns |= 1L << i;
+                } else {
+                    blackPawns |= 1L << i;
+                }
+            }
+        }
+        final long whiteAttacks = ((whitePawns & ~FILE_A) >>> 9) | ((whitePawns & ~FILE_H) >>> 7);
+        final long blackAttacks = ((blackPawns & ~FILE_A) << 7) | ((blackPawns & ~FILE_H) << 9);
+        int middlegame = 0;
+        int endgame = 0;
+        long passedPawns = 0L;
+        for (long pawns = whitePawns; pawns != 0; pawns &= pawns - 1) {
+            final int coordinate = Long.numberOfTrailingZeros(pawns);
+            final int rank = 7 - coordinate / BoardUtils.NUM_TILES_PER_ROW;
+            if ((WHITE_FRONT_SPANS[coordinate] & blackPawns) == 0) {
+                passedPawns |= 1L << coordinate;
+                middlegame += PASSED_MIDDLEGAME[rank];
+                endgame += PASSED_ENDGAME[rank];
+            }
+            if (isIsolated(coordinate, whitePawns)) {
+                middlegame += ISOLATED_MIDDLEGAME;
+                endgame += ISOLATED_ENDGAME;
+            } else if ((WHITE_SUPPORT_SPANS[coordinate] & whitePawns) == 0 &&
+                (blackAttacks & (1L << (coordinate - BoardUtils.NUM_TILES_PER_ROW))) != 0) {
+                middlegame += BACKWARD_MIDDLEGAME;
+                endgame += BACKWARD_ENDGAME;
+            }
+        }
+        for (long pawns = blackPawns; pawns != 0; pawns &= pawns - 1) {
+            final int coordinate = Long.numberOfTrailingZeros(pawns);
+            final int rank = coordinate / BoardUtils.NUM_TILES_PER_ROW;
+            if ((BLACK_FRONT_SPANS[coordinate] & whitePawns) == 0) {
+                passedPawns |= 1L << coordinate;
+                middlegame -= PASSED_MIDDLEGAME[rank];
+                endgame -= PASSED_ENDGAME[rank];
+            }
+            if (isIsolated(coordinate, blackPawns)) {
+                middlegame -= ISOLATED_MIDDLEGAME;
+                endgame -= ISOLATED_ENDGAME;
+            } else if ((BLACK_SUPPORT_SPANS[coordinate] & blackPawns) == 0 &&
+                (whiteAttacks & (1L << (coordinate + BoardUtils.NUM_TILES_PER_ROW))) != 0) {
+                middlegame -= BACKWARD_MIDDLEGAME;
+                endgame -= BACKWARD_ENDGAME;
+            }
+        }
+        for (int column = 0; column < BoardUtils.NUM_TILES_PER_ROW; column++) {
+            final int whiteCount = Long.bitCount(whitePawns & (FILE_A << column));
+            final int blackCount = Long.bitCount(blackPawns & (FILE_A << column));
+            middlegame += DOUBLED_MIDDLEGAME * (Math.max(whiteCount - 1, 0) -
+                Math.max(blackCount - 1, 0));
+            endgame += DOUBLED_ENDGAME * (Math.max(whiteCount - 1, 0) -
+                Math.max(blackCount - 1, 0));
+        }
+        return new Entry(board.getPawnHash(), middlegame, endgame, passedPawns,
+            whitePawns & WHITE_SHIELD_RANKS, blackPawns & BLACK_SHIELD_RANKS);
+    }
+
+    private static boolean isIsolated(final int coordinate, final long ownPawns) {
+        final int column = coordinate % BoardUtils.NUM_TILES_PER_ROW;
+        long neighbourFiles = 0L;
+        if (column > 0) {
+            neighbourFiles |= FILE_A << (column - 1);
+        }
+        if (column < BoardUtils.NUM_TILES_PER_ROW - 1) {
+            neighbourFiles |= FILE_A << (column + 1);
+        }
+        return (ownPawns & neighbourFiles) == 0;
+    }
+
+    public static final class Entry {
+
+        /*
+        Abstraction Function:
+        This class represents the cached evaluation of one pawn structure.
+            - key: the Pawn hash of the structure.
+            - middlegameScore, endgameScore: the pawn structure terms, white's minus black's.
+            - passedPawns: the bitboard of the passed Pawns of both sides.
+            - whiteShield, blackShield: the bitboards of the Pawns on the two ranks in front of
+                                        each side's back rank, which are the only Pawns that can
+                                        shelter a castled King.
+         */
+
+        private final long key;
+        private final int middlegameScore;
+        private final int endgameScore;
+        private final long passedPawns;
+        private final long whiteShield;
+        private final long blackShield;
+
+        private Entry(final long key, final int middlegameScore, final int endgameScore,
+                      final long passedPawns, final long whiteShield, final long blackShield) {
+            this.key = key;
+            this.middlegameScore = middlegameScore;
+            this.endgameScore = endgameScore;
+            this.passedPawns = passedPawns;
+            this.whiteShield = whiteShield;
+            this.blackShield = blackShield;
+        }
+
+        public int getMiddlegameScore() {
+            return this.middlegameScore;
+        }
+
+        public int getEndgameScore() {
+            return this.endgameScore;
+        }
+
+        public long getPassedPawns() {
+            return this.passedPawns;
+        }
+
+        public long getShield(final Alliance alliance) {
+            return alliance.isWhite() ? this.whiteShield : this.blackShield;
+        }
+
+        /**
+         * Counts the Pawns that shelter a King on its own back two ranks: those on the King's file
+         * and the neighbouring files, one or two ranks in front of it.
+         *
+         * @param alliance the alliance of the King
+         * @param kingCoordinate the tile coordinate of the King
+         * @return the number of sheltering Pawns, or 0 if the King has left its back two ranks
+         */
+        public int countShelter(final Alliance alliance, final int kingCoordinate) {
+            return Long.bitCount(getShield(alliance) & (alliance.isWhite() ?
+                WHITE_SHELTER_ZONES[kingCoordinate] : BLACK_SHELTER_ZONES[kingCoordinate]));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.PieceSquareTables;
+
+public final class PieceSquareTableEvaluator implements BoardEvaluator {
+
+    /*
+    Abstraction Function:
+    This class represents an evaluator that scores the material of each Player plus the position of
+    every Piece, from the PieceSquareTables, tapered between the middlegame and the endgame by the
+    material left on the board. Unlike the StandardBoardEvaluator, it never looks at the legal
+    Moves of either Player, and its terms are kept up to date by the Board as Moves are played, so a
+    leaf costs constant time. The pawn structure, and the Pawns sheltering each King in the
+    middlegame, are looked up in a PawnHashTable. Scores are from white's point of view.
+        - pawnHashTable: the cache of pawn structure evaluations.
+     */
+
+    private static final int SHELTER_BONUS = 10;
+
+    private final PawnHashTable pawnHashTable;
+
+    /**
+     * Constructor for a PieceSquareTableEvaluator with a PawnHashTable of the default size.
+     */
+    public PieceSquareTableEvaluator() {
+        this(new PawnHashTable(PawnHashTable.DEFAULT_ENTRIES));
+    }
+
+    /**
+     * Constructor for a PieceSquareTableEvaluator.
+     *
+     * @param pawnHashTable the cache of pawn structure evaluations, which may be shared
+     */
+    public PieceSquareTableEvaluator(final PawnHashTable pawnHashTable) {
+        this.pawnHashTable = pawnHashTable;
+    }
+
+    public PawnHashTable getPawnHashTable() {
+        return this.pawnHashTable;
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        if (board.currentPlayer().isInCheckMate()) {
+            final int score = StandardBoardEvaluator.checkmateScore(depth);
+            return board.currentPlayer().getAlliance().isWhite() ? -score : score;
+        }
+        final PawnHashTable.Entry pawns = this.pawnHashTable.probe(board);
+        final int shelter = SHELTER_BONUS * (pawns.countShelter(Alliance.WHITE,
+            board.whitePlayer().getPlayerKing().getPiecePosition()) -
+            pawns.countShelter(Alliance.BLACK,
+            board.blackPlayer().getPlayerKing().getPiecePosition()));
+        return board.getMaterialScore() + PieceSquareTables.taper(board.getMiddlegameScore() +
+            pawns.getMiddlegameScore() + shelter, board.getEndgameScore() +
+            pawns.getEndgameScore(), board.getPhase());
+    }
+}
@@ -0,0 +1,221 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PolyglotHashing;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PolyglotBook {
+
+    /*
+    Abstraction Function:
+    This class represents a read-only opening book in the Polyglot format. The file is memory-mapped
+    rather than read onto the heap, so books of any size open instantly and only the pages touched
+    by a lookup are ever loaded. The entries of the book are 16 bytes each, sorted by key, and
+    stored big-endian as follows:
+        - bytes 0 to 7: the Polyglot hash of the Board state.
+        - bytes 8 and 9: the Move, packed as described by encodeMove.
+        - bytes 10 and 11: the weight of the Move, usually proportional to how well it scored.
+        - bytes 12 to 15: learning data, which is ignored.
+    The fields of this class are:
+        - hashing: the keys with which the Board states of the book were hashed.
+        - segments: the book file, mapped in segments of SEGMENT_ENTRIES entries each, since a
+                    single mapping cannot exceed two gigabytes.
+        - entryCount: the number of entries in the book.
+
+     Representation Invariants:
+        - the entries are sorted by key, in unsigned order;
+     */
+
+    public static final int ENTRY_SIZE = 16;
+
+    private static final int QUEEN_PROMOTION = 4;
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_ENTRIES = 1L << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = (int) SEGMENT_ENTRIES - 1;
+
+    private final PolyglotHashing hashing;
+    private final MappedByteBuffer[] segments;
+    private final long entryCount;
+
+    /**
+     * Constructor for a PolyglotBook that memory-maps a book file.
+     *
+     * @param bookFile the path of the book file
+     * @param hashing the keys with which the book was built
+     * @throws IOException if the file cannot be mapped or is not a whole number of entries
+     * @throws IllegalArgumentException if no keys are given
+     */
+    public PolyglotBook(final Path bookFile, final PolyglotHashing hashing) throws IOException {
+        if (hashing == null) {
+            throw new IllegalArgumentException("a Polyglot book cannot be read without its keys!");
+        }
+        this.hashing = hashing;
+        try (final FileChannel channel = FileChannel.open(bookFile, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size % ENTRY_SIZE != 0) {
+                throw new IOException(bookFile + " is not a Polyglot book");
+            }
+            this.entryCount = size / ENTRY_SIZE;
+            this.segments = new MappedByteBuffer[(int) ((this.entryCount + SEGMENT_ENTRIES - 1) /
+                SEGMENT_ENTRIES)];
+            for (int i = 0; i < this.segments.length; i++) {
+                final long position = i * SEGMENT_ENTRIES * ENTRY_SIZE;
+                this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(SEGMENT_ENTRIES * ENTRY_SIZE, size - position));
+            }
+        }
+    }
+
+    public long getEntryCount() {
+        return this.entryCount;
+    }
+
+    public PolyglotHashing getHashing() {
+        return this.hashing;
+    }
+
+    /**
+     * Finds every legal Move that the book holds for a Board state, in the order of the book.
+     * Entries whose Move is not legal on the Board, such as under-promotions, are skipped.
+     *
+     * @param board the board state
+     * @return the book Moves with their weights, or an empty list if the board is out of book
+     */
+    public List<BookMove> findMoves(final Board board) {
+        final long key = this.hashing.calculateHash(board);
+        final List<BookMove> bookMoves = new ArrayList<>();
+        for (long index = findFirstEntry(key); index < this.entryCount && getKey(index) == key;
+             index++) {
+            final Move move = decodeMove(getMoveCode(index), board);
+            if (move != null) {
+                bookMoves.add(new BookMove(move, getWeight(index)));
+            }
+        }
+        return bookMoves;
+    }
+
+    /**
+     * Binary searches the book for the first entry with the given key.
+     *
+     * @param key the Polyglot hash of a board state
+     * @return the index of the first entry whose key is not below the given key
+     */
+    private long findFirstEntry(final long key) {
+        long low = 0;
+        long high = this.entryCount;
+        while (low < high) {
+            final long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(getKey(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long getKey(final long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    private int getMoveCode(final long index) {
+        return segment(index).getShort(offset(index) + 8) & 0xFFFF;
+    }
+
+    private int getWeight(final long index) {
+        return segment(index).getShort(offset(index) + 10) & 0xFFFF;
+    }
+
+    private MappedByteBuffer segment(final long index) {
+        return this.segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(final long index) {
+        return ((int) index & SEGMENT_MASK) * ENTRY_SIZE;
+    }
+
+    /**
+     * Packs a Move in the Polyglot format: bits 0 to 2 hold the destination column, bits 3 to 5
+     * the destination row, bits 6 to 8 the current column, bits 9 to 11 the current row and bits
+     * 12 to 14 the promotion piece, which is always a Queen in this engine. A castling Move is
+     * encoded as the King capturing its own Rook.
+     *
+     * @param move the move
+     * @return the packed move
+     */
+    public static int encodeMove(final Move move) {
+        final int currentCoordinate = move.getCurrentCoordinate();
+        int destinationCoordinate = move.getDestinationCoordinate();
+        if (move.isCastlingMove()) {
+            destinationCoordinate = destinationCoordinate > currentCoordinate ?
+                currentCoordinate + 3 : currentCoordinate - 4;
+        }
+        int code = PolyglotHashing.getColumn(destinationCoordinate) |
+            PolyglotHashing.getRow(destinationCoordinate) << 3 |
+            PolyglotHashing.getColumn(currentCoordinate) << 6 |
+            PolyglotHashing.getRow(currentCoordinate) << 9;
+        if (move instanceof Move.PawnPromotion) {
+            code |= QUEEN_PROMOTION << 12;
+        }
+        return code;
+    }
+
+    /**
+     * Finds the legal Move on a Board that matches a Move packed in the Polyglot format. A castling
+     * Move is also matched if it is encoded by the King's destination, as some books do.
+     *
+     * @param code the packed move
+     * @param board the board on which the move is played
+     * @return the legal Move, or null if there is none
+     */
+    public static Move decodeMove(final int code, final Board board) {
+        final int destinationCoordinate = PolyglotHashing.getCoordinate((code >>> 3) & 7,
+            code & 7);
+        final int currentCoordinate = PolyglotHashing.getCoordinate((code >>> 9) & 7,
+            (code >>> 6) & 7);
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentCoordinate() != currentCoordinate) {
+                continue;
+            }
+            if (encodeMove(move) == code || move.isCastlingMove() &&
+                move.getDestinationCoordinate() == destinationCoordinate) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    public static final class BookMove {
+
+        /*
+        Abstraction Function:
+        This class represents a Move found in the book, with its weight.
+            - move: the legal Move.
+            - weight: the weight of the Move in the book.
+         */
+
+        private final Move move;
+        private final int weight;
+
+        private BookMove(final Move move, final int weight) {
+            this.move = move;
+            this.weight = weight;
+        }
+
+        public Move getMove() {
+            return this.move;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.chess.engine.player.ai;
+
+public interface SearchListener {
+
+    /*
+    This interface will be used for anything that consumes the statistics of a search in progress,
+    such as a dashboard or the GUI. Events are published from the searching threads, so
+    implementations must be thread-safe and should return quickly.
+     */
+
+    long DEFAULT_PROGRESS_INTERVAL_MILLIS = 500;
+
+    /**
+     * Called whenever an iteration of the search completes. A search that does not use iterative
+     * deepening completes a single iteration, at its full depth.
+     *
+     * @param searchStats the statistics of the search so far
+     */
+    void iterationCompleted(SearchStats searchStats);
+
+    /**
+     * Called at a throttled interval while an iteration is in progress.
+     *
+     * @param searchStats the statistics of the search so far
+     */
+    void searchProgressed(SearchStats searchStats);
+
+    /**
+     * Returns the minimum interval between two calls to searchProgressed.
+     *
+     * @return the interval in milliseconds
+     */
+    default long getProgressIntervalMillis() {
+        return DEFAULT_PROGRESS_INTERVAL_MILLIS;
+    }
+}
@@ -0,0 +1,137 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+final class SearchMonitor {
+
+    /*
+    Abstraction Function:
+    This class collects the statistics of a single search, which may be updated by any number of
+    searching threads, and publishes them to a SearchListener. A new SearchMonitor is created for
+    every search, so concurrent searches with the same MoveStrategy never share counters.
+        - searchListener: the listener to which statistics are published, or null.
+        - startNanos: the time at which the search started.
+        - lastProgressNanos: the time at which progress was last published.
+        - the counters: see SearchStats.
+        - completedDepth: the depth of the deepest iteration published so far.
+        - depth, score, principalVariation: the result of the last completed iteration, or the
+                                            depth of the iteration in progress.
+     */
+
+    private final SearchListener searchListener;
+    private final long startNanos;
+    private final long progressIntervalNanos;
+    private final AtomicLong lastProgressNanos;
+
+    private final LongAdder nodes;
+    private final LongAdder transpositionProbes;
+    private final LongAdder transpositionHits;
+    private final LongAdder cutoffs;
+    private final LongAdder firstMoveCutoffs;
+    private final AtomicInteger selectiveDepth;
+
+    private int completedDepth;
+    private volatile int depth;
+    private volatile int score;
+    private volatile List<Move> principalVariation;
+
+    /**
+     * Constructor for the SearchMonitor of a search that starts now.
+     *
+     * @param searchListener the listener to which statistics are published, or null
+     */
+    SearchMonitor(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+        this.startNanos = System.nanoTime();
+        this.progressIntervalNanos = searchListener == null ? Long.MAX_VALUE :
+            TimeUnit.MILLISECONDS.toNanos(searchListener.getProgressIntervalMillis());
+        this.lastProgressNanos = new AtomicLong(this.startNanos);
+        this.nodes = new LongAdder();
+        this.transpositionProbes = new LongAdder();
+        this.transpositionHits = new LongAdder();
+        this.cutoffs = new LongAdder();
+        this.firstMoveCutoffs = new LongAdder();
+        this.selectiveDepth = new AtomicInteger();
+        this.principalVariation = ImmutableList.of();
+    }
+
+    /**
+     * Counts a node visited at a given ply, and publishes progress if the interval has elapsed.
+     *
+     * @param ply the distance of the node from the root
+     */
+    void countNode(final int ply) {
+        this.nodes.increment();
+        if (ply > this.selectiveDepth.get()) {
+            this.selectiveDepth.accumulateAndGet(ply, Math::max);
+        }
+        if (this.searchListener != null) {
+            final long now = System.nanoTime();
+            final long last = this.lastProgressNanos.get();
+            if (now - last >= this.progressIntervalNanos &&
+                this.lastProgressNanos.compareAndSet(last, now)) {
+                this.searchListener.searchProgressed(snapshot());
+            }
+        }
+    }
+
+    void countProbe(final boolean isHit) {
+        this.transpositionProbes.increment();
+        if (isHit) {
+            this.transpositionHits.increment();
+        }
+    }
+
+    void countCutoff(final boolean isFirstMove) {
+        this.cutoffs.increment();
+        if (isFirstMove) {
+            this.firstMoveCutoffs.increment();
+        }
+    }
+
+    /**
+     * Records the depth of the iteration that has just started, for the progress published during
+     * that iteration.
+     *
+     * @param iterationDepth the depth of the iteration
+     */
+    void startIteration(final int iterationDepth) {
+        this.depth = iterationDepth;
+    }
+
+    /**
+     * Records the result of a completed iteration and publishes it, unless a deeper iteration has
+     * already been recorded by another thread.
+     *
+     * @param iterationDepth the depth of the iteration
+     * @param iterationScore the score for the Player to move at the root
+     * @param iterationVariation the principal variation of the iteration
+     */
+    synchronized void completeIteration(final int iterationDepth, final int iterationScore,
+                                        final List<Move> iterationVariation) {
+        if (iterationDepth < this.completedDepth) {
+            return;
+        }
+        this.completedDepth = iterationDepth;
+        this.depth = iterationDepth;
+        this.score = iterationScore;
+        this.principalVariation = ImmutableList.copyOf(iterationVariation);
+        if (this.searchListener != null) {
+            this.searchListener.iterationCompleted(snapshot());
+        }
+    }
+
+    SearchStats snapshot() {
+        return new SearchStats(this.depth, this.selectiveDepth.get(), this.score, this.nodes.sum(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startNanos),
+            this.transpositionProbes.sum(), this.transpositionHits.sum(), this.cutoffs.sum(),
+            this.firstMoveCutoffs.sum(), this.principalVariation);
+    }
+}
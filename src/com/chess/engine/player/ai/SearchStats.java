@@ -0,0 +1,127 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+public final class SearchStats {
+
+    /*
+    Abstraction Function:
+    This class represents an immutable snapshot of the statistics of a search.
+        - depth: the depth of the last completed iteration, or of the iteration in progress.
+        - selectiveDepth: the deepest ply reached by any node.
+        - score: the score of the principal variation, from the point of view of the Player to move
+                 at the root.
+        - nodes: the number of nodes visited.
+        - elapsedMillis: the time since the search started.
+        - transpositionProbes: the number of times a transposition table was probed.
+        - transpositionHits: the number of those probes that found an entry.
+        - cutoffs: the number of beta cutoffs.
+        - firstMoveCutoffs: the number of those cutoffs that happened on the first Move searched.
+        - principalVariation: the best line of play found so far, starting at the root.
+     */
+
+    private final int depth;
+    private final int selectiveDepth;
+    private final int score;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final long transpositionProbes;
+    private final long transpositionHits;
+    private final long cutoffs;
+    private final long firstMoveCutoffs;
+    private final List<Move> principalVariation;
+
+    SearchStats(final int depth, final int selectiveDepth, final int score, final long nodes,
+                final long elapsedMillis, final long transpositionProbes,
+                final long transpositionHits, final long cutoffs, final long firstMoveCutoffs,
+                final List<Move> principalVariation) {
+        this.depth = depth;
+        this.selectiveDepth = selectiveDepth;
+        this.score = score;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.transpositionProbes = transpositionProbes;
+        this.transpositionHits = transpositionHits;
+        this.cutoffs = cutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.principalVariation = ImmutableList.copyOf(principalVariation);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d seldepth %d score %d nodes %d nps %d time %d " +
+                "ebf %.2f tthit %.1f%% firstcut %.1f%% pv %s", this.depth, this.selectiveDepth,
+            this.score, this.nodes, getNodesPerSecond(), this.elapsedMillis,
+            getEffectiveBranchingFactor(), 100 * getTranspositionHitRate(),
+            100 * getFirstMoveCutoffRate(), this.principalVariation);
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getSelectiveDepth() {
+        return this.selectiveDepth;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public long getTranspositionProbes() {
+        return this.transpositionProbes;
+    }
+
+    public long getTranspositionHits() {
+        return this.transpositionHits;
+    }
+
+    public long getCutoffs() {
+        return this.cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return this.firstMoveCutoffs;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    public long getNodesPerSecond() {
+        return this.elapsedMillis == 0 ? this.nodes * 1000 : this.nodes * 1000 / this.elapsedMillis;
+    }
+
+    /**
+     * Calculates the effective branching factor b of the search, such that b to the power of the
+     * depth equals the number of nodes visited.
+     *
+     * @return the effective branching factor, or 0 before the first node
+     */
+    public double getEffectiveBranchingFactor() {
+        if (this.depth == 0 || this.nodes == 0) {
+            return 0;
+        }
+        return Math.pow(this.nodes, 1.0 / this.depth);
+    }
+
+    public double getTranspositionHitRate() {
+        return this.transpositionProbes == 0 ? 0 :
+            (double) this.transpositionHits / this.transpositionProbes;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return this.cutoffs == 0 ? 0 : (double) this.firstMoveCutoffs / this.cutoffs;
+    }
+}
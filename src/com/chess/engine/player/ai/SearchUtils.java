@@ -0,0 +1,90 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.tablebase.Tablebase;
+import com.chess.engine.tablebase.TablebaseFormat;
+
+final class SearchUtils {
+
+    /*
+    A utility class for the MoveStrategy implementations, holding the checks that every search
+    algorithm shares.
+        - TABLEBASE_WIN: the score of a tablebase win at the root, above any material evaluation
+                         but below the evaluation of a checkmate found with search depth to spare.
+                         A tablebase win is scored lower the further its mate is from the root.
+        - NO_TABLEBASE_SCORE: returned by probeTablebase when the board is not in the tablebase.
+     */
+
+    static final int TABLEBASE_WIN = 500000;
+    static final int NO_TABLEBASE_SCORE = Integer.MIN_VALUE;
+
+    private SearchUtils() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Determines whether or not the game has ended for a given Board.
+     *
+     * @param board the Board to be assessed
+     * @return true if the game has ended in checkmate or stalemate, and false otherwise
+     */
+    static boolean isEndGameScenario(final Board board) {
+        return board.currentPlayer().isInCheckMate() || board.currentPlayer().isInStaleMate();
+    }
+
+    /**
+     * Determines whether a Board below the root is drawn by repetition or by the fifty-move rule.
+     * A repetition is scored as a draw at once, since the side that can repeat the cycle can
+     * always force it, and searching the cycle again would only waste effort.
+     *
+     * @param board the Board to be assessed
+     * @return true if the board repeats an earlier board state or its halfmove clock has run out
+     */
+    static boolean isDrawByRule(final Board board) {
+        return board.isFiftyMoveDraw() || board.isRepetition();
+    }
+
+    /**
+     * Probes a Board in a Tablebase, and converts its value into an exact score.
+     *
+     * @param tablebase the tablebase, or null
+     * @param board the board
+     * @param ply the distance of the board from the root
+     * @return the score of the board for the Player to move, or NO_TABLEBASE_SCORE if it was not
+     * found
+     */
+    static int probeTablebase(final Tablebase tablebase, final Board board, final int ply) {
+        if (tablebase == null) {
+            return NO_TABLEBASE_SCORE;
+        }
+        final int value = tablebase.probe(board);
+        if (value == Tablebase.NOT_FOUND || value == TablebaseFormat.ILLEGAL) {
+            return NO_TABLEBASE_SCORE;
+        }
+        if (TablebaseFormat.isWin(value)) {
+            return TABLEBASE_WIN - ply - TablebaseFormat.getDistanceToMate(value);
+        }
+        if (TablebaseFormat.isLoss(value)) {
+            return -TABLEBASE_WIN + ply + TablebaseFormat.getDistanceToMate(value);
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the first legal Move on a Board. Returned by a search that is stopped before it has
+     * scored any root Move, so that a stopped search still answers with a playable Move.
+     *
+     * @param board the current board state
+     * @return the first Move that does not leave the Player in check, or the NULL_MOVE if there is
+     * none
+     */
+    static Move firstLegalMove(final Board board) {
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                return move;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+}
@@ -1,8 +1,17 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
+import com.chess.engine.tablebase.KPKBitbase;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class StandardBoardEvaluator implements BoardEvaluator {
 
@@ -10,61 +19,477 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
     Abstraction Function:
     This class represents an evaluator for a given Board state. It assesses the material value,
     mobility, checking, and castling bonuses that a Player may possess. This class will be used in
-    artificially intelligent algorithms, such as MiniMax.
+    artificially intelligent algorithms, such as MiniMax. Mobility is measured from the tiles that
+    each Piece attacks, rather than from the legal Moves of the Player, so that evaluating a Board
+    never creates a Move. King and Pawn versus King endings are not evaluated but looked up in the
+    KPKBitbase: a draw scores zero, and a win scores a Pawn plus KNOWN_WIN_BONUS, plus
+    PAWN_ADVANCE_BONUS for each rank the Pawn has advanced so that the search makes progress. A
+    known win still scores below a Queen, so that promoting is always preferred. The piece values,
+    mobility weights and check and castling bonuses are EvaluationParameters, which may be tuned by
+    the EvaluatorTuner and loaded from a file.
+
+    Each criterion is a named EvaluationTerm, and the evaluation is the sum of the terms for white
+    minus their sum for black, so terms may be added to or removed from the standard ones, and an
+    evaluation may be broken down term by term with evaluateDetailed. When timing is enabled, the
+    nanoseconds spent in the bitbase lookup and in each term are summed across every evaluation,
+    at the cost of two reads of the clock for each, so that a profile shows which terms earn their
+    cost over a search. Terms skipped by a lazy evaluation are not timed, so a term called less
+    often than the bitbase is probed was skipped the rest of the time.
+
+    A lazy evaluation is given the search window, and skips the terms left once their margins
+    cannot bring the score back into it. The material is scored first and is unbounded, and the
+    mobility and castling margins are bounded by the weights, so a Board that is a piece down
+    against the window is scored from its material alone. While the Player to move is not in check,
+    neither Player is in check or checkmate, so those terms have no margin. Static margins are
+    summed once, and the margins that depend on the Board are only added, in order, for as long as
+    the window is still out of reach, so the mobility margin is only computed once the material
+    has been scored, and at most once per evaluation.
         - BONUS fields: these arbitrary values are multipliers for the potential advantage that a
                         certain criteria may create.
+        - BITBASE: the name under which the bitbase lookup is reported.
+        - terms: the terms that are summed.
+        - staticMargins: the sum of the static margins of the terms from each index on.
+        - boardMargins: whether or not the margin of each term depends on the Board.
+        - termNames: the name of each term.
+        - nanos: the nanoseconds spent in the bitbase lookup and then in each term, or null if
+                 timing is disabled.
+        - calls: the number of times the bitbase was probed and each term scored, or null if timing
+                 is disabled.
      */
 
-    private static final int CHECK_BONUS = 50;
+    public static final String BITBASE = "bitbase";
+
     private static final int CHECK_MATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 100;
-    private static final int CASTLE_BONUS = 60;
+    private static final int KNOWN_WIN_BONUS = 400;
+    private static final int PAWN_ADVANCE_BONUS = 20;
+
+    private final EvaluationTerm[] terms;
+    private final long[] staticMargins;
+    private final boolean[] boardMargins;
+    private final List<String> termNames;
+    private final LongAdder[] nanos;
+    private final LongAdder[] calls;
+
+    /**
+     * Constructor for a StandardBoardEvaluator with the default parameters.
+     */
+    public StandardBoardEvaluator() {
+        this(EvaluationParameters.getDefault());
+    }
+
+    /**
+     * Constructor for a StandardBoardEvaluator.
+     *
+     * @param parameters the weights of the evaluation
+     */
+    public StandardBoardEvaluator(final EvaluationParameters parameters) {
+        this(createTerms(parameters), false);
+    }
+
+    /**
+     * Constructor for a StandardBoardEvaluator composed of any terms.
+     *
+     * @param terms the terms to be summed, each with a distinct name
+     * @param timed whether or not the time spent in each term is measured
+     */
+    public StandardBoardEvaluator(final List<EvaluationTerm> terms, final boolean timed) {
+        this.terms = terms.toArray(new EvaluationTerm[0]);
+        final List<String> names = new ArrayList<>();
+        for (final EvaluationTerm term : this.terms) {
+            if (names.contains(term.getName()) || term.getName().equals(BITBASE)) {
+                throw new IllegalArgumentException("duplicate evaluation term " + term.getName());
+            }
+            names.add(term.getName());
+        }
+        this.termNames = ImmutableList.copyOf(names);
+        this.staticMargins = new long[this.terms.length + 1];
+        this.boardMargins = new boolean[this.terms.length];
+        for (int i = this.terms.length - 1; i >= 0; i--) {
+            final int margin = this.terms[i].getStaticMargin();
+            this.boardMargins[i] = margin == EvaluationTerm.UNBOUNDED;
+            this.staticMargins[i] = this.staticMargins[i + 1] + (this.boardMargins[i] ? 0 : margin);
+        }
+        this.nanos = timed ? createAdders(this.terms.length + 1) : null;
+        this.calls = timed ? createAdders(this.terms.length + 1) : null;
+    }
+
+    /**
+     * Creates the standard terms: material, mobility, check, checkmate and castled.
+     *
+     * @param parameters the weights of the evaluation
+     * @return the standard terms, in the order in which they are summed
+     */
+    public static List<EvaluationTerm> createTerms(final EvaluationParameters parameters) {
+        return ImmutableList.of(new MaterialTerm(parameters), new MobilityTerm(parameters),
+            new CheckTerm(parameters), new CheckmateTerm(), new CastledTerm(parameters));
+    }
+
+    private static LongAdder[] createAdders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public List<String> getTermNames() {
+        return this.termNames;
+    }
 
     @Override
     public int evaluate(final Board board, final int depth) {
-        return scorePlayer(board, board.whitePlayer(), depth) -
-            scorePlayer(board, board.blackPlayer(), depth);
+        final int kpkResult = probeBitbase(board);
+        if (kpkResult != KPKBitbase.NOT_FOUND) {
+            return knownResult(board, kpkResult);
+        }
+        int score = 0;
+        for (int i = 0; i < this.terms.length; i++) {
+            score += scoreTerm(i, board, depth);
+        }
+        return score;
     }
 
     /**
-     * Given a certain Player, quantify how strong their current game state is.
+     * Evaluates a Board lazily: before each term, the margins of the terms left are added to and
+     * subtracted from the score so far, and if the result is still outside the window, the rest of
+     * the terms are skipped and that bound is returned.
+     */
+    @Override
+    public int evaluate(final Board board, final int depth, final int alpha, final int beta) {
+        final int kpkResult = probeBitbase(board);
+        if (kpkResult != KPKBitbase.NOT_FOUND) {
+            return knownResult(board, kpkResult);
+        }
+        int score = 0;
+        for (int i = 0; i < this.terms.length; i++) {
+            final long margin = remainingMargin(board, i, score, alpha, beta);
+            if (isOutsideWindow(score, margin, alpha, beta)) {
+                return (int) (score + margin <= alpha ? score + margin : score - margin);
+            }
+            score += scoreTerm(i, board, depth);
+        }
+        return score;
+    }
+
+    /**
+     * Sums the margins of the terms from an index on, adding those that depend on the Board only
+     * while the score is still outside the window, so the sum may stop short once it is not.
      *
      * @param board the Board being evaluated
-     * @param player the Player whose advantage will be evaluated
-     * @param depth the depth at which the evaluation is made
-     * @return the sum of multiple different criteria that combine to form to strength of the
-     * Player's game state
+     * @param index the index of the first term not yet scored
+     * @param score the score of the terms before the index
+     * @param alpha the lower bound of the window, for white
+     * @param beta the upper bound of the window, for white
+     * @return the margin of the terms left, or a part of it that already reaches the window
+     */
+    private long remainingMargin(final Board board, final int index, final int score,
+                                 final int alpha, final int beta) {
+        long margin = this.staticMargins[index];
+        for (int i = index; i < this.terms.length &&
+            isOutsideWindow(score, margin, alpha, beta); i++) {
+            if (this.boardMargins[i]) {
+                margin += this.terms[i].getMargin(board);
+            }
+        }
+        return margin;
+    }
+
+    private static boolean isOutsideWindow(final int score, final long margin, final int alpha,
+                                           final int beta) {
+        return score + margin <= alpha || score - margin >= beta;
+    }
+
+    private int probeBitbase(final Board board) {
+        if (this.nanos == null) {
+            return KPKBitbase.probe(board);
+        }
+        final long start = System.nanoTime();
+        final int kpkResult = KPKBitbase.probe(board);
+        record(0, start);
+        return kpkResult;
+    }
+
+    private int scoreTerm(final int index, final Board board, final int depth) {
+        if (this.nanos == null) {
+            return this.terms[index].scoreDifference(board, depth);
+        }
+        final long start = System.nanoTime();
+        final int score = this.terms[index].scoreDifference(board, depth);
+        record(index + 1, start);
+        return score;
+    }
+
+    private void record(final int index, final long start) {
+        this.nanos[index].add(System.nanoTime() - start);
+        this.calls[index].increment();
+    }
+
+    /**
+     * Breaks the evaluation of a Board down term by term, for each Player, at depth zero. A King
+     * and Pawn versus King ending is reported as a single BITBASE term.
+     *
+     * @param board the Board to be evaluated
+     * @return the breakdown, whose total is the evaluation of the Board
      */
-    private int scorePlayer(final Board board, final Player player, final int depth) {
-        return pieceValue(player) + mobility(player) + check(player) + checkmate(player, depth) +
-            castled(player);
+    public EvaluationBreakdown evaluateDetailed(final Board board) {
+        final int kpkResult = KPKBitbase.probe(board);
+        if (kpkResult != KPKBitbase.NOT_FOUND) {
+            final int score = knownResult(board, kpkResult);
+            return new EvaluationBreakdown(ImmutableList.of(BITBASE),
+                new int[] { Math.max(score, 0) }, new int[] { Math.max(-score, 0) });
+        }
+        final int[] whiteScores = new int[this.terms.length];
+        final int[] blackScores = new int[this.terms.length];
+        for (int i = 0; i < this.terms.length; i++) {
+            whiteScores[i] = this.terms[i].score(board.whitePlayer(), 0);
+            blackScores[i] = this.terms[i].score(board.blackPlayer(), 0);
+        }
+        return new EvaluationBreakdown(this.termNames, whiteScores, blackScores);
     }
 
-    private static int castled(Player player) {
-        return player.isCastled() ? CASTLE_BONUS : 0;
+    /**
+     * Returns the time spent in the bitbase lookup and in each term since timing began.
+     *
+     * @return the profile, whose first entry is the BITBASE lookup
+     * @throws IllegalStateException if timing is disabled
+     */
+    public EvaluationProfile getProfile() {
+        if (this.nanos == null) {
+            throw new IllegalStateException("timing is not enabled for this evaluator!");
+        }
+        final List<String> names = new ArrayList<>();
+        names.add(BITBASE);
+        names.addAll(this.termNames);
+        final long[] termNanos = new long[this.nanos.length];
+        final long[] termCalls = new long[this.calls.length];
+        for (int i = 0; i < termNanos.length; i++) {
+            termNanos[i] = this.nanos[i].sum();
+            termCalls[i] = this.calls[i].sum();
+        }
+        return new EvaluationProfile(names, termNanos, termCalls);
     }
 
-    private static int checkmate(Player player, int depth) {
-        return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
+    /**
+     * Restarts the timing of each term from zero.
+     *
+     * @throws IllegalStateException if timing is disabled
+     */
+    public void resetProfile() {
+        if (this.nanos == null) {
+            throw new IllegalStateException("timing is not enabled for this evaluator!");
+        }
+        for (int i = 0; i < this.nanos.length; i++) {
+            this.nanos[i].reset();
+            this.calls[i].reset();
+        }
+    }
+
+    /**
+     * Scores a King and Pawn versus King ending from its result in the bitbase.
+     *
+     * @param board the board
+     * @param kpkResult the result of probing the bitbase, which found the Board
+     * @return the score of the ending
+     */
+    private static int knownResult(final Board board, final int kpkResult) {
+        if (kpkResult == KPKBitbase.WHITE_WINS) {
+            return knownWin(board.whitePlayer());
+        } else if (kpkResult == KPKBitbase.BLACK_WINS) {
+            return -knownWin(board.blackPlayer());
+        }
+        return 0;
+    }
+
+    /**
+     * Scores a King and Pawn versus King ending that the bitbase knows to be won.
+     *
+     * @param player the Player with the Pawn
+     * @return the score of the ending for that Player
+     */
+    private static int knownWin(final Player player) {
+        int score = KNOWN_WIN_BONUS;
+        for (final Piece piece : player.getActivePieces()) {
+            if (!piece.getPieceType().isKing()) {
+                final int row = piece.getPiecePosition() / BoardUtils.NUM_TILES_PER_ROW;
+                score += piece.getPieceValue() + PAWN_ADVANCE_BONUS *
+                    (player.getAlliance().isWhite() ? 6 - row : row - 1);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Returns the score of a checkmate for the Player who delivers it. A checkmate found with more
+     * of the search depth left to spare is nearer, and so scores higher.
+     *
+     * @param depth the depth at which the checkmate is evaluated
+     * @return the checkmate score
+     */
+    static int checkmateScore(final int depth) {
+        return CHECK_MATE_BONUS * depthBonus(depth);
     }
 
     private static int depthBonus(int depth) {
         return depth == 0 ? 1 : DEPTH_BONUS * (depth);
     }
 
-    private static int check(final Player player) {
-        return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
+    private static final class MaterialTerm implements EvaluationTerm {
+
+        /*
+        Abstraction Function:
+        This class represents the summed piece values of a Player, not counting the King, which
+        both Players always have. When the piece values are those of the Board's material score,
+        the difference is read from the Board rather than summed.
+         */
+
+        private final EvaluationParameters parameters;
+        private final boolean standardPieceValues;
+
+        private MaterialTerm(final EvaluationParameters parameters) {
+            this.parameters = parameters;
+            this.standardPieceValues = parameters.hasStandardPieceValues();
+        }
+
+        @Override
+        public String getName() {
+            return "material";
+        }
+
+        @Override
+        public int score(final Player player, final int depth) {
+            int score = 0;
+            for (final Piece piece : player.getActivePieces()) {
+                if (!piece.getPieceType().isKing()) {
+                    score += this.parameters.getPieceValue(piece.getPieceType());
+                }
+            }
+            return score;
+        }
+
+        @Override
+        public int scoreDifference(final Board board, final int depth) {
+            return this.standardPieceValues ? board.getMaterialScore() :
+                EvaluationTerm.super.scoreDifference(board, depth);
+        }
+    }
+
+    private static final class MobilityTerm implements EvaluationTerm {
+
+        /*
+        Abstraction Function:
+        This class represents the weighted mobility of a Player, as measured by Mobility. Its
+        margin is bounded by the most tiles that each Piece can attack from any tile.
+            - MAX_TILES: the most tiles attacked by a Piece, indexed by the ordinal of the
+                         PieceType.
+            - mobilityWeights: the weight of each tile attacked, indexed by the ordinal of the
+                               PieceType.
+            - nonNegative: whether or not every weight is at least zero, in which case the score
+                           of each Player is too, and the difference is bounded by the larger
+                           Player's bound rather than by their sum.
+         */
+
+        private static final int[] MAX_TILES = { 0, 8, 13, 14, 27, 0 };
+
+        private final int[] mobilityWeights;
+        private final boolean nonNegative;
+
+        private MobilityTerm(final EvaluationParameters parameters) {
+            this.mobilityWeights = parameters.getMobilityWeights();
+            this.nonNegative = Arrays.stream(this.mobilityWeights).allMatch(weight -> weight >= 0);
+        }
+
+        @Override
+        public int getMargin(final Board board) {
+            final int whiteMargin = maximumScore(board.getWhitePieces());
+            final int blackMargin = maximumScore(board.getBlackPieces());
+            return this.nonNegative ? Math.max(whiteMargin, blackMargin) :
+                whiteMargin + blackMargin;
+        }
+
+        private int maximumScore(final Collection<Piece> pieces) {
+            int score = 0;
+            for (final Piece piece : pieces) {
+                final int ordinal = piece.getPieceType().ordinal();
+                score += Math.abs(this.mobilityWeights[ordinal]) * MAX_TILES[ordinal];
+            }
+            return score;
+        }
+
+        @Override
+        public String getName() {
+            return "mobility";
+        }
+
+        @Override
+        public int score(final Player player, final int depth) {
+            return Mobility.score(player, this.mobilityWeights);
+        }
+    }
+
+    private static final class CheckTerm implements EvaluationTerm {
+
+        private final int checkBonus;
+
+        private CheckTerm(final EvaluationParameters parameters) {
+            this.checkBonus = parameters.get(EvaluationParameters.CHECK);
+        }
+
+        @Override
+        public String getName() {
+            return "check";
+        }
+
+        @Override
+        public int getMargin(final Board board) {
+            return board.currentPlayer().isInCheck() ? Math.abs(this.checkBonus) : 0;
+        }
+
+        @Override
+        public int score(final Player player, final int depth) {
+            return player.getOpponent().isInCheck() ? this.checkBonus : 0;
+        }
     }
 
-    private static int mobility(final Player player) {
-        return player.getLegalMoves().size();
+    private static final class CheckmateTerm implements EvaluationTerm {
+
+        @Override
+        public String getName() {
+            return "checkmate";
+        }
+
+        @Override
+        public int getMargin(final Board board) {
+            return board.currentPlayer().isInCheck() ? UNBOUNDED : 0;
+        }
+
+        @Override
+        public int score(final Player player, final int depth) {
+            return player.getOpponent().isInCheckMate() ? checkmateScore(depth) : 0;
+        }
     }
 
-    private static int pieceValue(final Player player) {
-        int pieceValueScore = 0;
-        for (final Piece piece : player.getActivePieces()) {
-            pieceValueScore += piece.getPieceValue();
+    private static final class CastledTerm implements EvaluationTerm {
+
+        private final int castleBonus;
+
+        private CastledTerm(final EvaluationParameters parameters) {
+            this.castleBonus = parameters.get(EvaluationParameters.CASTLE);
+        }
+
+        @Override
+        public String getName() {
+            return "castled";
+        }
+
+        @Override
+        public int getStaticMargin() {
+            return Math.abs(this.castleBonus);
+        }
+
+        @Override
+        public int score(final Player player, final int depth) {
+            return player.isCastled() ? this.castleBonus : 0;
         }
-        return pieceValueScore;
     }
 }
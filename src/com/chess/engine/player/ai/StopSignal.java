@@ -0,0 +1,44 @@
+package com.chess.engine.player.ai;
+
+public final class StopSignal {
+
+    /*
+    Abstraction Function:
+    This class represents a signal with which a search in progress may be asked to stop. A
+    MoveStrategy checks the signal at every node it visits and, once the signal is stopped, returns
+    the best Move it has found so far. A signal may be linked to a parent signal, in which case
+    stopping the parent also stops the child. Interrupting the thread that checks a signal also
+    counts as stopping it.
+        - parent: the signal whose stop also stops this signal, or null.
+        - stopped: whether or not this signal has been stopped.
+     */
+
+    private final StopSignal parent;
+    private volatile boolean stopped;
+
+    /**
+     * Constructor for a StopSignal that has not been stopped.
+     */
+    public StopSignal() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a StopSignal that is also stopped when its parent is stopped.
+     *
+     * @param parent the parent signal, or null
+     */
+    public StopSignal(final StopSignal parent) {
+        this.parent = parent;
+        this.stopped = false;
+    }
+
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isStopped() {
+        return this.stopped || (this.parent != null && this.parent.isStopped()) ||
+            Thread.currentThread().isInterrupted();
+    }
+}
@@ -0,0 +1,83 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.tablebase.Tablebase;
+
+public class TablebaseStrategy implements MoveStrategy {
+
+    /*
+    Abstraction Function:
+    This class represents a MoveStrategy that plays endgames covered by a Tablebase perfectly,
+    without searching, and falls back to another MoveStrategy for every other Board. Each legal Move
+    is scored by probing the Board it reaches, so that a won position is converted by the fastest
+    mate, a lost position is defended with the longest resistance, and a drawn position is never
+    thrown away.
+        - tablebase: the endgame tablebase.
+        - fallbackStrategy: the MoveStrategy that is used when the board is not in the tablebase.
+     */
+
+    private final Tablebase tablebase;
+    private final MoveStrategy fallbackStrategy;
+
+    /**
+     * Constructor for a TablebaseStrategy.
+     *
+     * @param tablebase the endgame tablebase
+     * @param fallbackStrategy the MoveStrategy used when the board is not in the tablebase
+     */
+    public TablebaseStrategy(final Tablebase tablebase, final MoveStrategy fallbackStrategy) {
+        this.tablebase = tablebase;
+        this.fallbackStrategy = fallbackStrategy;
+    }
+
+    @Override
+    public String toString() {
+        return "TablebaseStrategy(" + this.fallbackStrategy + ")";
+    }
+
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
+        final Move tablebaseMove = selectTablebaseMove(board);
+        return tablebaseMove != null ? tablebaseMove :
+            this.fallbackStrategy.execute(board, stopSignal);
+    }
+
+    @Override
+    public void setSearchListener(final SearchListener searchListener) {
+        this.fallbackStrategy.setSearchListener(searchListener);
+    }
+
+    /**
+     * Picks the Move with the best tablebase score: the fastest mate when the Board is won, a
+     * drawing Move when it is drawn, and the slowest mate when it is lost.
+     *
+     * @param board the current board state
+     * @return the best Move, or null if the board or one of its successors is not in the
+     * tablebase, or if the Player has no legal Move
+     */
+    public Move selectTablebaseMove(final Board board) {
+        if (SearchUtils.probeTablebase(this.tablebase, board, 0) ==
+            SearchUtils.NO_TABLEBASE_SCORE) {
+            return null;
+        }
+        Move bestMove = null;
+        int highestSeenValue = Integer.MIN_VALUE;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (moveTransition.getMoveStatus().isDone()) {
+                final int score = SearchUtils.probeTablebase(this.tablebase,
+                    moveTransition.getBoard(), 1);
+                if (score == SearchUtils.NO_TABLEBASE_SCORE) {
+                    return null;
+                }
+                if (-score > highestSeenValue) {
+                    highestSeenValue = -score;
+                    bestMove = move;
+                }
+            }
+        }
+        return bestMove;
+    }
+}
@@ -0,0 +1,145 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+import java.util.Arrays;
+
+public final class TranspositionTable {
+
+    /*
+    Abstraction Function:
+    This class represents a fixed-size hash table of previously searched Board states, keyed by
+    their Zobrist hash. It may be shared by any number of searching threads without locking: each
+    entry is stored as two longs, the packed data and the key exclusive or'd with that data, so an
+    entry that is torn by two simultaneous writes fails the key check and is treated as a miss.
+        - keys: the Zobrist hash of each entry, exclusive or'd with its data.
+        - data: the packed score, depth, bound type and best Move coordinates of each entry.
+        - mask: the mask that maps a Zobrist hash onto an index of the table.
+
+     Representation Invariants:
+        - keys.length == data.length;
+        - keys.length is a power of two, and mask == keys.length - 1;
+
+    The data of an entry is packed as follows:
+        - bits 0 to 31: the score.
+        - bits 32 to 39: the depth.
+        - bits 40 to 41: the bound type, which is never 0 for a stored entry.
+        - bits 42 to 47: the current coordinate of the best Move.
+        - bits 48 to 53: the destination coordinate of the best Move.
+        - bit 54: whether or not the entry holds a best Move.
+     */
+
+    public static final long NO_ENTRY = 0L;
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * Constructor for a TranspositionTable, rounded down to the nearest power of two entries.
+     *
+     * @param megabytes the approximate size of the table
+     */
+    public TranspositionTable(final int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("the table must be at least one megabyte!");
+        }
+        final long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        final int capacity = (int) Math.min(entries, 1 << 30);
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Looks up a Board state in the table.
+     *
+     * @param zobristHash the Zobrist hash of the board
+     * @return the packed entry, or NO_ENTRY if the board is not in the table
+     */
+    public long probe(final long zobristHash) {
+        final int index = (int) zobristHash & this.mask;
+        final long entry = this.data[index];
+        if ((this.keys[index] ^ entry) == zobristHash && entry != NO_ENTRY) {
+            return entry;
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores the result of a search in the table. An entry for a different Board state is always
+     * replaced, while an entry for the same Board state is only replaced by a search at least as
+     * deep.
+     *
+     * @param zobristHash the Zobrist hash of the board
+     * @param depth the depth of the search
+     * @param score the score found by the search
+     * @param bound whether the score is EXACT, a LOWER_BOUND or an UPPER_BOUND
+     * @param bestMove the best Move found by the search, or null
+     */
+    public void store(final long zobristHash, final int depth, final int score, final int bound,
+                      final Move bestMove) {
+        final int index = (int) zobristHash & this.mask;
+        final long existing = this.data[index];
+        if ((this.keys[index] ^ existing) == zobristHash && getDepth(existing) > depth) {
+            return;
+        }
+        long entry = (score & 0xFFFFFFFFL) | ((long) Math.min(depth, 0xFF) << 32) |
+            ((long) bound << 40);
+        if (bestMove != null) {
+            entry |= ((long) bestMove.getCurrentCoordinate() << 42) |
+                ((long) bestMove.getDestinationCoordinate() << 48) | (1L << 54);
+        }
+        this.data[index] = entry;
+        this.keys[index] = zobristHash ^ entry;
+    }
+
+    /**
+     * Removes every entry from the table.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.data, 0L);
+    }
+
+    public static int getScore(final long entry) {
+        return (int) entry;
+    }
+
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int getBound(final long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /**
+     * Finds the legal Move on a Board that matches the best Move stored in an entry.
+     *
+     * @param entry the packed entry
+     * @param board the board that the entry was stored for
+     * @return the best Move, or null if the entry holds no Move
+     */
+    public static Move getBestMove(final long entry, final Board board) {
+        if ((entry & (1L << 54)) == 0) {
+            return null;
+        }
+        final int currentCoordinate = (int) (entry >>> 42) & 0x3F;
+        final int destinationCoordinate = (int) (entry >>> 48) & 0x3F;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentCoordinate() == currentCoordinate &&
+                move.getDestinationCoordinate() == destinationCoordinate) {
+                return move;
+            }
+        }
+        return null;
+    }
+}
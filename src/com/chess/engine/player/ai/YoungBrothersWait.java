@@ -0,0 +1,371 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class YoungBrothersWait implements MoveStrategy {
+
+    /*
+    Abstraction Function:
+    This class represents a multi-threaded MoveStrategy using the Young Brothers Wait Concept. At
+    every node deep enough to be worth splitting, the eldest child is searched first on the current
+    thread, and only then are its younger siblings forked onto the work-stealing deques of a
+    ForkJoinPool, where idle workers may steal them. When a sibling fails high, the siblings after
+    it are aborted, along with every task forked beneath them. If the search is stopped from
+    outside, every task is aborted and the best root Move among those fully searched is returned.
+        - boardEvaluator: the evaluation algorithm used to evaluate a specific board state, within
+                          the search window so that it may stop early.
+        - searchDepth: the depth at which the algorithm will search for Moves.
+        - pool: the ForkJoinPool on which the siblings are searched.
+        - nodeCount: the number of nodes visited by the last search, excluding aborted subtrees.
+        - abortedNodeCount: the number of nodes visited in subtrees that were later aborted.
+        - searchListener: the listener to which the statistics of each search are published, or
+                          null. Its node counts include the aborted subtrees.
+
+     Representation Invariants:
+        - searchDepth > 0;
+
+    The result is reproducible for regression runs: whether a node is split depends only on its
+    depth, the younger siblings are all searched with the window left by the eldest child, and a
+    cutoff only aborts the siblings after the first sibling that failed high. The chosen Move, its
+    score and the node count are therefore the same for any number of threads and any timing.
+     */
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int MIN_SPLIT_DEPTH = 2;
+
+    private final BoardEvaluator boardEvaluator;
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    private volatile long nodeCount;
+    private volatile long abortedNodeCount;
+    private volatile SearchListener searchListener;
+
+    /**
+     * Constructor for a YoungBrothersWait search that uses every available processor.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     */
+    public YoungBrothersWait(final int searchDepth) {
+        this(searchDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a YoungBrothersWait search with a configurable number of worker threads.
+     *
+     * @param searchDepth the depth at which the algorithm will search for moves
+     * @param parallelism the number of worker threads that may steal siblings
+     */
+    public YoungBrothersWait(final int searchDepth, final int parallelism) {
+        if (searchDepth < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("search depth and parallelism must be positive!");
+        }
+        this.boardEvaluator = new StandardBoardEvaluator();
+        this.searchDepth = searchDepth;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public String toString() {
+        return "YoungBrothersWait";
+    }
+
+    @Override
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    @Override
+    public Move execute(final Board board, final StopSignal stopSignal) {
+        final List<Move> rootMoves = new ArrayList<>();
+        final List<Board> rootChildren = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (moveTransition.getMoveStatus().isDone()) {
+                rootMoves.add(move);
+                rootChildren.add(moveTransition.getBoard());
+            }
+        }
+        if (rootMoves.isEmpty()) {
+            return Move.NULL_MOVE;
+        }
+        final SearchMonitor monitor = new SearchMonitor(this.searchListener);
+        monitor.startIteration(this.searchDepth);
+        final SearchTask rootTask = new SearchTask(board, this.searchDepth, -INFINITY, INFINITY,
+            null, 0, stopSignal, monitor);
+        final int bestIndex = this.pool.invoke(new RecursiveTask<Integer>() {
+            @Override
+            protected Integer compute() {
+                return rootTask.searchRoot(rootChildren);
+            }
+        });
+        this.nodeCount = rootTask.nodes;
+        this.abortedNodeCount = rootTask.abortedNodes;
+        if (!stopSignal.isStopped()) {
+            monitor.completeIteration(this.searchDepth, rootTask.bestValue,
+                ImmutableList.of(rootMoves.get(bestIndex)));
+        }
+        return rootMoves.get(bestIndex);
+    }
+
+    /**
+     * Returns the number of nodes visited by the last search, excluding the subtrees that were
+     * aborted by a cutoff. This count is reproducible between runs.
+     *
+     * @return the node count of the last search
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Returns the number of nodes that were visited during the last search in subtrees that were
+     * later aborted by a cutoff. This count depends on thread timing.
+     *
+     * @return the wasted node count of the last search
+     */
+    public long getAbortedNodeCount() {
+        return this.abortedNodeCount;
+    }
+
+    /**
+     * Calculates the boards that result from each legal Move of the Player to move.
+     *
+     * @param board the current board state
+     * @return the resulting boards, in legal move order
+     */
+    private static List<Board> calculateChildren(final Board board) {
+        final List<Board> children = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (moveTransition.getMoveStatus().isDone()) {
+                children.add(moveTransition.getBoard());
+            }
+        }
+        return children;
+    }
+
+    private static class SplitPoint {
+
+        /*
+        Abstraction Function:
+        This class represents a node whose younger siblings have been forked.
+            - owner: the task that searched the eldest child and forked the siblings.
+            - cutoffIndex: the lowest index of a sibling that failed high so far.
+         */
+
+        private final SearchTask owner;
+        private volatile int cutoffIndex;
+
+        private SplitPoint(final SearchTask owner) {
+            this.owner = owner;
+            this.cutoffIndex = Integer.MAX_VALUE;
+        }
+
+        private synchronized void recordCutoff(final int index) {
+            if (index < this.cutoffIndex) {
+                this.cutoffIndex = index;
+            }
+        }
+    }
+
+    private class SearchTask extends RecursiveTask<Integer> {
+
+        /*
+        Abstraction Function:
+        This class represents the negamax search of one subtree with alpha-beta pruning. Scores are
+        from the point of view of the Player to move.
+            - board: the board state at the top of the subtree.
+            - depth: the remaining depth.
+            - alpha, beta: the search window.
+            - splitPoint: the split point that forked this task, or null for the root.
+            - index: the index of this task among the siblings of its split point.
+            - stopSignal: the signal that stops the whole search.
+            - monitor: the monitor that collects the statistics of the whole search.
+            - nodes: the nodes visited by this task and the siblings it has accepted.
+            - abortedNodes: the nodes visited by subtrees of this task that were aborted.
+            - completed: whether or not this task finished without being aborted.
+            - bestValue: the score of the best root Move, set only on the root task.
+         */
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private final SplitPoint splitPoint;
+        private final int index;
+        private final StopSignal stopSignal;
+        private final SearchMonitor monitor;
+        private long nodes;
+        private long abortedNodes;
+        private boolean completed;
+        private int bestValue;
+
+        private SearchTask(final Board board, final int depth, final int alpha, final int beta,
+                           final SplitPoint splitPoint, final int index,
+                           final StopSignal stopSignal, final SearchMonitor monitor) {
+            this.board = board;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.splitPoint = splitPoint;
+            this.index = index;
+            this.stopSignal = stopSignal;
+            this.monitor = monitor;
+        }
+
+        @Override
+        protected Integer compute() {
+            final int score = search(this.board, this.depth, this.alpha, this.beta);
+            this.completed = !isAborted();
+            if (this.completed && -score >= -this.alpha) {
+                this.splitPoint.recordCutoff(this.index);
+            }
+            return score;
+        }
+
+        /**
+         * Determines whether the search has been stopped, or whether a sibling before this task,
+         * or before any task above it, has failed high, in which case the result of this task will
+         * never be used.
+         *
+         * @return true if this task has been aborted
+         */
+        private boolean isAborted() {
+            if (this.stopSignal.isStopped()) {
+                return true;
+            }
+            for (SearchTask task = this; task.splitPoint != null; task = task.splitPoint.owner) {
+                if (task.splitPoint.cutoffIndex < task.index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Searches every root board, the eldest serially and the others in parallel.
+         *
+         * @param children the boards that result from each legal root Move
+         * @return the index of the best root Move, ties going to the earliest Move
+         */
+        private int searchRoot(final List<Board> children) {
+            this.nodes++;
+            this.monitor.countNode(0);
+            int bestIndex = 0;
+            int bestValue = -search(children.get(0), this.depth - 1, -INFINITY, INFINITY);
+            if (isAborted()) {
+                return bestIndex;
+            }
+            final List<SearchTask> siblings = forkSiblings(children, this.depth - 1, bestValue,
+                INFINITY);
+            for (int i = 0; i < siblings.size(); i++) {
+                final int currentValue = -siblings.get(i).join();
+                this.nodes += siblings.get(i).nodes;
+                this.abortedNodes += siblings.get(i).abortedNodes;
+                if (siblings.get(i).completed && currentValue > bestValue) {
+                    bestValue = currentValue;
+                    bestIndex = i + 1;
+                }
+            }
+            this.bestValue = bestValue;
+            return bestIndex;
+        }
+
+        /**
+         * Forks every child after the eldest as a task with the same window, and waits for them.
+         *
+         * @param children the boards of every child, the eldest first
+         * @param childDepth the remaining depth of the children
+         * @param alpha the alpha bound left by the eldest child
+         * @param beta the beta bound
+         * @return the completed sibling tasks, in move order
+         */
+        private List<SearchTask> forkSiblings(final List<Board> children, final int childDepth,
+                                              final int alpha, final int beta) {
+            final SplitPoint split = new SplitPoint(this);
+            final List<SearchTask> siblings = new ArrayList<>();
+            for (int i = 1; i < children.size(); i++) {
+                siblings.add(new SearchTask(children.get(i), childDepth, -beta, -alpha, split,
+                    i - 1, this.stopSignal, this.monitor));
+            }
+            ForkJoinTask.invokeAll(siblings);
+            return siblings;
+        }
+
+        /**
+         * A negamax search with alpha-beta pruning that splits nodes of at least MIN_SPLIT_DEPTH
+         * once their eldest child has been searched.
+         *
+         * @param board the current board state
+         * @param depth the remaining depth
+         * @param alpha the score that the Player to move is already assured of
+         * @param beta the score that the opponent is already assured of
+         * @return the score of the board for the Player to move
+         */
+        private int search(final Board board, final int depth, int alpha, final int beta) {
+            if (isAborted()) {
+                return 0;
+            }
+            this.nodes++;
+            this.monitor.countNode(searchDepth - depth);
+            if (SearchUtils.isDrawByRule(board)) {
+                return 0;
+            }
+            if (depth == 0 || SearchUtils.isEndGameScenario(board)) {
+                if (board.currentPlayer().getAlliance().isWhite()) {
+                    return boardEvaluator.evaluate(board, depth, alpha, beta);
+                }
+                return -boardEvaluator.evaluate(board, depth, -beta, -alpha);
+            }
+            final List<Board> children = calculateChildren(board);
+            int highestSeenValue = -search(children.get(0), depth - 1, -beta, -alpha);
+            if (highestSeenValue >= beta) {
+                this.monitor.countCutoff(true);
+            }
+            if (highestSeenValue >= beta || children.size() == 1 || isAborted()) {
+                return highestSeenValue;
+            }
+            alpha = Math.max(alpha, highestSeenValue);
+            if (depth < MIN_SPLIT_DEPTH) {
+                for (int i = 1; i < children.size(); i++) {
+                    final int currentValue = -search(children.get(i), depth - 1, -beta, -alpha);
+                    highestSeenValue = Math.max(highestSeenValue, currentValue);
+                    alpha = Math.max(alpha, currentValue);
+                    if (alpha >= beta) {
+                        this.monitor.countCutoff(false);
+                        break;
+                    }
+                }
+                return highestSeenValue;
+            }
+            final List<SearchTask> siblings = forkSiblings(children, depth - 1, alpha, beta);
+            boolean isCutoff = false;
+            for (final SearchTask sibling : siblings) {
+                final int currentValue = -sibling.join();
+                if (isCutoff) {
+                    this.abortedNodes += sibling.nodes + sibling.abortedNodes;
+                    continue;
+                }
+                this.nodes += sibling.nodes;
+                this.abortedNodes += sibling.abortedNodes;
+                highestSeenValue = Math.max(highestSeenValue, currentValue);
+                isCutoff = currentValue >= beta;
+                if (isCutoff) {
+                    this.monitor.countCutoff(false);
+                }
+            }
+            return highestSeenValue;
+        }
+    }
+}
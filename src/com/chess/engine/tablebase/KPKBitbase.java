@@ -0,0 +1,240 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+
+public final class KPKBitbase {
+
+    /*
+    A utility class that knows the outcome of every King and Pawn versus King position. One bit is
+    kept for every position with white to move or black to move, the white Pawn on files a to d and
+    ranks 2 to 7 and both Kings anywhere, which is 2 * 24 * 64 * 64 bits, or 24 kilobytes. A set
+    bit means that white wins; every other position is a draw or cannot arise. Positions with a
+    black Pawn, or a Pawn on files e to h, are mirrored onto these. The bits are computed when the
+    bitbase is first probed, in a fraction of a second, by the following iteration:
+        - a position is a win if white can promote the Pawn without losing the Queen at once.
+        - a position is a draw if black is stalemated or can capture the undefended Pawn.
+        - every other position is classified from its successors until no classification changes:
+          with white to move it is a win if any successor is a win, and with black to move it is a
+          win if every successor is a win. What is left undecided is a draw.
+    Promotions are always to a Queen, as everywhere else in this engine.
+        - NOT_FOUND, DRAW, WHITE_WINS, BLACK_WINS: the results of a probe.
+        - PAWN_SQUARES: the number of squares on which a normalized Pawn may stand.
+     */
+
+    public static final int NOT_FOUND = -1;
+    public static final int DRAW = 0;
+    public static final int WHITE_WINS = 1;
+    public static final int BLACK_WINS = 2;
+
+    private static final int PAWN_SQUARES = 24;
+    private static final int SIZE = 2 * PAWN_SQUARES * BoardUtils.NUM_TILES * BoardUtils.NUM_TILES;
+    private static final int WHITE_TO_MOVE = 0;
+    private static final int BLACK_TO_MOVE = 1;
+
+    private static final byte INVALID = 0;
+    private static final byte UNKNOWN = 1;
+    private static final byte DRAWN = 2;
+    private static final byte WON = 4;
+
+    private KPKBitbase() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /*
+    The bits are held by a nested class, so that they are only generated when the bitbase is first
+    probed rather than when the engine starts.
+     */
+    private static final class Bits {
+
+        private static final long[] WINS = generate();
+
+        private Bits() {
+            throw new RuntimeException("You cannot instantiate me!");
+        }
+    }
+
+    /**
+     * Looks up a Board in the bitbase.
+     *
+     * @param board the board
+     * @return WHITE_WINS or BLACK_WINS if the side with the Pawn wins, DRAW if the Board is drawn,
+     *         or NOT_FOUND if the Board is not King and Pawn versus King
+     */
+    public static int probe(final Board board) {
+        if (board.getWhitePieces().size() + board.getBlackPieces().size() != 3) {
+            return NOT_FOUND;
+        }
+        int pawnCoordinate = -1;
+        int strongKingCoordinate = -1;
+        int weakKingCoordinate = -1;
+        Alliance strongSide = null;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getTile(i).getPiece();
+            if (piece != null && piece.getPieceType() == Piece.PieceType.PAWN) {
+                pawnCoordinate = i;
+                strongSide = piece.getPieceAlliance();
+            }
+        }
+        if (strongSide == null) {
+            return NOT_FOUND;
+        }
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getTile(i).getPiece();
+            if (piece != null && piece.getPieceType() == Piece.PieceType.KING) {
+                if (piece.getPieceAlliance() == strongSide) {
+                    strongKingCoordinate = i;
+                } else {
+                    weakKingCoordinate = i;
+                }
+            }
+        }
+        if (strongKingCoordinate < 0 || weakKingCoordinate < 0) {
+            return NOT_FOUND;
+        }
+        final int flip = (strongSide.isWhite() ? 0 : 56) |
+            (pawnCoordinate % BoardUtils.NUM_TILES_PER_ROW > 3 ? 7 : 0);
+        final int sideToMove = board.currentPlayer().getAlliance() == strongSide ? WHITE_TO_MOVE :
+            BLACK_TO_MOVE;
+        final int index = getIndex(sideToMove, strongKingCoordinate ^ flip,
+            weakKingCoordinate ^ flip, pawnCoordinate ^ flip);
+        if ((Bits.WINS[index >>> 6] & (1L << index)) == 0) {
+            return DRAW;
+        }
+        return strongSide.isWhite() ? WHITE_WINS : BLACK_WINS;
+    }
+
+    private static int getIndex(final int sideToMove, final int whiteKing, final int blackKing,
+                                final int pawn) {
+        final int pawnIndex = (getRow(pawn) - 1) * 4 + getColumn(pawn);
+        return ((sideToMove * PAWN_SQUARES + pawnIndex) * BoardUtils.NUM_TILES + whiteKing) *
+            BoardUtils.NUM_TILES + blackKing;
+    }
+
+    private static int getRow(final int coordinate) {
+        return coordinate / BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private static int getColumn(final int coordinate) {
+        return coordinate % BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private static int distance(final int first, final int second) {
+        return Math.max(Math.abs(getRow(first) - getRow(second)),
+            Math.abs(getColumn(first) - getColumn(second)));
+    }
+
+    private static boolean isPawnAttack(final int pawn, final int coordinate) {
+        return getRow(coordinate) == getRow(pawn) - 1 &&
+            Math.abs(getColumn(coordinate) - getColumn(pawn)) == 1;
+    }
+
+    /**
+     * Computes the bitbase.
+     *
+     * @return the bits, one for every index
+     */
+    private static long[] generate() {
+        final byte[] results = new byte[SIZE];
+        for (int index = 0; index < SIZE; index++) {
+            results[index] = initialize(index);
+        }
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = false;
+            for (int index = 0; index < SIZE; index++) {
+                if (results[index] == UNKNOWN) {
+                    results[index] = classify(results, index);
+                    isChanged |= results[index] != UNKNOWN;
+                }
+            }
+        }
+        final long[] wins = new long[SIZE / Long.SIZE];
+        for (int index = 0; index < SIZE; index++) {
+            if (results[index] == WON) {
+                wins[index >>> 6] |= 1L << index;
+            }
+        }
+        return wins;
+    }
+
+    /**
+     * Classifies the positions that are invalid or decided without looking at their successors.
+     *
+     * @param index the index of the position
+     * @return INVALID, DRAWN, WON or UNKNOWN
+     */
+    private static byte initialize(final int index) {
+        final int blackKing = index % BoardUtils.NUM_TILES;
+        final int whiteKing = (index / BoardUtils.NUM_TILES) % BoardUtils.NUM_TILES;
+        final int pawnIndex = (index / (BoardUtils.NUM_TILES * BoardUtils.NUM_TILES)) %
+            PAWN_SQUARES;
+        final int sideToMove = index / (PAWN_SQUARES * BoardUtils.NUM_TILES * BoardUtils.NUM_TILES);
+        final int pawn = (pawnIndex / 4 + 1) * BoardUtils.NUM_TILES_PER_ROW + pawnIndex % 4;
+        if (distance(whiteKing, blackKing) <= 1 || whiteKing == pawn || blackKing == pawn ||
+            sideToMove == WHITE_TO_MOVE && isPawnAttack(pawn, blackKing)) {
+            return INVALID;
+        }
+        final int promotion = pawn - BoardUtils.NUM_TILES_PER_ROW;
+        if (sideToMove == WHITE_TO_MOVE && getRow(pawn) == 1 && whiteKing != promotion &&
+            blackKing != promotion && (distance(blackKing, promotion) > 1 ||
+            distance(whiteKing, promotion) == 1)) {
+            return WON;
+        }
+        if (sideToMove == BLACK_TO_MOVE) {
+            if (distance(blackKing, pawn) == 1 && distance(whiteKing, pawn) > 1) {
+                return DRAWN;
+            }
+            boolean isStalemate = true;
+            for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES && isStalemate;
+                 coordinate++) {
+                if (distance(blackKing, coordinate) == 1 && distance(whiteKing, coordinate) > 1 &&
+                    !isPawnAttack(pawn, coordinate)) {
+                    isStalemate = false;
+                }
+            }
+            if (isStalemate) {
+                return DRAWN;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Classifies a position from the classifications of its successors.
+     *
+     * @param results the classification of every position so far
+     * @param index the index of the position
+     * @return WON, DRAWN or UNKNOWN
+     */
+    private static byte classify(final byte[] results, final int index) {
+        final int blackKing = index % BoardUtils.NUM_TILES;
+        final int whiteKing = (index / BoardUtils.NUM_TILES) % BoardUtils.NUM_TILES;
+        final int pawnIndex = (index / (BoardUtils.NUM_TILES * BoardUtils.NUM_TILES)) %
+            PAWN_SQUARES;
+        final int sideToMove = index / (PAWN_SQUARES * BoardUtils.NUM_TILES * BoardUtils.NUM_TILES);
+        final int pawn = (pawnIndex / 4 + 1) * BoardUtils.NUM_TILES_PER_ROW + pawnIndex % 4;
+        int successors = INVALID;
+        for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+            if (sideToMove == WHITE_TO_MOVE && distance(whiteKing, coordinate) == 1) {
+                successors |= results[getIndex(BLACK_TO_MOVE, coordinate, blackKing, pawn)];
+            } else if (sideToMove == BLACK_TO_MOVE && distance(blackKing, coordinate) == 1) {
+                successors |= results[getIndex(WHITE_TO_MOVE, whiteKing, coordinate, pawn)];
+            }
+        }
+        if (sideToMove == WHITE_TO_MOVE) {
+            final int push = pawn - BoardUtils.NUM_TILES_PER_ROW;
+            if (getRow(pawn) > 1) {
+                successors |= results[getIndex(BLACK_TO_MOVE, whiteKing, blackKing, push)];
+            }
+            if (getRow(pawn) == 6 && push != whiteKing && push != blackKing) {
+                successors |= results[getIndex(BLACK_TO_MOVE, whiteKing, blackKing,
+                    push - BoardUtils.NUM_TILES_PER_ROW)];
+            }
+            return (successors & WON) != 0 ? WON : (successors & UNKNOWN) != 0 ? UNKNOWN : DRAWN;
+        }
+        return (successors & DRAWN) != 0 ? DRAWN : (successors & UNKNOWN) != 0 ? UNKNOWN : WON;
+    }
+}
@@ -0,0 +1,197 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Tablebase {
+
+    /*
+    Abstraction Function:
+    This class represents a read-only set of endgame tablebases, memory-mapped from the table files
+    of a directory, so that only the pages touched by probes are ever loaded. A probe allocates
+    nothing on the heap: the table is found by comparing material keys, and the squares of the
+    pieces are collected into per-thread scratch arrays.
+        - indices: the indexing scheme of each table.
+        - materialKeys: the material key of each table, with the stronger side as white.
+        - flippedKeys: the material key of each table, with the stronger side as black.
+        - buffers: the mapped file of each table.
+        - maxPieces: the largest number of pieces of any table, or 2 if there are no tables.
+        - scratch: the arrays into which each thread collects the squares of the pieces, one for
+                   every piece count, followed by the counter of each group.
+
+     Representation Invariants:
+        - indices, materialKeys, flippedKeys and buffers have the same length;
+     */
+
+    public static final int NOT_FOUND = -1;
+
+    private final TablebaseIndex[] indices;
+    private final long[] materialKeys;
+    private final long[] flippedKeys;
+    private final MappedByteBuffer[] buffers;
+    private final int maxPieces;
+    private final ThreadLocal<int[][]> scratch;
+
+    /**
+     * Constructor for a Tablebase that maps every table file in a directory.
+     *
+     * @param directory the tablebase directory
+     * @throws IOException if a table file cannot be mapped or does not match its signature
+     */
+    public Tablebase(final Path directory) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+            "*" + TablebaseFormat.EXTENSION)) {
+            for (final Path file : stream) {
+                files.add(file);
+            }
+        }
+        this.indices = new TablebaseIndex[files.size()];
+        this.materialKeys = new long[files.size()];
+        this.flippedKeys = new long[files.size()];
+        this.buffers = new MappedByteBuffer[files.size()];
+        int largest = 2;
+        for (int i = 0; i < files.size(); i++) {
+            final String fileName = files.get(i).getFileName().toString();
+            this.indices[i] = TablebaseIndex.forSignature(fileName.substring(0,
+                fileName.length() - TablebaseFormat.EXTENSION.length()));
+            this.materialKeys[i] = this.indices[i].getMaterialKey();
+            this.flippedKeys[i] = TablebaseIndex.flipMaterialKey(this.materialKeys[i]);
+            this.buffers[i] = map(files.get(i), this.indices[i]);
+            largest = Math.max(largest, this.indices[i].getPieceCount());
+        }
+        this.maxPieces = largest;
+        this.scratch = ThreadLocal.withInitial(() -> {
+            final int[][] arrays = new int[TablebaseIndex.MAX_PIECES + 2][];
+            for (int count = 0; count <= TablebaseIndex.MAX_PIECES; count++) {
+                arrays[count] = new int[count];
+            }
+            arrays[TablebaseIndex.MAX_PIECES + 1] = new int[12];
+            return arrays;
+        });
+    }
+
+    private static MappedByteBuffer map(final Path file, final TablebaseIndex index)
+        throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                channel.size());
+            if (channel.size() != TablebaseFormat.HEADER_SIZE + (long) index.size() ||
+                buffer.getInt(0) != TablebaseFormat.MAGIC) {
+                throw new IOException(file + " does not match its signature");
+            }
+            return buffer;
+        }
+    }
+
+    public int getMaxPieces() {
+        return this.maxPieces;
+    }
+
+    public int getTableCount() {
+        return this.indices.length;
+    }
+
+    /**
+     * Looks up a Board in the tablebases. Bare kings are always a draw. Boards on which an en
+     * passant capture is possible are not found, since tablebase positions have no en passant
+     * rights, and neither are castling rights considered.
+     *
+     * @param board the board
+     * @return the value of the board for the Player to move, as defined by TablebaseFormat, or
+     *         NOT_FOUND if there is no table for its material
+     */
+    public int probe(final Board board) {
+        final int count = board.getWhitePieces().size() + board.getBlackPieces().size();
+        if (count > this.maxPieces) {
+            return NOT_FOUND;
+        }
+        if (count == 2) {
+            return TablebaseFormat.DRAW;
+        }
+        if (isEnPassantCapturable(board)) {
+            return NOT_FOUND;
+        }
+        long materialKey = 0;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getTile(i).getPiece();
+            if (piece != null) {
+                materialKey += TablebaseIndex.materialBit(piece.getPieceType(),
+                    piece.getPieceAlliance());
+            }
+        }
+        int table = 0;
+        boolean isFlipped = false;
+        while (table < this.indices.length && this.materialKeys[table] != materialKey) {
+            table++;
+        }
+        if (table == this.indices.length) {
+            table = 0;
+            isFlipped = true;
+            while (table < this.indices.length && this.flippedKeys[table] != materialKey) {
+                table++;
+            }
+            if (table == this.indices.length) {
+                return NOT_FOUND;
+            }
+        }
+        final TablebaseIndex index = this.indices[table];
+        final int[][] arrays = this.scratch.get();
+        final int[] squares = arrays[count];
+        final int[] groupCounts = arrays[TablebaseIndex.MAX_PIECES + 1];
+        for (int group = 0; group < groupCounts.length; group++) {
+            groupCounts[group] = 0;
+        }
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getTile(i).getPiece();
+            if (piece != null) {
+                final Alliance alliance = piece.getPieceAlliance().isWhite() != isFlipped ?
+                    Alliance.WHITE : Alliance.BLACK;
+                final int group = TablebaseIndex.getGroup(piece.getPieceType(), alliance);
+                squares[index.getFirstSlot(group) + groupCounts[group]++] = isFlipped ? i ^ 56 : i;
+            }
+        }
+        final int sideToMove = board.currentPlayer().getAlliance().isWhite() != isFlipped ? 0 : 1;
+        return this.buffers[table].get(TablebaseFormat.HEADER_SIZE +
+            index.getIndex(squares, sideToMove)) & 0xFF;
+    }
+
+    /**
+     * Determines whether a Pawn of the Player to move stands beside the en passant Pawn.
+     *
+     * @param board the board
+     * @return true if an en passant capture may be possible
+     */
+    private static boolean isEnPassantCapturable(final Board board) {
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn == null) {
+            return false;
+        }
+        final int position = enPassantPawn.getPiecePosition();
+        final int column = position % BoardUtils.NUM_TILES_PER_ROW;
+        for (int offset = -1; offset <= 1; offset += 2) {
+            if (column + offset < 0 || column + offset >= BoardUtils.NUM_TILES_PER_ROW) {
+                continue;
+            }
+            final Piece piece = board.getTile(position + offset).getPiece();
+            if (piece != null && piece.getPieceType() == Piece.PieceType.PAWN &&
+                piece.getPieceAlliance() == board.currentPlayer().getAlliance()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package com.chess.engine.tablebase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class TablebaseFormat {
+
+    /*
+    A utility class that defines the values and the file format of the endgame tablebases. Each
+    position is stored as a single byte, from the point of view of the side to move:
+        - DRAW (0): the position is drawn with best play.
+        - 1 to 254: the position is decided, and the value is one more than the distance to mate in
+                    plies. An even distance is a loss for the side to move, so a checkmated side
+                    has the value 1, and an odd distance is a win.
+        - ILLEGAL (255): no such position exists, because two pieces share a square, a Pawn stands
+                         on the first or eighth rank, or the side not to move is in check.
+    A table file is named after its signature with the extension ".jtb", and holds a header of
+    HEADER_SIZE bytes followed by one byte for every index of its TablebaseIndex:
+        - bytes 0 to 3: the MAGIC number.
+        - bytes 4 to 7: the longest distance to mate in the table, in plies.
+        - bytes 8 to 15: the number of positions in the table.
+     */
+
+    public static final int MAGIC = 0x4A544231;
+    public static final int HEADER_SIZE = 16;
+    public static final String EXTENSION = ".jtb";
+
+    public static final int DRAW = 0;
+    public static final int ILLEGAL = 0xFF;
+    public static final int MAX_DISTANCE = 253;
+
+    private TablebaseFormat() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Encodes a decided position.
+     *
+     * @param distanceToMate the distance to mate in plies, even if the side to move loses
+     * @return the stored value
+     */
+    public static int encode(final int distanceToMate) {
+        return distanceToMate + 1;
+    }
+
+    public static boolean isWin(final int value) {
+        return value != ILLEGAL && value != DRAW && (value & 1) == 0;
+    }
+
+    public static boolean isLoss(final int value) {
+        return value != ILLEGAL && (value & 1) == 1;
+    }
+
+    /**
+     * Returns the distance to mate of a decided position.
+     *
+     * @param value the stored value
+     * @return the distance to mate in plies
+     */
+    public static int getDistanceToMate(final int value) {
+        return value - 1;
+    }
+
+    public static String getFileName(final TablebaseIndex index) {
+        return index.getSignature() + EXTENSION;
+    }
+
+    /**
+     * Writes the values of a table to its file in a directory.
+     *
+     * @param directory the tablebase directory
+     * @param index the indexing scheme of the table
+     * @param values the value of every position
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final Path directory, final TablebaseIndex index,
+                             final byte[] values) throws IOException {
+        int longestDistance = 0;
+        for (final byte value : values) {
+            final int unsigned = value & 0xFF;
+            if (unsigned != DRAW && unsigned != ILLEGAL) {
+                longestDistance = Math.max(longestDistance, getDistanceToMate(unsigned));
+            }
+        }
+        Files.createDirectories(directory);
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(directory.resolve(getFileName(index))), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(longestDistance);
+            out.writeLong(values.length);
+            out.write(values);
+        }
+    }
+
+    /**
+     * Reads the values of a table from its file in a directory onto the heap.
+     *
+     * @param directory the tablebase directory
+     * @param index the indexing scheme of the table
+     * @return the value of every position
+     * @throws IOException if the file cannot be read or does not match the index
+     */
+    public static byte[] read(final Path directory, final TablebaseIndex index)
+        throws IOException {
+        try (final InputStream stream = Files.newInputStream(directory.resolve(
+            getFileName(index))); final DataInputStream in = new DataInputStream(stream)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(getFileName(index) + " is not a tablebase file");
+            }
+            in.readInt();
+            if (in.readLong() != index.size()) {
+                throw new IOException(getFileName(index) + " does not match its signature");
+            }
+            final byte[] values = new byte[index.size()];
+            in.readFully(values);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,603 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class TablebaseGenerator {
+
+    /*
+    Abstraction Function:
+    This class is a headless tool that generates endgame tablebases by retrograde analysis, using
+    the engine's own move generator. Generation of a table runs in three phases, each of which is
+    split into chunks of CHUNK_SIZE positions that are processed in parallel:
+        1. Every index is decoded and, if it is a valid placement, set up as a Board. Positions in
+           which the side not to move is in check are marked ILLEGAL. For every other position, the
+           successor of each legal Move is recorded: the index of the successor if it stays in this
+           table, or the fixed value of the successor if a capture or promotion leads into a
+           smaller table, which is generated first.
+        2. Successors that are ILLEGAL are dropped. A position without successors is checkmate or
+           stalemate.
+        3. The remaining positions are resolved in passes. In pass k, a position is won in k plies
+           if some successor is lost in k - 1 plies, and lost in k plies if every successor is won
+           in fewer than k plies. Every position that is resolved in pass k has a distance to mate
+           of exactly k, so positions written during a pass are never read as known within it, and
+           the chunks may be updated in place by any number of threads. Positions still
+           unresolved when the passes stop changing anything are draws.
+    Castling and en passant are not part of tablebase positions, and Pawns always promote to a
+    Queen, as everywhere else in the engine.
+        - directory: the directory from which tables are read and to which they are written, or
+                     null to keep them in memory only.
+        - pool: the ForkJoinPool on which the chunks are processed.
+        - tables: the values of every table generated or read so far, by material key.
+     */
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final Map<Long, byte[]> tables;
+
+    /**
+     * Constructor for a TablebaseGenerator.
+     *
+     * @param directory the tablebase directory, or null to keep the tables in memory only
+     * @param parallelism the number of threads that generate each table
+     */
+    public TablebaseGenerator(final Path directory, final int parallelism) {
+        this.directory = directory;
+        this.pool = new ForkJoinPool(parallelism);
+        this.tables = new HashMap<>();
+    }
+
+    /**
+     * Generates tables from the command line. Usage:
+     *     TablebaseGenerator [--threads N] [--men N] [--verify] DIRECTORY [SIGNATURE...]
+     * where --men N generates every table of up to N pieces, and --verify checks every table
+     * against its successors after it is generated or read.
+     *
+     * @param args the command line arguments
+     * @throws IOException if a table cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int men = 0;
+        boolean isVerifying = false;
+        final List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--men") && i + 1 < args.length) {
+                men = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--verify")) {
+                isVerifying = true;
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        if (arguments.isEmpty()) {
+            System.err.println("usage: TablebaseGenerator [--threads N] [--men N] [--verify] " +
+                "DIRECTORY [SIGNATURE...]");
+            System.exit(1);
+        }
+        final TablebaseGenerator generator = new TablebaseGenerator(Paths.get(arguments.get(0)),
+            threads);
+        final List<TablebaseIndex> indices = new ArrayList<>();
+        for (int pieces = 3; pieces <= men; pieces++) {
+            indices.addAll(getAllTables(pieces));
+        }
+        for (final String signature : arguments.subList(1, arguments.size())) {
+            indices.add(TablebaseIndex.forSignature(signature));
+        }
+        for (final TablebaseIndex index : indices) {
+            final long start = System.currentTimeMillis();
+            final byte[] values = generator.getValues(index);
+            System.out.println(index + ": " + values.length + " positions in " +
+                (System.currentTimeMillis() - start) + " ms");
+            if (isVerifying) {
+                final long errors = generator.verify(index, values);
+                System.out.println(index + ": " + (errors == 0 ? "verified" : errors + " errors"));
+            }
+        }
+    }
+
+    /**
+     * Enumerates the tables with a given number of pieces, kings included.
+     *
+     * @param pieceCount the number of pieces
+     * @return the indexing scheme of every such table
+     */
+    public static List<TablebaseIndex> getAllTables(final int pieceCount) {
+        final PieceType[] types = { PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP,
+            PieceType.KNIGHT, PieceType.PAWN };
+        final long kings = TablebaseIndex.materialBit(PieceType.KING, Alliance.WHITE) +
+            TablebaseIndex.materialBit(PieceType.KING, Alliance.BLACK);
+        final List<Long> units = new ArrayList<>();
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType type : types) {
+                units.add(TablebaseIndex.materialBit(type, alliance));
+            }
+        }
+        final TreeSet<Long> keys = new TreeSet<>();
+        addMaterial(keys, units, 0, kings, pieceCount - 2);
+        final List<TablebaseIndex> indices = new ArrayList<>();
+        for (final long key : keys) {
+            indices.add(TablebaseIndex.forMaterialKey(key));
+        }
+        return indices;
+    }
+
+    private static void addMaterial(final TreeSet<Long> keys, final List<Long> units,
+                                    final int first, final long key, final int remaining) {
+        if (remaining == 0) {
+            keys.add(TablebaseIndex.isCanonical(key) ? key : TablebaseIndex.flipMaterialKey(key));
+            return;
+        }
+        for (int i = first; i < units.size(); i++) {
+            addMaterial(keys, units, i, key + units.get(i), remaining - 1);
+        }
+    }
+
+    /**
+     * Returns the values of a table, reading it from the directory if it has been generated
+     * before, and generating it and the tables it depends on otherwise.
+     *
+     * @param index the indexing scheme of the table
+     * @return the value of every position of the table
+     * @throws IOException if the table cannot be read or written
+     */
+    public synchronized byte[] getValues(final TablebaseIndex index) throws IOException {
+        final byte[] cached = this.tables.get(index.getMaterialKey());
+        if (cached != null) {
+            return cached;
+        }
+        for (final long dependency : getDependencies(index.getMaterialKey())) {
+            getValues(TablebaseIndex.forMaterialKey(dependency));
+        }
+        final byte[] values;
+        if (this.directory != null && Files.exists(this.directory.resolve(
+            TablebaseFormat.getFileName(index)))) {
+            values = TablebaseFormat.read(this.directory, index);
+        } else {
+            values = generate(index);
+            if (this.directory != null) {
+                TablebaseFormat.write(this.directory, index, values);
+            }
+        }
+        this.tables.put(index.getMaterialKey(), values);
+        return values;
+    }
+
+    /**
+     * Finds the material keys that a capture or a promotion can lead to, excluding the bare kings.
+     *
+     * @param materialKey the material key of a table
+     * @return the canonical material keys of the smaller tables
+     */
+    private static TreeSet<Long> getDependencies(final long materialKey) {
+        final TreeSet<Long> dependencies = new TreeSet<>();
+        final List<Long> captures = new ArrayList<>();
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType type : PieceType.values()) {
+                final long bit = TablebaseIndex.materialBit(type, alliance);
+                if (type == PieceType.KING || ((materialKey / bit) & 0xF) == 0) {
+                    continue;
+                }
+                captures.add(materialKey - bit);
+                if (type == PieceType.PAWN) {
+                    final long promoted = materialKey - bit +
+                        TablebaseIndex.materialBit(PieceType.QUEEN, alliance);
+                    captures.add(promoted);
+                    for (final PieceType capturedType : PieceType.values()) {
+                        final long capturedBit = TablebaseIndex.materialBit(capturedType,
+                            alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE);
+                        if (capturedType != PieceType.KING &&
+                            ((promoted / capturedBit) & 0xF) != 0) {
+                            captures.add(promoted - capturedBit);
+                        }
+                    }
+                }
+            }
+        }
+        for (final long key : captures) {
+            if (TablebaseIndex.countPieces(key) > 2) {
+                dependencies.add(TablebaseIndex.isCanonical(key) ? key :
+                    TablebaseIndex.flipMaterialKey(key));
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Generates the values of a table, whose dependencies must already be available.
+     *
+     * @param index the indexing scheme of the table
+     * @return the value of every position of the table
+     */
+    private byte[] generate(final TablebaseIndex index) {
+        final byte[] values = new byte[index.size()];
+        final int chunkCount = (index.size() + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        final Chunk[] chunks = new Chunk[chunkCount];
+        final AtomicInteger longestExternal = new AtomicInteger();
+        runParallel(chunkCount, c -> {
+            chunks[c] = expandChunk(index, c, values);
+            longestExternal.accumulateAndGet(chunks[c].longestExternal, Math::max);
+        });
+        runParallel(chunkCount, c -> chunks[c].dropIllegalSuccessors(values, true));
+        int quietPasses = 0;
+        for (int pass = 1; quietPasses < 2 || pass <= longestExternal.get() + 1; pass++) {
+            if (pass > TablebaseFormat.MAX_DISTANCE) {
+                throw new IllegalStateException(index + " exceeds the longest storable mate!");
+            }
+            final int currentPass = pass;
+            final AtomicInteger resolved = new AtomicInteger();
+            runParallel(chunkCount, c -> resolved.addAndGet(chunks[c].resolve(values,
+                currentPass)));
+            quietPasses = resolved.get() == 0 ? quietPasses + 1 : 0;
+        }
+        return values;
+    }
+
+    /**
+     * Checks every position of a table against its successors: the value of each position must
+     * follow from the values of its successors, and no legal position may be marked ILLEGAL.
+     *
+     * @param index the indexing scheme of the table
+     * @param values the value of every position of the table
+     * @return the number of positions whose value is inconsistent
+     * @throws IOException if a smaller table cannot be read
+     */
+    public long verify(final TablebaseIndex index, final byte[] values) throws IOException {
+        for (final long dependency : getDependencies(index.getMaterialKey())) {
+            getValues(TablebaseIndex.forMaterialKey(dependency));
+        }
+        final int chunkCount = (index.size() + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        final AtomicInteger errors = new AtomicInteger();
+        runParallel(chunkCount, c -> {
+            final Chunk chunk = expandChunk(index, c, null);
+            chunk.dropIllegalSuccessors(values, false);
+            errors.addAndGet(chunk.countErrors(values));
+        });
+        return errors.get();
+    }
+
+    private void runParallel(final int chunkCount, final ChunkTask task) {
+        try {
+            this.pool.submit(() -> IntStream.range(0, chunkCount).parallel().forEach(task::run))
+                .get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Sets up every position of a chunk and records its successors. Illegal positions are marked
+     * in the values array, unless it is null.
+     *
+     * @param index the indexing scheme of the table
+     * @param chunkNumber the number of the chunk
+     * @param values the values of the table, or null
+     * @return the successors of every position of the chunk
+     */
+    private Chunk expandChunk(final TablebaseIndex index, final int chunkNumber,
+                              final byte[] values) {
+        final int start = chunkNumber << CHUNK_SHIFT;
+        final int end = Math.min(index.size(), start + CHUNK_SIZE);
+        final Chunk chunk = new Chunk(start, end - start);
+        final int pieceCount = index.getPieceCount();
+        final int[] squares = new int[pieceCount];
+        final int[] successorSquares = new int[pieceCount];
+        final PieceType[] types = new PieceType[pieceCount];
+        final Alliance[] alliances = new Alliance[pieceCount];
+        for (int position = start; position < end; position++) {
+            final int sideToMove = index.decode(position, squares);
+            chunk.startPosition(position);
+            if (!index.isValidPlacement(squares)) {
+                chunk.markIllegal(position, values);
+                continue;
+            }
+            final Board.Builder builder = new Board.Builder();
+            for (int slot = 0; slot < pieceCount; slot++) {
+                builder.setPiece(createPiece(index.getPieceType(slot), index.getAlliance(slot),
+                    squares[slot]));
+            }
+            final Alliance mover = sideToMove == 0 ? Alliance.WHITE : Alliance.BLACK;
+            builder.setMoveMaker(mover);
+            final Board board = builder.build();
+            if (board.currentPlayer().getOpponent().isInCheck()) {
+                chunk.markIllegal(position, values);
+                continue;
+            }
+            chunk.setInCheck(position, board.currentPlayer().isInCheck());
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                if (move.isCastlingMove()) {
+                    continue;
+                }
+                int movedSlot = -1;
+                int capturedSlot = -1;
+                for (int slot = 0; slot < pieceCount; slot++) {
+                    if (squares[slot] == move.getCurrentCoordinate()) {
+                        movedSlot = slot;
+                    } else if (move.isAttack() &&
+                        squares[slot] == move.getAttackedPiece().getPiecePosition()) {
+                        capturedSlot = slot;
+                    }
+                }
+                final boolean isPromotion = index.getPieceType(movedSlot) == PieceType.PAWN &&
+                    (BoardUtils.FIRST_RANK[move.getDestinationCoordinate()] ||
+                        BoardUtils.EIGHTH_RANK[move.getDestinationCoordinate()]);
+                if (capturedSlot < 0 && !isPromotion) {
+                    System.arraycopy(squares, 0, successorSquares, 0, pieceCount);
+                    successorSquares[movedSlot] = move.getDestinationCoordinate();
+                    chunk.addSuccessor(index.getIndex(successorSquares, 1 - sideToMove));
+                    continue;
+                }
+                int count = 0;
+                long materialKey = 0;
+                for (int slot = 0; slot < pieceCount; slot++) {
+                    if (slot == capturedSlot) {
+                        continue;
+                    }
+                    types[count] = slot == movedSlot && isPromotion ? PieceType.QUEEN :
+                        index.getPieceType(slot);
+                    alliances[count] = index.getAlliance(slot);
+                    successorSquares[count] = slot == movedSlot ?
+                        move.getDestinationCoordinate() : squares[slot];
+                    materialKey += TablebaseIndex.materialBit(types[count], alliances[count]);
+                    count++;
+                }
+                final Alliance opponent = mover.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+                if (count == 2) {
+                    if (!areAdjacent(successorSquares[0], successorSquares[1])) {
+                        chunk.addExternalSuccessor(TablebaseFormat.DRAW);
+                    }
+                    continue;
+                }
+                final TablebaseIndex successorIndex = TablebaseIndex.forMaterialKey(materialKey);
+                final byte[] successorValues = this.tables.get(
+                    successorIndex.getMaterialKey());
+                final int successor = successorIndex.getIndex(Arrays.copyOf(types, count),
+                    Arrays.copyOf(alliances, count), Arrays.copyOf(successorSquares, count),
+                    opponent, new int[count]);
+                final int value = successorValues[successor] & 0xFF;
+                if (value != TablebaseFormat.ILLEGAL) {
+                    chunk.addExternalSuccessor(value);
+                }
+            }
+        }
+        chunk.finish();
+        return chunk;
+    }
+
+    private static boolean areAdjacent(final int first, final int second) {
+        return Math.abs(first % 8 - second % 8) <= 1 && Math.abs(first / 8 - second / 8) <= 1;
+    }
+
+    private static Piece createPiece(final PieceType type, final Alliance alliance,
+                                     final int square) {
+        switch (type) {
+            case KING:
+                return new King(alliance, square);
+            case QUEEN:
+                return new Queen(alliance, square);
+            case ROOK:
+                return new Rook(alliance, square);
+            case BISHOP:
+                return new Bishop(alliance, square);
+            case KNIGHT:
+                return new Knight(alliance, square);
+            default:
+                return new Pawn(alliance, square);
+        }
+    }
+
+    private interface ChunkTask {
+        void run(int chunkNumber);
+    }
+
+    private static final class Chunk {
+
+        /*
+        Abstraction Function:
+        The successors of a contiguous range of positions, stored in compressed rows. A successor
+        is either the index of a position in the same table, or, if negative, minus one minus the
+        fixed value of a position in a smaller table.
+            - start: the index of the first position of the chunk.
+            - offsets: the first successor of each position, with one extra element at the end.
+            - successors: the successors of every position, in order.
+            - successorCount: the number of successors recorded so far.
+            - inCheck: whether or not the side to move is in check in each position.
+            - illegal: whether or not each position is illegal.
+            - longestExternal: the largest value of any successor in a smaller table.
+         */
+
+        private final int start;
+        private final int[] offsets;
+        private final boolean[] inCheck;
+        private final boolean[] illegal;
+        private int[] successors;
+        private int successorCount;
+        private int longestExternal;
+
+        private Chunk(final int start, final int length) {
+            this.start = start;
+            this.offsets = new int[length + 1];
+            this.inCheck = new boolean[length];
+            this.illegal = new boolean[length];
+            this.successors = new int[length * 8];
+        }
+
+        private void startPosition(final int position) {
+            this.offsets[position - this.start] = this.successorCount;
+        }
+
+        private void markIllegal(final int position, final byte[] values) {
+            this.illegal[position - this.start] = true;
+            if (values != null) {
+                values[position] = (byte) TablebaseFormat.ILLEGAL;
+            }
+        }
+
+        private void setInCheck(final int position, final boolean isInCheck) {
+            this.inCheck[position - this.start] = isInCheck;
+        }
+
+        private void addSuccessor(final int successor) {
+            if (this.successorCount == this.successors.length) {
+                this.successors = Arrays.copyOf(this.successors, this.successors.length * 2);
+            }
+            this.successors[this.successorCount++] = successor;
+        }
+
+        private void addExternalSuccessor(final int value) {
+            this.longestExternal = Math.max(this.longestExternal, value);
+            addSuccessor(-1 - value);
+        }
+
+        private void finish() {
+            this.offsets[this.offsets.length - 1] = this.successorCount;
+            this.successors = Arrays.copyOf(this.successors, this.successorCount);
+        }
+
+        private static int valueOf(final int successor, final byte[] values) {
+            return successor < 0 ? -1 - successor : values[successor] & 0xFF;
+        }
+
+        /**
+         * Removes the successors that are illegal positions, and resolves the positions that are
+         * left without successors as checkmate or stalemate.
+         *
+         * @param values the values of the table, in which every illegal position is marked
+         * @param isResolving whether or not to store the checkmates in the values
+         */
+        private void dropIllegalSuccessors(final byte[] values, final boolean isResolving) {
+            int kept = 0;
+            for (int i = 0; i < this.inCheck.length; i++) {
+                final int first = this.offsets[i];
+                final int last = this.offsets[i + 1];
+                this.offsets[i] = kept;
+                for (int j = first; j < last; j++) {
+                    if (this.successors[j] < 0 ||
+                        (values[this.successors[j]] & 0xFF) != TablebaseFormat.ILLEGAL) {
+                        this.successors[kept++] = this.successors[j];
+                    }
+                }
+                if (isResolving && kept == this.offsets[i] && !this.illegal[i] &&
+                    this.inCheck[i]) {
+                    values[this.start + i] = (byte) TablebaseFormat.encode(0);
+                }
+            }
+            this.offsets[this.inCheck.length] = kept;
+            this.successorCount = kept;
+        }
+
+        /**
+         * Resolves the positions of the chunk whose distance to mate is the number of the pass.
+         * Checkmates have already been resolved when the illegal successors were dropped.
+         *
+         * @param values the values of the table
+         * @param pass the number of the pass
+         * @return the number of positions resolved
+         */
+        private int resolve(final byte[] values, final int pass) {
+            int resolved = 0;
+            for (int i = 0; i < this.inCheck.length; i++) {
+                final int position = this.start + i;
+                if (this.illegal[i] || values[position] != TablebaseFormat.DRAW) {
+                    continue;
+                }
+                final int first = this.offsets[i];
+                final int last = this.offsets[i + 1];
+                if (first == last) {
+                    continue;
+                }
+                boolean isResolved = (pass & 1) == 0;
+                for (int j = first; j < last; j++) {
+                    final int value = valueOf(this.successors[j], values);
+                    if ((pass & 1) == 1) {
+                        if (value == pass) {
+                            isResolved = true;
+                            break;
+                        }
+                    } else if (!TablebaseFormat.isWin(value) || value > pass) {
+                        isResolved = false;
+                        break;
+                    }
+                }
+                if (isResolved) {
+                    values[position] = (byte) TablebaseFormat.encode(pass);
+                    resolved++;
+                }
+            }
+            return resolved;
+        }
+
+        /**
+         * Counts the positions of the chunk whose values do not follow from their successors.
+         *
+         * @param values the values of the table
+         * @return the number of inconsistent positions
+         */
+        private int countErrors(final byte[] values) {
+            int errors = 0;
+            for (int i = 0; i < this.inCheck.length; i++) {
+                final int actual = values[this.start + i] & 0xFF;
+                if (this.illegal[i] || actual == TablebaseFormat.ILLEGAL) {
+                    errors += this.illegal[i] == (actual == TablebaseFormat.ILLEGAL) ? 0 : 1;
+                    continue;
+                }
+                int expected;
+                if (this.offsets[i] == this.offsets[i + 1]) {
+                    expected = this.inCheck[i] ? TablebaseFormat.encode(0) : TablebaseFormat.DRAW;
+                } else {
+                    int shortestLoss = Integer.MAX_VALUE;
+                    int longestWin = 0;
+                    boolean isAllWins = true;
+                    for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                        final int value = valueOf(this.successors[j], values);
+                        if (TablebaseFormat.isLoss(value)) {
+                            shortestLoss = Math.min(shortestLoss, value);
+                        }
+                        if (TablebaseFormat.isWin(value)) {
+                            longestWin = Math.max(longestWin, value);
+                        } else {
+                            isAllWins = false;
+                        }
+                    }
+                    expected = shortestLoss != Integer.MAX_VALUE ? shortestLoss + 1 :
+                        isAllWins ? longestWin + 1 : TablebaseFormat.DRAW;
+                }
+                errors += expected == actual ? 0 : 1;
+            }
+            return errors;
+        }
+    }
+}
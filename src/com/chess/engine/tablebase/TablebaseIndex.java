@@ -0,0 +1,423 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+public final class TablebaseIndex {
+
+    /*
+    Abstraction Function:
+    This class represents the indexing scheme of the endgame tablebase for one material signature,
+    such as "KQvKR". Every table is stored with the stronger side as white, so a position in which
+    black is stronger is indexed with its colours swapped and its ranks mirrored. Each piece of the
+    signature occupies a slot: the white pieces first, in the order K, Q, R, B, N, P, then the
+    black pieces in the same order. Pieces of the same type are interchangeable, so they may fill
+    their slots in any order.
+
+    Positions are reduced by symmetry before they are indexed. Without pawns, the board is mirrored
+    and transposed so that the white King stands in the a1-d1-d4 triangle; with pawns, it is only
+    mirrored left to right, so that the white King stands on the a to d files. The index is then
+        ((sideToMove * kingSquares + whiteKingSquare) * 64 + square of slot 1) * 64 + ...
+    where sideToMove is 0 when the white pieces are to move.
+        - signature: the material signature, such as "KQvKR".
+        - materialKey: the number of pieces of each type and alliance, packed by materialBit.
+        - pieceTypes: the type of the piece in each slot.
+        - alliances: the alliance of the piece in each slot.
+        - firstSlots: the first slot of each piece type and alliance, or -1 if there is none,
+                      indexed by getGroup.
+        - hasPawns: whether or not there is a Pawn in the signature.
+        - size: the number of indices in the table.
+
+     Representation Invariants:
+        - pieceTypes[0] == KING && alliances[0] == WHITE;
+        - 2 <= pieceTypes.length <= MAX_PIECES;
+     */
+
+    public static final int MAX_PIECES = 5;
+
+    private static final PieceType[] SLOT_ORDER = { PieceType.KING, PieceType.QUEEN,
+        PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT, PieceType.PAWN };
+    private static final int[] TRIANGLE_INDEX = initKingIndex(false);
+    private static final int[] HALF_BOARD_INDEX = initKingIndex(true);
+    private static final int[] TRIANGLE_SQUARES = initKingSquares(TRIANGLE_INDEX, 10);
+    private static final int[] HALF_BOARD_SQUARES = initKingSquares(HALF_BOARD_INDEX, 32);
+
+    private final String signature;
+    private final long materialKey;
+    private final PieceType[] pieceTypes;
+    private final Alliance[] alliances;
+    private final int[] firstSlots;
+    private final boolean hasPawns;
+    private final int size;
+
+    private TablebaseIndex(final long materialKey) {
+        this.materialKey = materialKey;
+        final int count = countPieces(materialKey);
+        this.pieceTypes = new PieceType[count];
+        this.alliances = new Alliance[count];
+        this.firstSlots = new int[2 * SLOT_ORDER.length];
+        Arrays.fill(this.firstSlots, -1);
+        final StringBuilder builder = new StringBuilder();
+        int slot = 0;
+        for (final Alliance alliance : new Alliance[] { Alliance.WHITE, Alliance.BLACK }) {
+            if (alliance.isBlack()) {
+                builder.append('v');
+            }
+            for (final PieceType pieceType : SLOT_ORDER) {
+                final long bit = materialBit(pieceType, alliance);
+                for (long n = (materialKey / bit) & 0xF; n > 0; n--) {
+                    if (this.firstSlots[getGroup(pieceType, alliance)] < 0) {
+                        this.firstSlots[getGroup(pieceType, alliance)] = slot;
+                    }
+                    this.pieceTypes[slot] = pieceType;
+                    this.alliances[slot++] = alliance;
+                    builder.append(pieceType);
+                }
+            }
+        }
+        this.signature = builder.toString();
+        this.hasPawns = (materialKey & (materialBit(PieceType.PAWN, Alliance.WHITE) * 0xF |
+            materialBit(PieceType.PAWN, Alliance.BLACK) * 0xF)) != 0;
+        long tableSize = 2L * (this.hasPawns ? HALF_BOARD_SQUARES.length :
+            TRIANGLE_SQUARES.length);
+        for (int i = 1; i < count; i++) {
+            tableSize *= BoardUtils.NUM_TILES;
+        }
+        if (tableSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("table " + this.signature + " is too large!");
+        }
+        this.size = (int) tableSize;
+    }
+
+    /**
+     * Creates the TablebaseIndex for a material signature such as "KRvK". The sides may be given
+     * in either order.
+     *
+     * @param signature the material signature
+     * @return the TablebaseIndex
+     */
+    public static TablebaseIndex forSignature(final String signature) {
+        final int separator = signature.indexOf('v');
+        if (separator < 0) {
+            throw new IllegalArgumentException("invalid signature " + signature);
+        }
+        long materialKey = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            if (i == separator) {
+                continue;
+            }
+            final PieceType pieceType = getPieceType(signature.charAt(i));
+            if (pieceType == null) {
+                throw new IllegalArgumentException("invalid signature " + signature);
+            }
+            materialKey += materialBit(pieceType, i < separator ? Alliance.WHITE : Alliance.BLACK);
+        }
+        return forMaterialKey(materialKey);
+    }
+
+    /**
+     * Creates the TablebaseIndex for a material key, swapping its colours if black is stronger.
+     *
+     * @param materialKey the material key
+     * @return the TablebaseIndex
+     */
+    public static TablebaseIndex forMaterialKey(final long materialKey) {
+        final int count = countPieces(materialKey);
+        if (count < 2 || count > MAX_PIECES ||
+            ((materialKey / materialBit(PieceType.KING, Alliance.WHITE)) & 0xF) != 1 ||
+            ((materialKey / materialBit(PieceType.KING, Alliance.BLACK)) & 0xF) != 1) {
+            throw new IllegalArgumentException("a table needs one king a side and at most " +
+                MAX_PIECES + " pieces!");
+        }
+        return new TablebaseIndex(isCanonical(materialKey) ? materialKey :
+            flipMaterialKey(materialKey));
+    }
+
+    /**
+     * Returns the unit of the material key that counts the pieces of one type and alliance. Every
+     * type and alliance has four bits, so the material key of a position is the sum of the units
+     * of its pieces.
+     *
+     * @param pieceType the type of the piece
+     * @param alliance the alliance of the piece
+     * @return the unit of the material key
+     */
+    public static long materialBit(final PieceType pieceType, final Alliance alliance) {
+        return 1L << (4 * getGroup(pieceType, alliance));
+    }
+
+    /**
+     * Swaps the colours of a material key.
+     *
+     * @param materialKey the material key
+     * @return the material key with the white and black pieces exchanged
+     */
+    public static long flipMaterialKey(final long materialKey) {
+        final int shift = 4 * SLOT_ORDER.length;
+        return (materialKey >>> shift) | ((materialKey & ((1L << shift) - 1)) << shift);
+    }
+
+    /**
+     * Determines whether white is the stronger side of a material key, by material value and then
+     * by the key itself, so that exactly one of a key and its flip is canonical unless they are
+     * equal.
+     *
+     * @param materialKey the material key
+     * @return true if the key is stored without swapping its colours
+     */
+    public static boolean isCanonical(final long materialKey) {
+        final long flipped = flipMaterialKey(materialKey);
+        final int whiteValue = materialValue(materialKey);
+        final int blackValue = materialValue(flipped);
+        return whiteValue != blackValue ? whiteValue > blackValue : materialKey >= flipped;
+    }
+
+    /**
+     * Returns the group of a piece type and alliance, a number from 0 to 11.
+     *
+     * @param pieceType the type of the piece
+     * @param alliance the alliance of the piece
+     * @return the group of the piece
+     */
+    public static int getGroup(final PieceType pieceType, final Alliance alliance) {
+        return pieceType.ordinal() + (alliance.isWhite() ? 0 : SLOT_ORDER.length);
+    }
+
+    public static int countPieces(final long materialKey) {
+        int count = 0;
+        for (long key = materialKey; key != 0; key >>>= 4) {
+            count += (int) (key & 0xF);
+        }
+        return count;
+    }
+
+    private static int materialValue(final long materialKey) {
+        int value = 0;
+        for (final PieceType pieceType : SLOT_ORDER) {
+            value += pieceType.getPieceValue() *
+                ((materialKey / materialBit(pieceType, Alliance.WHITE)) & 0xF);
+        }
+        return value;
+    }
+
+    private static PieceType getPieceType(final char symbol) {
+        for (final PieceType pieceType : SLOT_ORDER) {
+            if (pieceType.toString().charAt(0) == symbol) {
+                return pieceType;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return this.signature;
+    }
+
+    public String getSignature() {
+        return this.signature;
+    }
+
+    public long getMaterialKey() {
+        return this.materialKey;
+    }
+
+    public int getPieceCount() {
+        return this.pieceTypes.length;
+    }
+
+    public PieceType getPieceType(final int slot) {
+        return this.pieceTypes[slot];
+    }
+
+    public Alliance getAlliance(final int slot) {
+        return this.alliances[slot];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the first slot of the pieces of a type and alliance. The pieces of a group occupy
+     * consecutive slots.
+     *
+     * @param group the group of the pieces, as returned by getGroup
+     * @return the first slot of the group, or -1 if the signature has no such piece
+     */
+    public int getFirstSlot(final int group) {
+        return this.firstSlots[group];
+    }
+
+    /**
+     * Calculates the index of a position given by the squares of its slots, with white as the
+     * stronger side. The squares are not modified.
+     *
+     * @param squares the tile coordinate of each slot
+     * @param sideToMove 0 if white is to move, 1 if black is
+     * @return the index of the position
+     */
+    public int getIndex(final int[] squares, final int sideToMove) {
+        final int transform = getTransform(squares[0]);
+        final int kingSquare = transform(squares[0], transform);
+        int index = sideToMove * (this.hasPawns ? HALF_BOARD_SQUARES.length :
+            TRIANGLE_SQUARES.length) + (this.hasPawns ? HALF_BOARD_INDEX[kingSquare] :
+            TRIANGLE_INDEX[kingSquare]);
+        for (int slot = 1; slot < squares.length; slot++) {
+            index = index * BoardUtils.NUM_TILES + transform(squares[slot], transform);
+        }
+        return index;
+    }
+
+    /**
+     * Calculates the index of a position given by its pieces in any order and orientation. The
+     * pieces must match this signature, in either colour.
+     *
+     * @param types the type of each piece
+     * @param pieceAlliances the alliance of each piece
+     * @param squares the tile coordinate of each piece
+     * @param sideToMove the alliance that is to move
+     * @param slots a scratch array of getPieceCount() elements, overwritten by this method
+     * @return the index of the position
+     */
+    public int getIndex(final PieceType[] types, final Alliance[] pieceAlliances,
+                        final int[] squares, final Alliance sideToMove, final int[] slots) {
+        long positionKey = 0;
+        for (int i = 0; i < slots.length; i++) {
+            positionKey += materialBit(types[i], pieceAlliances[i]);
+        }
+        final boolean isFlipped = positionKey != this.materialKey;
+        Arrays.fill(slots, -1);
+        for (int i = 0; i < slots.length; i++) {
+            final Alliance alliance = isFlipped ? flip(pieceAlliances[i]) : pieceAlliances[i];
+            for (int slot = 0; slot < slots.length; slot++) {
+                if (slots[slot] < 0 && this.pieceTypes[slot] == types[i] &&
+                    this.alliances[slot] == alliance) {
+                    slots[slot] = isFlipped ? squares[i] ^ 56 : squares[i];
+                    break;
+                }
+            }
+        }
+        return getIndex(slots, (sideToMove.isWhite() != isFlipped) ? 0 : 1);
+    }
+
+    /**
+     * Decodes an index into the squares of each slot.
+     *
+     * @param index the index of a position
+     * @param squares the array that receives the tile coordinate of each slot
+     * @return 0 if white is to move, 1 if black is
+     */
+    public int decode(int index, final int[] squares) {
+        for (int slot = squares.length - 1; slot > 0; slot--) {
+            squares[slot] = index % BoardUtils.NUM_TILES;
+            index /= BoardUtils.NUM_TILES;
+        }
+        final int[] kingSquares = this.hasPawns ? HALF_BOARD_SQUARES : TRIANGLE_SQUARES;
+        squares[0] = kingSquares[index % kingSquares.length];
+        return index / kingSquares.length;
+    }
+
+    /**
+     * Determines whether the squares of each slot form a placement of the pieces, with no two
+     * pieces on one square and no Pawn on the first or eighth rank. Whether a King is left in
+     * check is not considered.
+     *
+     * @param squares the tile coordinate of each slot
+     * @return true if the placement is valid
+     */
+    public boolean isValidPlacement(final int[] squares) {
+        for (int slot = 0; slot < squares.length; slot++) {
+            if (this.pieceTypes[slot] == PieceType.PAWN && (BoardUtils.FIRST_RANK[squares[slot]] ||
+                BoardUtils.EIGHTH_RANK[squares[slot]])) {
+                return false;
+            }
+            for (int other = 0; other < slot; other++) {
+                if (squares[other] == squares[slot]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chooses the symmetry that moves the white King into the indexed region. Bit 0 mirrors the
+     * files, bit 1 mirrors the ranks and bit 2 transposes the board along the a1-h8 diagonal.
+     *
+     * @param kingSquare the tile coordinate of the white King
+     * @return the transform
+     */
+    private int getTransform(final int kingSquare) {
+        int transform = 0;
+        int file = kingSquare % 8;
+        int rank = 7 - kingSquare / 8;
+        if (file > 3) {
+            transform |= 1;
+            file = 7 - file;
+        }
+        if (!this.hasPawns) {
+            if (rank > 3) {
+                transform |= 2;
+                rank = 7 - rank;
+            }
+            if (rank > file) {
+                transform |= 4;
+            }
+        }
+        return transform;
+    }
+
+    private static int transform(final int square, final int transform) {
+        int file = square % 8;
+        int rank = 7 - square / 8;
+        if ((transform & 1) != 0) {
+            file = 7 - file;
+        }
+        if ((transform & 2) != 0) {
+            rank = 7 - rank;
+        }
+        if ((transform & 4) != 0) {
+            final int swap = file;
+            file = rank;
+            rank = swap;
+        }
+        return (7 - rank) * 8 + file;
+    }
+
+    private static Alliance flip(final Alliance alliance) {
+        return alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+    }
+
+    private static int[] initKingIndex(final boolean hasPawns) {
+        final int[] kingIndex = new int[BoardUtils.NUM_TILES];
+        int next = 0;
+        for (int rank = 0; rank < 8; rank++) {
+            for (int file = 0; file < 4; file++) {
+                final int square = (7 - rank) * 8 + file;
+                if (hasPawns || (rank < 4 && rank <= file)) {
+                    kingIndex[square] = next++;
+                } else {
+                    kingIndex[square] = -1;
+                }
+            }
+            for (int file = 4; file < 8; file++) {
+                kingIndex[(7 - rank) * 8 + file] = -1;
+            }
+        }
+        return kingIndex;
+    }
+
+    private static int[] initKingSquares(final int[] kingIndex, final int count) {
+        final int[] kingSquares = new int[count];
+        for (int square = 0; square < kingIndex.length; square++) {
+            if (kingIndex[square] >= 0) {
+                kingSquares[kingIndex[square]] = square;
+            }
+        }
+        return kingSquares;
+    }
+}
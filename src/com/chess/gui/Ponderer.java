@@ -0,0 +1,198 @@
+package com.chess.gui;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.ParallelMiniMax;
+import com.chess.engine.player.ai.StopSignal;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class Ponderer {
+
+    /*
+    This class searches in the background while the human Player is on move, so that the computer
+    can reply almost instantly. Once the computer has moved, the human's most likely reply is
+    predicted with a shallow search, and the computer's answer to every legal human reply is then
+    searched in turn, starting with the predicted reply.
+
+    When the human moves, the search for the Board they reached is handed over to the AIThinkTank
+    (a ponder hit), whether or not it has finished, and every other search is stopped and discarded
+    (a ponder miss).
+        - moveStrategy: the MoveStrategy with which the computer replies are searched.
+        - predictionStrategy: the shallow MoveStrategy that predicts the human's reply.
+        - executor: the single background thread on which the searches run.
+        - ponderResults: the pending computer replies, mapped by the Zobrist hash of the Board
+                         after the human's reply.
+        - generation: incremented whenever pondering stops, so that a stale prediction does not
+                      schedule any searches.
+     */
+
+    private static final int PREDICTION_DEPTH = 2;
+
+    private final MoveStrategy moveStrategy;
+    private final MoveStrategy predictionStrategy;
+    private final ExecutorService executor;
+    private final Map<Long, PonderSearch> ponderResults;
+    private long generation;
+
+    /**
+     * Constructor for a Ponderer that searches with the given MoveStrategy.
+     *
+     * @param moveStrategy the MoveStrategy used by the computer Player
+     */
+    Ponderer(final MoveStrategy moveStrategy) {
+        this.moveStrategy = moveStrategy;
+        this.predictionStrategy = new ParallelMiniMax(PREDICTION_DEPTH, 1);
+        this.executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ponder-%d").build());
+        this.ponderResults = new HashMap<>();
+    }
+
+    /**
+     * Starts pondering the human's replies on a Board, discarding any previous pondering.
+     *
+     * @param board the Board on which the human Player is to move
+     */
+    synchronized void startPondering(final Board board) {
+        stopPondering();
+        final long ponderGeneration = this.generation;
+        this.executor.submit(() -> scheduleReplies(board, ponderGeneration));
+    }
+
+    /**
+     * Takes the pondered computer reply for the Board reached by the human's Move, and discards
+     * all other pondering.
+     *
+     * @param board the Board after the human's Move
+     * @return the pondered computer reply, or null on a ponder miss
+     */
+    synchronized PonderSearch takePonderResult(final Board board) {
+        final PonderSearch ponderResult = this.ponderResults.remove(board.getZobristHash());
+        stopPondering();
+        return ponderResult;
+    }
+
+    /**
+     * Discards all pondering. The search in progress is stopped, and searches that have not yet
+     * started will never run.
+     */
+    synchronized void stopPondering() {
+        this.generation++;
+        for (final PonderSearch ponderResult : this.ponderResults.values()) {
+            ponderResult.stop();
+        }
+        this.ponderResults.clear();
+    }
+
+    /**
+     * Predicts the human's reply, then schedules a search for the computer's answer to each legal
+     * human reply, the predicted reply first.
+     *
+     * @param board the Board on which the human Player is to move
+     * @param ponderGeneration the generation in which pondering was started
+     */
+    private void scheduleReplies(final Board board, final long ponderGeneration) {
+        final Move predictedMove = this.predictionStrategy.execute(board);
+        final List<Move> replies = new ArrayList<>(board.currentPlayer().getLegalMoves());
+        if (replies.remove(predictedMove)) {
+            replies.add(0, predictedMove);
+        }
+        synchronized (this) {
+            if (ponderGeneration != this.generation) {
+                return;
+            }
+            for (final Move reply : replies) {
+                final MoveTransition transition = board.currentPlayer().makeMove(reply);
+                if (transition.getMoveStatus().isDone() &&
+                    !transition.getBoard().currentPlayer().isInCheckMate() &&
+                    !transition.getBoard().currentPlayer().isInStaleMate()) {
+                    final PonderSearch ponderSearch = new PonderSearch(this.moveStrategy,
+                        transition.getBoard());
+                    ponderSearch.start(this.executor);
+                    this.ponderResults.put(transition.getBoard().getZobristHash(), ponderSearch);
+                }
+            }
+        }
+    }
+
+    static class PonderSearch {
+
+        /*
+        Abstraction Function:
+        This class represents the background search of the computer's answer to one human reply.
+        Stopping a search that is already running only sets its StopSignal, so that it finishes
+        with the best Move found so far, while a search that has not started is cancelled and
+        never runs. Whichever of the search and stop claims the search first decides which.
+            - moveStrategy: the MoveStrategy with which the answer is searched.
+            - board: the Board after the human's reply.
+            - stopSignal: the signal that stops the search.
+            - claimed: whether or not the search has started, or has been cancelled before it did.
+            - result: the pending result of the search.
+         */
+
+        private final MoveStrategy moveStrategy;
+        private final Board board;
+        private final StopSignal stopSignal;
+        private final AtomicBoolean claimed;
+        private Future<Move> result;
+
+        private PonderSearch(final MoveStrategy moveStrategy, final Board board) {
+            this.moveStrategy = moveStrategy;
+            this.board = board;
+            this.stopSignal = new StopSignal();
+            this.claimed = new AtomicBoolean();
+        }
+
+        private synchronized void start(final ExecutorService executor) {
+            this.result = executor.submit(this::search);
+        }
+
+        private Move search() {
+            if (!this.claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            return this.moveStrategy.execute(this.board, this.stopSignal);
+        }
+
+        /**
+         * Waits for the search to finish.
+         *
+         * @return the computer's answer
+         * @throws InterruptedException if the waiting thread is interrupted
+         * @throws ExecutionException if the search failed
+         * @throws CancellationException if the search was stopped before it started
+         */
+        Move get() throws InterruptedException, ExecutionException {
+            final Future<Move> pendingResult;
+            synchronized (this) {
+                pendingResult = this.result;
+            }
+            return pendingResult.get();
+        }
+
+        /**
+         * Stops the search if it is in progress, so that it finishes with the best Move found so
+         * far, and prevents it from starting otherwise.
+         */
+        void stop() {
+            this.stopSignal.stop();
+            if (this.claimed.compareAndSet(false, true)) {
+                synchronized (this) {
+                    this.result.cancel(false);
+                }
+            }
+        }
+    }
+}
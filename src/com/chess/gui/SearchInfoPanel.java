@@ -0,0 +1,66 @@
+package com.chess.gui;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.SearchStats;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.border.EtchedBorder;
+import java.awt.BorderLayout;
+
+public class SearchInfoPanel extends JPanel implements SearchListener {
+
+    /*
+    This class is the JPanel implementation of the bottom panel, which displays the statistics of
+    the AI's search in progress: its depth, score, node count and speed, and its principal
+    variation. Statistics are published from the searching threads, so the label is only updated
+    on the event dispatch thread.
+        - infoLabel: the JLabel that displays the latest statistics.
+     */
+
+    private static final long serialVersionUID = 1L;
+
+    private final JLabel infoLabel;
+
+    private static final EtchedBorder PANEL_BORDER = new EtchedBorder(EtchedBorder.RAISED);
+
+    /**
+     * Constructor for the default SearchInfoPanel
+     */
+    SearchInfoPanel() {
+        super(new BorderLayout());
+        this.setBorder(PANEL_BORDER);
+        this.infoLabel = new JLabel(" ");
+        this.add(this.infoLabel, BorderLayout.CENTER);
+        this.setVisible(true);
+    }
+
+    @Override
+    public void iterationCompleted(final SearchStats searchStats) {
+        display(searchStats);
+    }
+
+    @Override
+    public void searchProgressed(final SearchStats searchStats) {
+        display(searchStats);
+    }
+
+    /**
+     * Displays a snapshot of the search statistics on the event dispatch thread.
+     *
+     * @param searchStats the statistics to display
+     */
+    private void display(final SearchStats searchStats) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("depth %d/%d  score %d  nodes %d  nps %d  pv",
+            searchStats.getDepth(), searchStats.getSelectiveDepth(), searchStats.getScore(),
+            searchStats.getNodes(), searchStats.getNodesPerSecond()));
+        for (final Move move : searchStats.getPrincipalVariation()) {
+            builder.append(' ').append(move);
+        }
+        final String text = builder.toString();
+        SwingUtilities.invokeLater(() -> this.infoLabel.setText(text));
+    }
+}
@@ -6,8 +6,11 @@ import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
-import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.Player;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.ParallelMiniMax;
+import com.chess.engine.player.ai.StopSignal;
+import com.chess.gui.Ponderer.PonderSearch;
 import com.google.common.collect.Lists;
 
 import javax.imageio.ImageIO;
@@ -37,6 +40,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 
 import static javax.swing.SwingUtilities.isLeftMouseButton;
@@ -50,6 +54,7 @@ public class Table extends Observable {
         - a GameHistoryPanel on the right
         - a TakenPiecesPanel on the left
         - the BoardPanel to be displayed and interacted with in the middle
+        - a SearchInfoPanel at the bottom, showing the statistics of the AI's search
             - 64 individual Tiles that are displayed in the BoardPanel, each either empty or
               occupied with a Piece.
         - the File menu
@@ -62,19 +67,27 @@ public class Table extends Observable {
         - the Options menu
             - the GameSetup dialog box that appears to prompt the user to setup a new game, choosing
               human or AI participants
+            - the checkBox to toggle the option of letting the AI ponder during the human's turn
 
          Table also contains the following member fields:
             - sourceTile: the Tile on the game Board that is currently selected by the user.
             - destinationTile: the Tile on the game Board to which the user has selected a Move.
             - humanMovedPiece: the Piece which the user is currently selecting
             - boardDirection: the BoardDirection of the Board that the user has toggled.
+            - moveStrategy: the MoveStrategy used by the AI.
+            - ponderer: the Ponderer that searches the AI's replies during the human's turn.
+            - ponderEnabled: whether or not the AI ponders during the human's turn.
+            - thinkTank: the AIThinkTank that is currently searching, or null.
      */
 
     private final GameHistoryPanel gameHistoryPanel;
     private final TakenPiecesPanel takenPiecesPanel;
     private final BoardPanel boardPanel;
+    private final SearchInfoPanel searchInfoPanel;
     private final MoveLog moveLog;
     private final GameSetup gameSetup;
+    private final MoveStrategy moveStrategy;
+    private final Ponderer ponderer;
 
     private Board chessBoard;
 
@@ -84,11 +97,14 @@ public class Table extends Observable {
     private BoardDirection boardDirection;
 
     private boolean highlightLegalMoves;
+    private boolean ponderEnabled;
+    private AIThinkTank thinkTank;
 
     private static final Dimension OUTER_FRAME_DIMENSION = new Dimension(600, 600);
     private static final Dimension BOARD_PANEL_DIMENSION = new Dimension(400, 350);
     private static final Dimension TILE_PANEL_DIMENSION = new Dimension(10, 10);
     private static final String defaultImagesPath = "art/pieces/plain/";
+    private static final int AI_SEARCH_DEPTH = 4;
 
     private final Color lightTileColor = Color.decode("#FFFACD");
     private final Color darkTileColor = Color.decode("#593E1A");
@@ -108,14 +124,20 @@ public class Table extends Observable {
         this.gameHistoryPanel = new GameHistoryPanel();
         this.takenPiecesPanel = new TakenPiecesPanel();
         this.boardPanel = new BoardPanel();
+        this.searchInfoPanel = new SearchInfoPanel();
         this.moveLog = new MoveLog();
         this.addObserver(new TableGameAIWatcher());
         this.gameSetup = new GameSetup(gameFrame, true);
+        this.moveStrategy = new ParallelMiniMax(AI_SEARCH_DEPTH);
+        this.moveStrategy.setSearchListener(this.searchInfoPanel);
+        this.ponderer = new Ponderer(this.moveStrategy);
         this.boardDirection = BoardDirection.NORMAL;
         this.highlightLegalMoves = false;
+        this.ponderEnabled = false;
         gameFrame.add(this.takenPiecesPanel, BorderLayout.WEST);
         gameFrame.add(this.boardPanel, BorderLayout.CENTER);
         gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
+        gameFrame.add(this.searchInfoPanel, BorderLayout.SOUTH);
 
         gameFrame.setVisible(true);
     }
@@ -142,6 +164,14 @@ public class Table extends Observable {
         return this.chessBoard;
     }
 
+    private MoveStrategy getMoveStrategy() {
+        return this.moveStrategy;
+    }
+
+    private Ponderer getPonderer() {
+        return this.ponderer;
+    }
+
     /**
      * Creates and populates the menuBar with the File, Preferences, and Options menus.
      *
@@ -199,7 +229,8 @@ public class Table extends Observable {
     }
 
     /**
-     * Creates and populates the Options menu with the Setup Game menuItem.
+     * Creates and populates the Options menu with the Setup Game menuItem, a separator, and the
+     * Ponder checkbox.
      *
      * @return the populated Options menu
      */
@@ -211,6 +242,18 @@ public class Table extends Observable {
             Table.get().setupUpdate(Table.get().getGameSetup());
         });
         optionsMenu.add(setupGameMenuItem);
+
+        optionsMenu.addSeparator();
+
+        final JCheckBoxMenuItem ponderCheckbox =
+            new JCheckBoxMenuItem("Ponder During Human Turn", false);
+        ponderCheckbox.addActionListener(e -> {
+            ponderEnabled = ponderCheckbox.isSelected();
+            if (!ponderEnabled) {
+                ponderer.stopPondering();
+            }
+        });
+        optionsMenu.add(ponderCheckbox);
         return optionsMenu;
     }
 
@@ -220,6 +263,8 @@ public class Table extends Observable {
      * @param gameSetup the GameSetup to be notified
      */
     private void setupUpdate(final GameSetup gameSetup) {
+        stopThinking();
+        this.ponderer.stopPondering();
         setChanged();
         notifyObservers(gameSetup);
     }
@@ -228,16 +273,17 @@ public class Table extends Observable {
 
         /*
         This observer class notifies the AI when it is their turn to play a Move. It also detects
-        for checkmates and stalemates.
+        for checkmates, stalemates, threefold repetitions and the fifty-move rule.
          */
 
         @Override
         public void update(final Observable o, final Object arg) {
             if (Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
                 !Table.get().getGameBoard().currentPlayer().isInCheckMate() &&
-                !Table.get().getGameBoard().currentPlayer().isInStaleMate()) {
-                final AIThinkTank thinkTank = new AIThinkTank();
-                thinkTank.execute();
+                !Table.get().getGameBoard().currentPlayer().isInStaleMate() &&
+                !Table.get().getGameBoard().isThreefoldRepetition() &&
+                !Table.get().getGameBoard().isFiftyMoveDraw()) {
+                Table.get().startThinking();
             }
             if (Table.get().getGameBoard().currentPlayer().isInCheckMate()) {
                 System.out.println("game over, " + Table.get().getGameBoard().currentPlayer() +
@@ -247,6 +293,12 @@ public class Table extends Observable {
                 System.out.println("game over, " + Table.get().getGameBoard().currentPlayer() +
                     " is in stalemate!");
             }
+            if (Table.get().getGameBoard().isThreefoldRepetition()) {
+                System.out.println("game over, draw by threefold repetition!");
+            }
+            if (Table.get().getGameBoard().isFiftyMoveDraw()) {
+                System.out.println("game over, draw by the fifty-move rule!");
+            }
         }
     }
 
@@ -281,31 +333,110 @@ public class Table extends Observable {
         notifyObservers(playerType);
     }
 
+    /**
+     * Starts a new AIThinkTank on the current Board, stopping any search already in progress.
+     */
+    private void startThinking() {
+        stopThinking();
+        this.thinkTank = new AIThinkTank(this.chessBoard);
+        this.thinkTank.execute();
+    }
+
+    /**
+     * Stops the AIThinkTank that is currently searching, if any. Its Move will never be played.
+     */
+    private void stopThinking() {
+        if (this.thinkTank != null) {
+            this.thinkTank.stopSearch();
+            this.thinkTank = null;
+        }
+    }
+
+    /**
+     * Starts pondering the human's replies if pondering is enabled and the human Player is to move
+     * against the AI in a game that has not ended.
+     */
+    private void ponderIfHumanToMove() {
+        final Player humanPlayer = this.chessBoard.currentPlayer();
+        if (this.ponderEnabled && !this.gameSetup.isAIPlayer(humanPlayer) &&
+            this.gameSetup.isAIPlayer(humanPlayer.getOpponent()) &&
+            !humanPlayer.isInCheckMate() && !humanPlayer.isInStaleMate()) {
+            this.ponderer.startPondering(this.chessBoard);
+        }
+    }
+
     private static class AIThinkTank extends SwingWorker<Move, String> {
 
         /*
         Abstraction Function:
-        The AI Implementation of the MiniMax MoveStrategy, used when the Computer option is selected
-        in the Setup Game dialog box. The AI is a SwingWorker, so it performs tasks in the
+        The AI Implementation of the ParallelMiniMax MoveStrategy, used when the Computer option is
+        selected in the Setup Game dialog box. The AI is a SwingWorker, so it performs tasks in the
         background on a worker thread, as opposed to the current thread or the Event Dispatch
-        thread.
+        thread. The root Moves themselves are searched on every available processor.
 
         AIThinkTank calculates the best Move to make given a Board state, in the background, using
-        the MiniMax MoveStrategy. When it completes, it will notify the main Table class and update
-        the corresponding GUI elements.
+        the ParallelMiniMax MoveStrategy, unless the Ponderer has already searched the Board during
+        the human's turn. When it completes, it will notify the main Table class and update the
+        corresponding GUI elements, and start pondering if the human Player is to move.
+
+        The search is stopped whenever the game changes underneath it, in which case its Move is
+        discarded rather than played on the wrong Board.
+            - searchBoard: the Board on which the search was started.
+            - stopSignal: the signal that stops the search.
+            - ponderSearch: the pondered search that was taken over on a ponder hit, or null.
          */
 
-        private AIThinkTank() {
+        private final Board searchBoard;
+        private final StopSignal stopSignal;
+        private volatile PonderSearch ponderSearch;
+
+        private AIThinkTank(final Board searchBoard) {
+            this.searchBoard = searchBoard;
+            this.stopSignal = new StopSignal();
+        }
+
+        /**
+         * Stops the search, which will then finish with the best Move found so far. That Move is
+         * never played.
+         */
+        private void stopSearch() {
+            this.stopSignal.stop();
+            final PonderSearch takenSearch = this.ponderSearch;
+            if (takenSearch != null) {
+                takenSearch.stop();
+            }
+            cancel(false);
         }
 
+        /**
+         * Takes the pondered reply to the human's Move if there is one, and otherwise searches the
+         * current Board from scratch.
+         *
+         * @return the best Move for the AI
+         */
         @Override
         protected Move doInBackground() {
-            final MoveStrategy miniMax = new MiniMax(4);
-            return miniMax.execute(Table.get().getGameBoard());
+            this.ponderSearch = Table.get().getPonderer().takePonderResult(this.searchBoard);
+            if (this.ponderSearch != null) {
+                if (this.stopSignal.isStopped()) {
+                    this.ponderSearch.stop();
+                }
+                try {
+                    return this.ponderSearch.get();
+                } catch (final CancellationException e) {
+                    return null;
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+            return Table.get().getMoveStrategy().execute(this.searchBoard, this.stopSignal);
         }
 
         @Override
         public void done() {
+            if (isCancelled() || this.searchBoard != Table.get().getGameBoard()) {
+                return;
+            }
             try {
                 final Move bestMove = get();
                 Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(
@@ -316,6 +447,7 @@ public class Table extends Observable {
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
                 Table.get().moveMadeUpdate(PlayerType.COMPUTER);
+                Table.get().ponderIfHumanToMove();
             } catch (InterruptedException | ExecutionException e) {
                 e.printStackTrace();
             }
@@ -515,6 +647,7 @@ public class Table extends Observable {
                             final MoveTransition transition =
                                 chessBoard.currentPlayer().makeMove(move);
                             if (transition.getMoveStatus().isDone()) {
+                                stopThinking();
                                 chessBoard = transition.getBoard();
                                 moveLog.addMove(move);
                             }
@@ -0,0 +1,481 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PolyglotHashing;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.PolyglotBook;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BookBuilder {
+
+    /*
+    Abstraction Function:
+    This class is a headless tool that builds a Polyglot opening book from collections of PGN games.
+    Each game is replayed through Board and MoveTransition up to maxPly, and for every Board state
+    and Move, the number of games that the moving side went on to win, draw and lose is counted.
+    The weight of a book Move is twice its wins plus its draws, scaled down per Board state if
+    needed to fit into 16 bits.
+
+    Counts are kept in memory until there are more than maxEntriesInMemory distinct pairs of Board
+    state and Move, at which point they are sorted and spilled to a run file on disk. The book is
+    then written by an external k-way merge of the runs, so the number of games is limited by disk
+    space rather than by heap.
+        - hashing: the keys with which the Board states are hashed.
+        - maxPly: the number of plies of each game that are added to the book.
+        - maxEntriesInMemory: the number of counts held in memory before they are spilled.
+        - minGames: the number of games a Move must have been played in to enter the book.
+        - tempDirectory: the directory in which the run files are created.
+        - counts: the wins, draws and losses of each Board state and Move not yet spilled.
+        - runs: the sorted run files spilled so far.
+        - gameCount: the number of games added to the book.
+        - skippedGameCount: the number of games skipped for having no result or a custom start.
+        - unreadMoveCount: the number of games cut short by a Move that could not be replayed.
+     */
+
+    public static final int DEFAULT_MAX_PLY = 20;
+    public static final int DEFAULT_MAX_ENTRIES_IN_MEMORY = 2_000_000;
+
+    private static final int RUN_RECORD_SIZE = 24;
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final PolyglotHashing hashing;
+    private final int maxPly;
+    private final int maxEntriesInMemory;
+    private final int minGames;
+    private final Path tempDirectory;
+    private final Map<BookKey, int[]> counts;
+    private final List<Path> runs;
+    private long gameCount;
+    private long skippedGameCount;
+    private long unreadMoveCount;
+
+    /**
+     * Constructor for a BookBuilder.
+     *
+     * @param hashing the keys with which the Board states are hashed
+     * @param maxPly the number of plies of each game that are added to the book
+     * @param maxEntriesInMemory the number of counts held in memory before they are spilled
+     * @param minGames the number of games a Move must have been played in to enter the book
+     * @param tempDirectory the directory in which the run files are created
+     */
+    public BookBuilder(final PolyglotHashing hashing, final int maxPly,
+                       final int maxEntriesInMemory, final int minGames,
+                       final Path tempDirectory) {
+        if (maxPly < 1 || maxEntriesInMemory < 1) {
+            throw new IllegalArgumentException("ply and memory limits must be positive!");
+        }
+        if (hashing == null) {
+            throw new IllegalArgumentException("a Polyglot book cannot be built without keys!");
+        }
+        this.hashing = hashing;
+        this.maxPly = maxPly;
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.minGames = minGames;
+        this.tempDirectory = tempDirectory;
+        this.counts = new HashMap<>();
+        this.runs = new ArrayList<>();
+    }
+
+    /**
+     * Builds a book from the command line. Usage:
+     *     BookBuilder --keys FILE [--max-ply N] [--memory-entries N] [--min-games N]
+     *                 [--temp-dir DIR] BOOK PGN...
+     * where FILE holds the standard Polyglot Random64 table, as read by PolyglotHashing.fromFile,
+     * and each PGN is a PGN file or a directory that is searched for .pgn files. The keys are
+     * required, as a book built with any other keys cannot be read by other Polyglot readers.
+     *
+     * @param args the command line arguments
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        int maxPly = DEFAULT_MAX_PLY;
+        int maxEntriesInMemory = DEFAULT_MAX_ENTRIES_IN_MEMORY;
+        int minGames = 1;
+        PolyglotHashing hashing = null;
+        Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 == args.length) {
+                exitWithUsage();
+            }
+            switch (args[i]) {
+                case "--max-ply":
+                    maxPly = Integer.parseInt(args[++i]);
+                    break;
+                case "--memory-entries":
+                    maxEntriesInMemory = Integer.parseInt(args[++i]);
+                    break;
+                case "--min-games":
+                    minGames = Integer.parseInt(args[++i]);
+                    break;
+                case "--keys":
+                    hashing = PolyglotHashing.fromFile(Paths.get(args[++i]));
+                    break;
+                case "--temp-dir":
+                    tempDirectory = Paths.get(args[++i]);
+                    break;
+                default:
+                    paths.add(Paths.get(args[i]));
+            }
+        }
+        if (hashing == null) {
+            System.err.println("BookBuilder: --keys is required, as books are keyed with the " +
+                "Polyglot Random64 table");
+            exitWithUsage();
+        }
+        if (paths.size() < 2) {
+            exitWithUsage();
+        }
+        final BookBuilder builder = new BookBuilder(hashing, maxPly, maxEntriesInMemory, minGames,
+            tempDirectory);
+        for (final Path path : paths.subList(1, paths.size())) {
+            builder.addPGN(path);
+        }
+        final long entries = builder.write(paths.get(0));
+        System.out.println(builder.getGameCount() + " games added, " +
+            builder.getSkippedGameCount() + " skipped, " + builder.getUnreadMoveCount() +
+            " cut short; " + entries +
+            " book entries written to " + paths.get(0));
+    }
+
+    private static void exitWithUsage() {
+        System.err.println("usage: BookBuilder --keys FILE [--max-ply N] [--memory-entries N] " +
+            "[--min-games N] [--temp-dir DIR] BOOK PGN...");
+        System.exit(1);
+    }
+
+    /**
+     * Adds every game of a PGN file to the book, or of every .pgn file below a directory.
+     *
+     * @param path the PGN file or directory
+     * @throws IOException if a file cannot be read, or counts cannot be spilled
+     */
+    public void addPGN(final Path path) throws IOException {
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(path)) {
+            files = walk.filter(file -> Files.isRegularFile(file) &&
+                (file.equals(path) || file.toString().toLowerCase().endsWith(".pgn")))
+                .sorted().collect(Collectors.toList());
+        }
+        for (final Path file : files) {
+            try (final PGNReader reader = new PGNReader(Files.newBufferedReader(file,
+                StandardCharsets.ISO_8859_1))) {
+                PGNGame game;
+                while ((game = reader.readGame()) != null) {
+                    addGame(game);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays a game up to maxPly and counts its result for every Board state and Move. Games
+     * without a result, or that start from a custom position, are skipped.
+     *
+     * @param game the game
+     * @throws IOException if the counts cannot be spilled
+     */
+    public void addGame(final PGNGame game) throws IOException {
+        final int outcome = getOutcome(game.getResult());
+        if (outcome == 3 || game.getTags().containsKey("FEN")) {
+            this.skippedGameCount++;
+            return;
+        }
+        Board board = Board.createStandardBoard();
+        final int plies = Math.min(this.maxPly, game.getMoves().size());
+        for (int ply = 0; ply < plies; ply++) {
+            final Move move = PGNUtilities.createMove(board, game.getMoves().get(ply));
+            final MoveTransition transition = move == null ? null :
+                board.currentPlayer().makeMove(move);
+            if (transition == null || !transition.getMoveStatus().isDone()) {
+                this.unreadMoveCount++;
+                break;
+            }
+            final BookKey key = new BookKey(this.hashing.calculateHash(board),
+                PolyglotBook.encodeMove(move));
+            final int[] moveCounts = this.counts.computeIfAbsent(key, k -> new int[3]);
+            moveCounts[board.currentPlayer().getAlliance().isWhite() ? outcome : 2 - outcome]++;
+            board = transition.getBoard();
+        }
+        this.gameCount++;
+        if (this.counts.size() > this.maxEntriesInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * Converts a game result into the index of the counts of a white Move: 0 for a win, 1 for a
+     * draw and 2 for a loss, or 3 if the result is unknown.
+     *
+     * @param result the game termination marker
+     * @return the outcome index
+     */
+    private static int getOutcome(final String result) {
+        switch (result) {
+            case PGNGame.WHITE_WINS:
+                return 0;
+            case PGNGame.DRAW:
+                return 1;
+            case PGNGame.BLACK_WINS:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * Sorts the counts held in memory and writes them to a new run file.
+     *
+     * @throws IOException if the run file cannot be written
+     */
+    private void spill() throws IOException {
+        final List<BookKey> keys = new ArrayList<>(this.counts.keySet());
+        Collections.sort(keys);
+        final Path run = Files.createTempFile(this.tempDirectory, "book-run", ".bin");
+        run.toFile().deleteOnExit();
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(run), 1 << 16))) {
+            for (final BookKey key : keys) {
+                final int[] moveCounts = this.counts.get(key);
+                out.writeLong(key.hash);
+                out.writeInt(key.move);
+                out.writeInt(moveCounts[0]);
+                out.writeInt(moveCounts[1]);
+                out.writeInt(moveCounts[2]);
+            }
+        }
+        this.runs.add(run);
+        this.counts.clear();
+    }
+
+    /**
+     * Writes the book, merging every run file. The run files are deleted afterwards.
+     *
+     * @param bookFile the path of the book file
+     * @return the number of entries written
+     * @throws IOException if a run or the book cannot be read or written
+     */
+    public long write(final Path bookFile) throws IOException {
+        spill();
+        final PriorityQueue<RunReader> queue = new PriorityQueue<>(
+            Comparator.comparing(RunReader::getKey));
+        long entries = 0;
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(bookFile), 1 << 16))) {
+            for (final Path run : this.runs) {
+                final RunReader reader = new RunReader(run);
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            final List<BookEntry> group = new ArrayList<>();
+            BookEntry current = null;
+            while (!queue.isEmpty()) {
+                final RunReader reader = queue.poll();
+                if (current == null || !current.key.equals(reader.key)) {
+                    if (current != null && current.key.hash != reader.key.hash) {
+                        entries += writeGroup(out, group);
+                    }
+                    current = new BookEntry(reader.key);
+                    group.add(current);
+                }
+                current.add(reader.counts);
+                if (reader.next()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            entries += writeGroup(out, group);
+        } finally {
+            for (final RunReader reader : queue) {
+                reader.close();
+            }
+            for (final Path run : this.runs) {
+                Files.deleteIfExists(run);
+            }
+            this.runs.clear();
+        }
+        return entries;
+    }
+
+    /**
+     * Writes the entries of one Board state, heaviest first, and clears the group.
+     *
+     * @param out the book output
+     * @param group the counts of every Move of one Board state
+     * @return the number of entries written
+     * @throws IOException if the book cannot be written
+     */
+    private long writeGroup(final DataOutputStream out, final List<BookEntry> group)
+        throws IOException {
+        group.removeIf(entry -> entry.getGames() < this.minGames || entry.getWeight() == 0);
+        long maxWeight = 0;
+        for (final BookEntry entry : group) {
+            maxWeight = Math.max(maxWeight, entry.getWeight());
+        }
+        group.sort(Comparator.comparingLong(BookEntry::getWeight).reversed());
+        for (final BookEntry entry : group) {
+            final long weight = maxWeight <= MAX_WEIGHT ? entry.getWeight() :
+                Math.max(1, entry.getWeight() * MAX_WEIGHT / maxWeight);
+            out.writeLong(entry.key.hash);
+            out.writeShort(entry.key.move);
+            out.writeShort((int) weight);
+            out.writeInt(0);
+        }
+        final int written = group.size();
+        group.clear();
+        return written;
+    }
+
+    public long getGameCount() {
+        return this.gameCount;
+    }
+
+    public long getSkippedGameCount() {
+        return this.skippedGameCount;
+    }
+
+    public long getUnreadMoveCount() {
+        return this.unreadMoveCount;
+    }
+
+    private static final class BookKey implements Comparable<BookKey> {
+
+        /*
+        Abstraction Function:
+        The pair of a Board state and a Move played on it, ordered as in a Polyglot book.
+            - hash: the Polyglot hash of the Board state.
+            - move: the Move, packed in the Polyglot format.
+         */
+
+        private final long hash;
+        private final int move;
+
+        private BookKey(final long hash, final int move) {
+            this.hash = hash;
+            this.move = move;
+        }
+
+        @Override
+        public int compareTo(final BookKey other) {
+            final int comparison = Long.compareUnsigned(this.hash, other.hash);
+            return comparison != 0 ? comparison : Integer.compare(this.move, other.move);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other || other instanceof BookKey &&
+                this.hash == ((BookKey) other).hash && this.move == ((BookKey) other).move;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.hash) * 31 + this.move;
+        }
+    }
+
+    private static final class BookEntry {
+
+        /*
+        Abstraction Function:
+        The merged counts of a Board state and Move, from the point of view of the moving side.
+            - key: the Board state and Move.
+            - wins, draws, losses: the number of games with each outcome.
+         */
+
+        private final BookKey key;
+        private long wins;
+        private long draws;
+        private long losses;
+
+        private BookEntry(final BookKey key) {
+            this.key = key;
+        }
+
+        private void add(final int[] counts) {
+            this.wins += counts[0];
+            this.draws += counts[1];
+            this.losses += counts[2];
+        }
+
+        private long getGames() {
+            return this.wins + this.draws + this.losses;
+        }
+
+        private long getWeight() {
+            return 2 * this.wins + this.draws;
+        }
+    }
+
+    private static final class RunReader {
+
+        /*
+        Abstraction Function:
+        A sequential reader of a sorted run file, positioned on its current record.
+            - in: the stream of the run file.
+            - key: the Board state and Move of the current record.
+            - counts: the wins, draws and losses of the current record.
+         */
+
+        private final DataInputStream in;
+        private final int[] counts;
+        private BookKey key;
+
+        private RunReader(final Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run),
+                RUN_RECORD_SIZE << 12));
+            this.counts = new int[3];
+        }
+
+        private BookKey getKey() {
+            return this.key;
+        }
+
+        /**
+         * Advances to the next record of the run.
+         *
+         * @return false if the run is exhausted
+         * @throws IOException if the run cannot be read
+         */
+        private boolean next() throws IOException {
+            final long hash;
+            try {
+                hash = this.in.readLong();
+            } catch (final EOFException e) {
+                return false;
+            }
+            this.key = new BookKey(hash, this.in.readInt());
+            for (int i = 0; i < this.counts.length; i++) {
+                this.counts[i] = this.in.readInt();
+            }
+            return true;
+        }
+
+        private void close() throws IOException {
+            this.in.close();
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.EvaluationParameters;
+import com.chess.engine.player.ai.Mobility;
+import com.chess.engine.tablebase.KPKBitbase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class EvaluatorTuner {
+
+    /*
+    Abstraction Function:
+    This class is a headless tool that tunes the EvaluationParameters of the StandardBoardEvaluator
+    on positions labelled with the result of the game they were taken from, in the manner of Texel
+    tuning. Away from checkmates and King and Pawn versus King endings, the StandardBoardEvaluator
+    is a weighted sum of features: the difference in the number of each kind of Piece, in the
+    checks and castles, and in the safe tiles attacked by each kind of Piece. Each position is
+    reduced to those features once, as it is read, and the weights are then fitted by gradient
+    descent on the mean squared error between each result and the sigmoid of the evaluation:
+        sigmoid(score) = 1 / (1 + 10^(-k * score / 400))
+    where the scaling constant k is first fitted to the starting weights.
+
+    Positions are read a line at a time, each a FEN string followed by the result for white as
+    "1-0", "0-1" or "1/2-1/2", or as 1.0, 0.5 or 0.0, optionally in brackets, quotes or an EPD
+    opcode. Lines are parsed in batches of BATCH_SIZE on a ForkJoinPool while the next batch is
+    read, and the error and its gradient are summed over the batches in parallel, so millions of
+    positions fit in memory as a few dozen bytes each.
+        - pool: the pool on which positions are parsed and evaluated.
+        - batches: the features and results of the positions read so far.
+        - positionCount: the number of positions read.
+        - skippedCount: the number of lines skipped as unreadable, or as positions that the
+                        evaluator does not score with its weights.
+     */
+
+    public static final int DEFAULT_EPOCHS = 1000;
+    public static final double DEFAULT_LEARNING_RATE = 1.0;
+
+    private static final int FEATURES = EvaluationParameters.NAMES.length;
+    private static final int BATCH_SIZE = 1 << 14;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    private final ForkJoinPool pool;
+    private final List<Batch> batches;
+    private long positionCount;
+    private long skippedCount;
+
+    /**
+     * Constructor for an EvaluatorTuner.
+     *
+     * @param pool the pool on which positions are parsed and evaluated
+     */
+    public EvaluatorTuner(final ForkJoinPool pool) {
+        this.pool = pool;
+        this.batches = new ArrayList<>();
+    }
+
+    /**
+     * Tunes the evaluator from the command line. Usage:
+     *     EvaluatorTuner [--epochs N] [--learning-rate X] [--threads N] [--start FILE]
+     *                    OUTPUT POSITIONS...
+     * where OUTPUT is the properties file to which the tuned parameters are written.
+     *
+     * @param args the command line arguments
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        int epochs = DEFAULT_EPOCHS;
+        double learningRate = DEFAULT_LEARNING_RATE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        EvaluationParameters start = EvaluationParameters.getDefault();
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 == args.length) {
+                exitWithUsage();
+            }
+            switch (args[i]) {
+                case "--epochs":
+                    epochs = Integer.parseInt(args[++i]);
+                    break;
+                case "--learning-rate":
+                    learningRate = Double.parseDouble(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--start":
+                    start = EvaluationParameters.load(Paths.get(args[++i]));
+                    break;
+                default:
+                    paths.add(Paths.get(args[i]));
+            }
+        }
+        if (paths.size() < 2) {
+            exitWithUsage();
+        }
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final EvaluatorTuner tuner = new EvaluatorTuner(pool);
+            for (final Path path : paths.subList(1, paths.size())) {
+                tuner.addPositions(path);
+            }
+            System.out.println(tuner.getPositionCount() + " positions read, " +
+                tuner.getSkippedCount() + " skipped");
+            final double[] weights = start.toVector();
+            final double k = tuner.fitScalingConstant(weights);
+            System.out.printf("k = %.4f, starting error %.6f%n", k, tuner.computeError(weights, k));
+            final EvaluationParameters tuned = EvaluationParameters.fromVector(
+                tuner.tune(weights, epochs, learningRate, k, System.out));
+            System.out.printf("final error %.6f%n", tuner.computeError(tuned.toVector(), k));
+            tuned.save(paths.get(0), "tuned on " + tuner.getPositionCount() + " positions");
+            System.out.println(tuned);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void exitWithUsage() {
+        System.err.println("usage: EvaluatorTuner [--epochs N] [--learning-rate X] " +
+            "[--threads N] [--start FILE] OUTPUT POSITIONS...");
+        System.exit(1);
+    }
+
+    public long getPositionCount() {
+        return this.positionCount;
+    }
+
+    public long getSkippedCount() {
+        return this.skippedCount;
+    }
+
+    /**
+     * Reads the labelled positions of a file, parsing each batch of lines in parallel while the
+     * next is read.
+     *
+     * @param file the file of labelled positions
+     * @throws IOException if the file cannot be read
+     */
+    public void addPositions(final Path file) throws IOException {
+        final Deque<ForkJoinTask<Batch>> pending = new ArrayDeque<>();
+        try (final BufferedReader reader = Files.newBufferedReader(file,
+            StandardCharsets.ISO_8859_1)) {
+            List<String> lines = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    lines.add(line);
+                }
+                if (lines.size() == BATCH_SIZE) {
+                    final List<String> batchLines = lines;
+                    pending.add(this.pool.submit(() -> Batch.parse(batchLines)));
+                    lines = new ArrayList<>(BATCH_SIZE);
+                    if (pending.size() > 2 * this.pool.getParallelism()) {
+                        addBatch(pending.remove().join());
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                final List<String> batchLines = lines;
+                pending.add(this.pool.submit(() -> Batch.parse(batchLines)));
+            }
+        } finally {
+            while (!pending.isEmpty()) {
+                addBatch(pending.remove().join());
+            }
+        }
+    }
+
+    private void addBatch(final Batch batch) {
+        this.batches.add(batch);
+        this.positionCount += batch.size;
+        this.skippedCount += batch.skipped;
+    }
+
+    /**
+     * Computes the mean squared error of a set of weights over every position read.
+     *
+     * @param weights the weight of each parameter, in the order of EvaluationParameters.NAMES
+     * @param k the scaling constant of the sigmoid
+     * @return the mean squared error
+     */
+    public double computeError(final double[] weights, final double k) {
+        if (this.positionCount == 0) {
+            return 0;
+        }
+        return this.pool.invoke(new ErrorTask(this.batches, 0, this.batches.size(), weights, k,
+            false))[FEATURES] / this.positionCount;
+    }
+
+    /**
+     * Fits the scaling constant of the sigmoid to a set of weights, by a golden section search.
+     *
+     * @param weights the weight of each parameter
+     * @return the scaling constant with the least error
+     */
+    public double fitScalingConstant(final double[] weights) {
+        final double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = 0.01;
+        double high = 3.0;
+        for (int i = 0; i < 40; i++) {
+            final double lower = high - ratio * (high - low);
+            final double upper = low + ratio * (high - low);
+            if (computeError(weights, lower) < computeError(weights, upper)) {
+                high = upper;
+            } else {
+                low = lower;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Fits the weights by full-batch gradient descent, with Adam step sizes so that piece values
+     * and mobility weights, whose features differ in scale, converge at the same pace.
+     *
+     * @param start the starting weight of each parameter
+     * @param epochs the number of gradient descent steps
+     * @param learningRate the largest change of a weight in a single step
+     * @param k the scaling constant of the sigmoid
+     * @param progress the stream to which the error is printed every 100 epochs, or null
+     * @return the tuned weights
+     */
+    public double[] tune(final double[] start, final int epochs, final double learningRate,
+                         final double k, final PrintStream progress) {
+        final double[] weights = start.clone();
+        final double[] firstMoments = new double[FEATURES];
+        final double[] secondMoments = new double[FEATURES];
+        if (this.positionCount == 0) {
+            return weights;
+        }
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            final double[] sums = this.pool.invoke(new ErrorTask(this.batches, 0,
+                this.batches.size(), weights, k, true));
+            for (int i = 0; i < FEATURES; i++) {
+                final double gradient = sums[i] / this.positionCount;
+                firstMoments[i] = BETA1 * firstMoments[i] + (1 - BETA1) * gradient;
+                secondMoments[i] = BETA2 * secondMoments[i] + (1 - BETA2) * gradient * gradient;
+                final double firstEstimate = firstMoments[i] / (1 - Math.pow(BETA1, epoch));
+                final double secondEstimate = secondMoments[i] / (1 - Math.pow(BETA2, epoch));
+                weights[i] -= learningRate * firstEstimate / (Math.sqrt(secondEstimate) + EPSILON);
+            }
+            if (progress != null && epoch % 100 == 0) {
+                progress.printf("epoch %d: error %.6f%n", epoch, sums[FEATURES] /
+                    this.positionCount);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Reduces a Board to the features that the StandardBoardEvaluator weighs, white's minus
+     * black's.
+     *
+     * @param board the board
+     * @param features the array into which the features are written
+     * @param offset the index of the first feature
+     */
+    static void extractFeatures(final Board board, final short[] features, final int offset) {
+        final int[] counts = new int[FEATURES];
+        final int[] whiteTiles = new int[Piece.PieceType.values().length];
+        final int[] blackTiles = new int[Piece.PieceType.values().length];
+        for (final Piece piece : board.getWhitePieces()) {
+            if (!piece.getPieceType().isKing()) {
+                counts[piece.getPieceType().ordinal()]++;
+            }
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            if (!piece.getPieceType().isKing()) {
+                counts[piece.getPieceType().ordinal()]--;
+            }
+        }
+        final Player white = board.whitePlayer();
+        final Player black = board.blackPlayer();
+        counts[EvaluationParameters.CHECK] = (black.isInCheck() ? 1 : 0) -
+            (white.isInCheck() ? 1 : 0);
+        counts[EvaluationParameters.CASTLE] = (white.isCastled() ? 1 : 0) -
+            (black.isCastled() ? 1 : 0);
+        Mobility.countTiles(white, whiteTiles);
+        Mobility.countTiles(black, blackTiles);
+        for (int i = 0; i < 4; i++) {
+            final int ordinal = Piece.PieceType.KNIGHT.ordinal() + i;
+            counts[EvaluationParameters.MOBILITY + i] = whiteTiles[ordinal] - blackTiles[ordinal];
+        }
+        for (int i = 0; i < FEATURES; i++) {
+            features[offset + i] = (short) counts[i];
+        }
+    }
+
+    /**
+     * Parses the result at the end of a labelled line.
+     *
+     * @param token the last token of the line, stripped of brackets, quotes and semicolons
+     * @return the result for white, or -1 if the token is not a result
+     */
+    static double parseResult(final String token) {
+        switch (token) {
+            case "1-0":
+            case "1":
+            case "1.0":
+                return 1.0;
+            case "0-1":
+            case "0":
+            case "0.0":
+                return 0.0;
+            case "1/2-1/2":
+            case "0.5":
+                return 0.5;
+            default:
+                return -1;
+        }
+    }
+
+    private static final class Batch {
+
+        /*
+        Abstraction Function:
+        This class represents the features and results of a batch of labelled positions.
+            - features: the FEATURES features of each position, one position after another.
+            - results: the result of each position for white.
+            - size: the number of positions in the batch.
+            - skipped: the number of lines of the batch that were skipped.
+         */
+
+        private final short[] features;
+        private final float[] results;
+        private final int size;
+        private final int skipped;
+
+        private Batch(final short[] features, final float[] results, final int size,
+                      final int skipped) {
+            this.features = features;
+            this.results = results;
+            this.size = size;
+            this.skipped = skipped;
+        }
+
+        /**
+         * Parses a batch of labelled lines. Checkmates, stalemates and King and Pawn versus King
+         * endings are skipped, since the evaluator does not score them with its weights.
+         *
+         * @param lines the lines
+         * @return the batch
+         */
+        private static Batch parse(final List<String> lines) {
+            final short[] features = new short[lines.size() * FEATURES];
+            final float[] results = new float[lines.size()];
+            int size = 0;
+            for (final String line : lines) {
+                final String[] tokens = line.replaceAll("[\\[\\]\";]", " ").trim().split("\\s+");
+                if (tokens.length < 3) {
+                    continue;
+                }
+                final double result = parseResult(tokens[tokens.length - 1]);
+                if (result < 0) {
+                    continue;
+                }
+                final StringBuilder fen = new StringBuilder(tokens[0]).append(' ')
+                    .append(tokens[1]);
+                for (int i = 2; i < Math.min(tokens.length - 1, 6); i++) {
+                    if (i >= 4 && !tokens[i].chars().allMatch(Character::isDigit)) {
+                        break;
+                    }
+                    fen.append(' ').append(tokens[i]);
+                }
+                final Board board;
+                try {
+                    board = FenUtilities.createGameFromFEN(fen.toString());
+                } catch (final RuntimeException e) {
+                    continue;
+                }
+                if (board.currentPlayer().isInCheckMate() ||
+                    board.currentPlayer().isInStaleMate() ||
+                    KPKBitbase.probe(board) != KPKBitbase.NOT_FOUND) {
+                    continue;
+                }
+                extractFeatures(board, features, size * FEATURES);
+                results[size++] = (float) result;
+            }
+            return new Batch(features, results, size, lines.size() - size);
+        }
+    }
+
+    private static final class ErrorTask extends RecursiveTask<double[]> {
+
+        /*
+        Abstraction Function:
+        This class represents the summing of the squared error, and optionally its gradient, over
+        a range of batches, split in half until a single batch is left.
+            - batches: the batches of positions.
+            - from, to: the range of batches, from inclusive and to exclusive.
+            - weights: the weight of each parameter.
+            - k: the scaling constant of the sigmoid.
+            - withGradient: whether or not the gradient is summed as well as the error.
+        The result holds the summed gradient of each weight, followed by the summed error.
+         */
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Batch> batches;
+        private final int from;
+        private final int to;
+        private final double[] weights;
+        private final double k;
+        private final boolean withGradient;
+
+        private ErrorTask(final List<Batch> batches, final int from, final int to,
+                          final double[] weights, final double k, final boolean withGradient) {
+            this.batches = batches;
+            this.from = from;
+            this.to = to;
+            this.weights = weights;
+            this.k = k;
+            this.withGradient = withGradient;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (this.to - this.from > 1) {
+                final int middle = (this.from + this.to) >>> 1;
+                final ErrorTask left = new ErrorTask(this.batches, this.from, middle,
+                    this.weights, this.k, this.withGradient);
+                left.fork();
+                final double[] sums = new ErrorTask(this.batches, middle, this.to, this.weights,
+                    this.k, this.withGradient).compute();
+                final double[] leftSums = left.join();
+                for (int i = 0; i <= FEATURES; i++) {
+                    sums[i] += leftSums[i];
+                }
+                return sums;
+            }
+            final double[] sums = new double[FEATURES + 1];
+            if (this.from == this.to) {
+                return sums;
+            }
+            final Batch batch = this.batches.get(this.from);
+            final double scale = this.k * Math.log(10) / 400;
+            for (int p = 0; p < batch.size; p++) {
+                final int offset = p * FEATURES;
+                double score = 0;
+                for (int i = 0; i < FEATURES; i++) {
+                    score += this.weights[i] * batch.features[offset + i];
+                }
+                final double sigmoid = 1 / (1 + Math.exp(-scale * score));
+                final double difference = sigmoid - batch.results[p];
+                sums[FEATURES] += difference * difference;
+                if (this.withGradient) {
+                    final double factor = 2 * difference * sigmoid * (1 - sigmoid) * scale;
+                    for (int i = 0; i < FEATURES; i++) {
+                        sums[i] += factor * batch.features[offset + i];
+                    }
+                }
+            }
+            return sums;
+        }
+    }
+}
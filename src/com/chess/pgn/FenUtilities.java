@@ -0,0 +1,168 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+
+public final class FenUtilities {
+
+    /*
+    A utility class for converting between Boards and Forsyth-Edwards Notation. Castling rights are
+    not part of a Board, since every Piece is created as if it has not yet moved, so the castling
+    field of a FEN string is ignored when it is read and derived from the placement of the Kings
+    and Rooks when it is written.
+     */
+
+    private FenUtilities() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Creates a Board from a FEN string. The halfmove clock and en passant fields are optional, and
+     * the fullmove number is ignored.
+     *
+     * @param fen the FEN string
+     * @return the board
+     * @throws IllegalArgumentException if the string is not a valid FEN string
+     */
+    public static Board createGameFromFEN(final String fen) {
+        final String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("not a FEN string: " + fen);
+        }
+        final Board.Builder builder = new Board.Builder();
+        int coordinate = 0;
+        for (final char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                coordinate += c - '0';
+            } else if (coordinate < BoardUtils.NUM_TILES) {
+                builder.setPiece(createPiece(c, coordinate++));
+            } else {
+                throw new IllegalArgumentException("too many tiles in FEN string: " + fen);
+            }
+        }
+        if (coordinate != BoardUtils.NUM_TILES) {
+            throw new IllegalArgumentException("too few tiles in FEN string: " + fen);
+        }
+        final Alliance moveMaker;
+        if (fields[1].equals("w")) {
+            moveMaker = Alliance.WHITE;
+        } else if (fields[1].equals("b")) {
+            moveMaker = Alliance.BLACK;
+        } else {
+            throw new IllegalArgumentException("no side to move in FEN string: " + fen);
+        }
+        builder.setMoveMaker(moveMaker);
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            final int target = BoardUtils.getCoordinateAtPosition(fields[3]);
+            final int pawnCoordinate = target + (moveMaker.isWhite() ? 8 : -8);
+            builder.setEnPassantPawn(new Pawn(moveMaker.isWhite() ? Alliance.BLACK :
+                Alliance.WHITE, pawnCoordinate));
+        }
+        if (fields.length > 4) {
+            builder.setHalfmoveClock(Integer.parseInt(fields[4]));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a FEN string from a Board.
+     *
+     * @param board the board
+     * @return the FEN string, with a fullmove number of 1
+     */
+    public static String createFENFromGame(final Board board) {
+        final StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < BoardUtils.NUM_TILES_PER_ROW; row++) {
+            int emptyTiles = 0;
+            for (int column = 0; column < BoardUtils.NUM_TILES_PER_ROW; column++) {
+                final Piece piece = board.getTile(row * BoardUtils.NUM_TILES_PER_ROW + column)
+                    .getPiece();
+                if (piece == null) {
+                    emptyTiles++;
+                    continue;
+                }
+                if (emptyTiles > 0) {
+                    fen.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                final String name = piece.getPieceType().toString();
+                fen.append(piece.getPieceAlliance().isWhite() ? name : name.toLowerCase());
+            }
+            if (emptyTiles > 0) {
+                fen.append(emptyTiles);
+            }
+            if (row < BoardUtils.NUM_TILES_PER_ROW - 1) {
+                fen.append('/');
+            }
+        }
+        fen.append(board.currentPlayer().getAlliance().isWhite() ? " w " : " b ");
+        fen.append(castlingRights(board)).append(' ');
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null) {
+            fen.append(BoardUtils.getPositionAtCoordinate(enPassantPawn.getPiecePosition() -
+                8 * enPassantPawn.getPieceAlliance().getDirection()));
+        } else {
+            fen.append('-');
+        }
+        return fen.append(' ').append(board.getHalfmoveClock()).append(" 1").toString();
+    }
+
+    private static String castlingRights(final Board board) {
+        final StringBuilder rights = new StringBuilder();
+        if (isPiece(board, "e1", Piece.PieceType.KING, Alliance.WHITE)) {
+            if (isPiece(board, "h1", Piece.PieceType.ROOK, Alliance.WHITE)) {
+                rights.append('K');
+            }
+            if (isPiece(board, "a1", Piece.PieceType.ROOK, Alliance.WHITE)) {
+                rights.append('Q');
+            }
+        }
+        if (isPiece(board, "e8", Piece.PieceType.KING, Alliance.BLACK)) {
+            if (isPiece(board, "h8", Piece.PieceType.ROOK, Alliance.BLACK)) {
+                rights.append('k');
+            }
+            if (isPiece(board, "a8", Piece.PieceType.ROOK, Alliance.BLACK)) {
+                rights.append('q');
+            }
+        }
+        return rights.length() == 0 ? "-" : rights.toString();
+    }
+
+    private static boolean isPiece(final Board board, final String position,
+                                   final Piece.PieceType pieceType, final Alliance alliance) {
+        final Piece piece = board.getTile(BoardUtils.getCoordinateAtPosition(position)).getPiece();
+        return piece != null && piece.getPieceType() == pieceType &&
+            piece.getPieceAlliance() == alliance;
+    }
+
+    private static Piece createPiece(final char c, final int coordinate) {
+        final Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+        switch (Character.toUpperCase(c)) {
+            case 'P':
+                return new Pawn(alliance, coordinate);
+            case 'N':
+                return new Knight(alliance, coordinate);
+            case 'B':
+                return new Bishop(alliance, coordinate);
+            case 'R':
+                return new Rook(alliance, coordinate);
+            case 'Q':
+                return new Queen(alliance, coordinate);
+            case 'K':
+                return new King(alliance, coordinate);
+            default:
+                throw new IllegalArgumentException("not a piece: " + c);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.chess.pgn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+public final class PGNGame {
+
+    /*
+    Abstraction Function:
+    This class represents a single game read from a PGN file, before its Moves are replayed.
+        - tags: the tag pairs of the game, such as Event, White and Result.
+        - moves: the Moves of the main line, in standard algebraic notation.
+        - result: the game termination marker, which is one of "1-0", "0-1", "1/2-1/2" or "*".
+     */
+
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNKNOWN = "*";
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    PGNGame(final Map<String, String> tags, final List<String> moves, final String result) {
+        this.tags = ImmutableMap.copyOf(tags);
+        this.moves = ImmutableList.copyOf(moves);
+        this.result = result;
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.getOrDefault("White", "?") + " - " + this.tags.getOrDefault("Black", "?") +
+            " " + this.result;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    public List<String> getMoves() {
+        return this.moves;
+    }
+
+    public String getResult() {
+        return this.result;
+    }
+}
@@ -0,0 +1,163 @@
+package com.chess.pgn;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class PGNReader implements Closeable {
+
+    /*
+    Abstraction Function:
+    This class reads the games of a PGN file one at a time, so that files of any size can be
+    streamed without holding more than one game in memory. Comments, recursive variations, numeric
+    annotation glyphs and move numbers are skipped, leaving only the Moves of the main line.
+        - reader: the underlying reader of the PGN text.
+        - pendingLine: a line that has been read but belongs to the next game, or null.
+        - isInComment: whether or not the reader is inside a {} comment that spans lines.
+        - variationDepth: the nesting depth of the () variation that the reader is inside.
+     */
+
+    private static final Pattern TAG_PATTERN = Pattern.compile("^\\[(\\w+)\\s+\"(.*)\"\\]\\s*$");
+    private static final Pattern MOVE_NUMBER_PATTERN = Pattern.compile("^\\d+\\.+");
+
+    private final BufferedReader reader;
+    private String pendingLine;
+    private boolean isInComment;
+    private int variationDepth;
+
+    /**
+     * Constructor for a PGNReader.
+     *
+     * @param reader the reader of the PGN text
+     */
+    public PGNReader(final Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader :
+            new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next game. A game ends at its termination marker, or at the tags of the next game
+     * if the marker is missing.
+     *
+     * @return the next game, or null if there are no more games
+     * @throws IOException if the PGN text cannot be read
+     */
+    public PGNGame readGame() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+        this.isInComment = false;
+        this.variationDepth = 0;
+        boolean isInMoveText = false;
+        String line;
+        while ((line = nextLine()) != null) {
+            final String trimmed = line.trim();
+            if (trimmed.startsWith("%")) {
+                continue;
+            }
+            if (!this.isInComment && trimmed.startsWith("[")) {
+                if (isInMoveText) {
+                    this.pendingLine = line;
+                    return new PGNGame(tags, moves, tags.getOrDefault("Result", PGNGame.UNKNOWN));
+                }
+                final Matcher matcher = TAG_PATTERN.matcher(trimmed);
+                if (matcher.matches()) {
+                    tags.put(matcher.group(1), matcher.group(2).replace("\\\"", "\""));
+                }
+                continue;
+            }
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            isInMoveText = true;
+            final String result = parseMoveText(trimmed, moves);
+            if (result != null) {
+                return new PGNGame(tags, moves, result);
+            }
+        }
+        if (isInMoveText || !tags.isEmpty()) {
+            return new PGNGame(tags, moves, tags.getOrDefault("Result", PGNGame.UNKNOWN));
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private String nextLine() throws IOException {
+        if (this.pendingLine != null) {
+            final String line = this.pendingLine;
+            this.pendingLine = null;
+            return line;
+        }
+        return this.reader.readLine();
+    }
+
+    /**
+     * Extracts the main line Moves from a line of move text.
+     *
+     * @param line the line of move text
+     * @param moves the list to which the Moves are added
+     * @return the termination marker if the line ends the game, otherwise null
+     */
+    private String parseMoveText(final String line, final List<String> moves) {
+        final StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= line.length(); i++) {
+            final char c = i < line.length() ? line.charAt(i) : ' ';
+            if (this.isInComment) {
+                this.isInComment = c != '}';
+                continue;
+            }
+            if (c == '{' || c == ';' || c == '(' || c == ')' || Character.isWhitespace(c)) {
+                final String result = acceptToken(token.toString(), moves);
+                token.setLength(0);
+                if (result != null) {
+                    return result;
+                }
+                if (c == '{') {
+                    this.isInComment = true;
+                } else if (c == ';') {
+                    return null;
+                } else if (c == '(') {
+                    this.variationDepth++;
+                } else if (c == ')') {
+                    this.variationDepth = Math.max(0, this.variationDepth - 1);
+                }
+            } else {
+                token.append(c);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a token of move text to the main line, unless it is a move number, an annotation or
+     * part of a variation.
+     *
+     * @param token the token
+     * @param moves the list to which the Move is added
+     * @return the termination marker if the token is one, otherwise null
+     */
+    private String acceptToken(final String token, final List<String> moves) {
+        if (token.isEmpty() || this.variationDepth > 0 || token.startsWith("$")) {
+            return null;
+        }
+        if (token.equals(PGNGame.WHITE_WINS) || token.equals(PGNGame.BLACK_WINS) ||
+            token.equals(PGNGame.DRAW) || token.equals(PGNGame.UNKNOWN)) {
+            return token;
+        }
+        final String move = MOVE_NUMBER_PATTERN.matcher(token).replaceFirst("");
+        if (!move.isEmpty()) {
+            moves.add(move);
+        }
+        return null;
+    }
+}
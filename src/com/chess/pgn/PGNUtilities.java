@@ -0,0 +1,98 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PGNUtilities {
+
+    /*
+    A utility class for converting between the Moves of a Board and the standard algebraic notation
+    used by PGN files.
+     */
+
+    private PGNUtilities() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Finds the legal Move on a Board that matches a Move in standard algebraic notation, such as
+     * "e4", "Nbd7", "exd6", "O-O" or "e8=Q+". Check marks and annotations are ignored.
+     *
+     * @param board the board on which the move is played
+     * @param san the move in standard algebraic notation
+     * @return the matching Move, or null if it does not match exactly one Move, or if it is an
+     *         under-promotion, which this engine cannot play. A Move that is only ambiguous with
+     *         Moves that leave the King in check is returned without being played, so the caller
+     *         must still check the MoveStatus of its MoveTransition
+     */
+    public static Move createMove(final Board board, final String san) {
+        String notation = san.replaceAll("[+#!?]", "");
+        if (notation.startsWith("O-O") || notation.startsWith("0-0")) {
+            final boolean isQueenSide = notation.length() >= 5;
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                if (move.isCastlingMove() && (move.getDestinationCoordinate() <
+                    move.getCurrentCoordinate()) == isQueenSide) {
+                    return move;
+                }
+            }
+            return null;
+        }
+        final int promotionIndex = notation.indexOf('=');
+        if (promotionIndex >= 0) {
+            if (!notation.substring(promotionIndex + 1).equals("Q")) {
+                return null;
+            }
+            notation = notation.substring(0, promotionIndex);
+        }
+        final Piece.PieceType pieceType = getPieceType(notation.charAt(0));
+        if (pieceType != Piece.PieceType.PAWN) {
+            notation = notation.substring(1);
+        }
+        notation = notation.replace("x", "");
+        if (notation.length() < 2) {
+            return null;
+        }
+        final String destination = notation.substring(notation.length() - 2);
+        final String disambiguation = notation.substring(0, notation.length() - 2);
+        final Integer destinationCoordinate = BoardUtils.POSITION_TO_COORDINATE.get(destination);
+        if (destinationCoordinate == null) {
+            return null;
+        }
+        final List<Move> candidates = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getDestinationCoordinate() == destinationCoordinate &&
+                move.getMovedPiece().getPieceType() == pieceType && !move.isCastlingMove() &&
+                BoardUtils.ALGEBRAIC_NOTATION[move.getCurrentCoordinate()].contains(
+                    disambiguation)) {
+                candidates.add(move);
+            }
+        }
+        if (candidates.size() > 1) {
+            candidates.removeIf(move -> !board.currentPlayer().makeMove(move).getMoveStatus()
+                .isDone());
+        }
+        return candidates.size() == 1 ? candidates.get(0) : null;
+    }
+
+    private static Piece.PieceType getPieceType(final char symbol) {
+        switch (symbol) {
+            case 'N':
+                return Piece.PieceType.KNIGHT;
+            case 'B':
+                return Piece.PieceType.BISHOP;
+            case 'R':
+                return Piece.PieceType.ROOK;
+            case 'Q':
+                return Piece.PieceType.QUEEN;
+            case 'K':
+                return Piece.PieceType.KING;
+            default:
+                return Piece.PieceType.PAWN;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.chess.protocol;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+public final class CoordinateNotation {
+
+    /*
+    A utility class for the coordinate notation with which the UCI and XBoard protocols exchange
+    Moves: the tile a Piece moves from followed by the tile it moves to, as in "e2e4", with a
+    suffix naming the promotion piece, as in "e7e8q". Castling is written as the King's Move.
+    Pawns are always promoted to Queens, so any promotion suffix is read as a Queen, and a
+    promotion is always written with the suffix "q".
+     */
+
+    private CoordinateNotation() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Writes a Move in coordinate notation.
+     *
+     * @param move the move
+     * @return the move in coordinate notation
+     */
+    public static String toCoordinates(final Move move) {
+        final String coordinates = BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+            BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate());
+        return move instanceof Move.PawnPromotion ? coordinates + "q" : coordinates;
+    }
+
+    /**
+     * Plays a Move written in coordinate notation.
+     *
+     * @param board the board on which the move is played
+     * @param coordinates the move in coordinate notation
+     * @return the board after the move
+     * @throws IllegalArgumentException if the move is not legal on the board
+     */
+    public static Board playMove(final Board board, final String coordinates) {
+        final Move move = createMove(board, coordinates);
+        final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+        if (!moveTransition.getMoveStatus().isDone()) {
+            throw new IllegalArgumentException("illegal move: " + coordinates);
+        }
+        return moveTransition.getBoard();
+    }
+
+    /**
+     * Finds the legal Move of the Player to move that is written in coordinate notation.
+     *
+     * @param board the board on which the move is played
+     * @param coordinates the move in coordinate notation
+     * @return the move
+     * @throws IllegalArgumentException if the Player to move has no such move
+     */
+    public static Move createMove(final Board board, final String coordinates) {
+        if (coordinates.length() < 4 || coordinates.length() > 5 ||
+            !isPosition(coordinates.substring(0, 2)) || !isPosition(coordinates.substring(2, 4))) {
+            throw new IllegalArgumentException("not a move: " + coordinates);
+        }
+        final int currentCoordinate = BoardUtils.getCoordinateAtPosition(
+            coordinates.substring(0, 2));
+        final int destinationCoordinate = BoardUtils.getCoordinateAtPosition(
+            coordinates.substring(2, 4));
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentCoordinate() == currentCoordinate &&
+                move.getDestinationCoordinate() == destinationCoordinate) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("illegal move: " + coordinates);
+    }
+
+    private static boolean isPosition(final String position) {
+        return position.charAt(0) >= 'a' && position.charAt(0) <= 'h' &&
+            position.charAt(1) >= '1' && position.charAt(1) <= '8';
+    }
+}
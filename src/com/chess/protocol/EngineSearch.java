@@ -0,0 +1,259 @@
+package com.chess.protocol;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.SearchStats;
+import com.chess.engine.player.ai.StopSignal;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+final class EngineSearch implements Runnable, SearchListener {
+
+    /*
+    Abstraction Function:
+    This class represents a single search started by a protocol front end, such as the UCIEngine
+    or the XBoardEngine. The search runs on the front end's search thread while its commands are
+    read on another, and is stopped by a stop command, by its node limit or by its time limit, whose
+    clock starts once it is not pondering. Nodes are counted from the statistics that the search
+    publishes every NODE_CHECK_INTERVAL_MILLIS, so a node limit may be overshot by that much
+    searching, while progress is passed on to the Reporter at most every INFO_INTERVAL_MILLIS. An
+    infinite or pondering search does not report its best Move until it is stopped, or until the
+    ponder hit after which its time starts.
+        - moveStrategy: the search algorithm, whose depth is set by the front end.
+        - board: the position searched.
+        - reporter: the front end to which statistics and the best Move are reported.
+        - stopSignal: the signal that stops the search.
+        - nodeLimit: the number of nodes after which the search is stopped.
+        - timeLimit: the milliseconds after which the search is stopped, once it is not pondering,
+                     or -1 if there is no limit.
+        - infinite: whether or not the best Move is held back until the search is stopped.
+        - pondering: whether or not the best Move is held back until a ponder hit.
+        - stopped: whether or not a stop command has released the best Move.
+        - timer: the thread that stops the search once its time is up.
+        - timeout: the scheduled stop of the search, or null.
+        - future: the search running on the search thread.
+        - principalVariation: the principal variation of the last completed iteration.
+        - lastInfoMillis: the elapsed time at which progress was last reported.
+     */
+
+    static final int MAX_DEPTH = 64;
+
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long MOVE_OVERHEAD_MILLIS = 50;
+    private static final long MIN_MOVE_MILLIS = 10;
+    private static final long NODE_CHECK_INTERVAL_MILLIS = 10;
+    private static final long INFO_INTERVAL_MILLIS = 1000;
+
+    private final LazySMP moveStrategy;
+    private final Board board;
+    private final Reporter reporter;
+    private final StopSignal stopSignal;
+    private final long nodeLimit;
+    private final long timeLimit;
+    private final boolean infinite;
+    private boolean pondering;
+    private boolean stopped;
+    private ScheduledExecutorService timer;
+    private ScheduledFuture<?> timeout;
+    private Future<?> future;
+    private volatile List<Move> principalVariation;
+    private volatile long lastInfoMillis;
+
+    /**
+     * Constructor for an EngineSearch that has not yet started.
+     *
+     * @param moveStrategy the search algorithm
+     * @param board the position to be searched
+     * @param nodeLimit the number of nodes after which the search is stopped
+     * @param timeLimit the milliseconds after which the search is stopped, or -1
+     * @param infinite whether or not the best Move is held back until the search is stopped
+     * @param pondering whether or not the best Move is held back until a ponder hit
+     * @param reporter the front end to which statistics and the best Move are reported
+     */
+    EngineSearch(final LazySMP moveStrategy, final Board board, final long nodeLimit,
+                 final long timeLimit, final boolean infinite, final boolean pondering,
+                 final Reporter reporter) {
+        this.moveStrategy = moveStrategy;
+        this.board = board;
+        this.reporter = reporter;
+        this.stopSignal = new StopSignal();
+        this.nodeLimit = nodeLimit;
+        this.timeLimit = timeLimit;
+        this.infinite = infinite;
+        this.pondering = pondering;
+        this.principalVariation = ImmutableList.of();
+    }
+
+    /**
+     * Allocates a share of the clock of the Player to move to a single Move: its remaining time
+     * divided by the moves to go, plus most of its increment, less a margin for the overhead of
+     * sending the Move.
+     *
+     * @param time the milliseconds left on the clock
+     * @param increment the milliseconds added to the clock for each Move
+     * @param movesToGo the number of Moves until the clock is next refilled, or 0 if it never is
+     * @return the milliseconds that the search may take
+     */
+    static long allocateTime(final long time, final long increment, final int movesToGo) {
+        final long share = time / (movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO) +
+            increment * 3 / 4;
+        return Math.max(MIN_MOVE_MILLIS, Math.min(time / 2, share) - MOVE_OVERHEAD_MILLIS);
+    }
+
+    Board getBoard() {
+        return this.board;
+    }
+
+    synchronized boolean isPondering() {
+        return this.pondering;
+    }
+
+    /**
+     * Starts the search on the search thread, with its time starting now unless it is pondering.
+     *
+     * @param searchExecutor the thread on which the search runs
+     * @param searchTimer the thread that stops the search once its time is up
+     */
+    synchronized void start(final ExecutorService searchExecutor,
+                            final ScheduledExecutorService searchTimer) {
+        this.timer = searchTimer;
+        if (!this.pondering) {
+            startTimer();
+        }
+        this.moveStrategy.setSearchListener(this);
+        this.future = searchExecutor.submit(this);
+    }
+
+    private synchronized void startTimer() {
+        if (this.timeLimit >= 0) {
+            this.timeout = this.timer.schedule(this.stopSignal::stop, this.timeLimit,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the search, which then reports the best Move it has found so far.
+     */
+    synchronized void stop() {
+        this.stopped = true;
+        this.stopSignal.stop();
+        notifyAll();
+    }
+
+    /**
+     * Turns a pondering search into a normal one, whose time starts now.
+     */
+    synchronized void ponderHit() {
+        if (this.pondering) {
+            this.pondering = false;
+            startTimer();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Waits for the search to report its best Move.
+     */
+    void await() {
+        try {
+            this.future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public void run() {
+        final Move bestMove = this.moveStrategy.execute(this.board, this.stopSignal);
+        synchronized (this) {
+            while ((this.infinite || this.pondering) && !this.stopped) {
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    return;
+                }
+            }
+            if (this.timeout != null) {
+                this.timeout.cancel(false);
+            }
+        }
+        if (bestMove == null || bestMove == Move.NULL_MOVE) {
+            this.reporter.searchFinished(this, null, null);
+            return;
+        }
+        final List<Move> variation = this.principalVariation;
+        this.reporter.searchFinished(this, bestMove,
+            variation.size() > 1 && variation.get(0).equals(bestMove) ? variation.get(1) : null);
+    }
+
+    @Override
+    public void iterationCompleted(final SearchStats searchStats) {
+        this.principalVariation = searchStats.getPrincipalVariation();
+        this.lastInfoMillis = searchStats.getElapsedMillis();
+        this.reporter.iterationCompleted(searchStats);
+        checkNodeLimit(searchStats);
+    }
+
+    @Override
+    public void searchProgressed(final SearchStats searchStats) {
+        if (searchStats.getElapsedMillis() - this.lastInfoMillis >= INFO_INTERVAL_MILLIS) {
+            this.lastInfoMillis = searchStats.getElapsedMillis();
+            this.reporter.searchProgressed(searchStats);
+        }
+        checkNodeLimit(searchStats);
+    }
+
+    @Override
+    public long getProgressIntervalMillis() {
+        return NODE_CHECK_INTERVAL_MILLIS;
+    }
+
+    private void checkNodeLimit(final SearchStats searchStats) {
+        if (searchStats.getNodes() >= this.nodeLimit) {
+            this.stopSignal.stop();
+        }
+    }
+
+    interface Reporter {
+
+        /*
+        This interface will be used by each protocol front end to write the progress and result of
+        its searches in its own format. Statistics are reported from the searching threads, and the
+        best Move from the search thread.
+         */
+
+        /**
+         * Called whenever an iteration of the search completes.
+         *
+         * @param searchStats the statistics of the search so far
+         */
+        void iterationCompleted(SearchStats searchStats);
+
+        /**
+         * Called at most every INFO_INTERVAL_MILLIS while an iteration is in progress.
+         *
+         * @param searchStats the statistics of the search so far
+         */
+        void searchProgressed(SearchStats searchStats);
+
+        /**
+         * Called once the search has finished and its best Move is no longer held back.
+         *
+         * @param search the search that has finished
+         * @param bestMove the best Move found, or null if the Player to move has no legal Move
+         * @param ponderMove the expected reply to the best Move, or null
+         */
+        void searchFinished(EngineSearch search, Move bestMove, Move ponderMove);
+    }
+}
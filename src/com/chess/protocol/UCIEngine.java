@@ -0,0 +1,385 @@
+package com.chess.protocol;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.SearchStats;
+import com.chess.pgn.FenUtilities;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+public final class UCIEngine {
+
+    /*
+    Abstraction Function:
+    This class represents a headless engine that speaks the Universal Chess Interface on a pair of
+    streams, so that the LazySMP search can be driven by any UCI graphical interface or tournament
+    manager without the Swing Table. Commands are read and handled on the calling thread, while
+    each search runs as an EngineSearch on a thread of its own, so that a stop is seen by the search
+    at its next node. A timer thread stops each search once its time is up.
+
+    A search is limited by depth, by nodes or by time, which is either a fixed movetime or a share
+    of the clock of the Player to move, as allocated by the EngineSearch. A go with no limit
+    searches to DEFAULT_DEPTH. Scores are reported in centipawns, mates included, for the Player to
+    move.
+        - in: the stream from which commands are read.
+        - out: the stream to which responses are written, by either thread.
+        - searchExecutor: the thread on which searches run.
+        - timer: the thread that stops searches once their time is up.
+        - reporter: the writer of info and bestmove lines.
+        - hashMegabytes: the size of the transposition table, set by the Hash option.
+        - threadCount: the number of search threads, set by the Threads option.
+        - moveStrategy: the search, rebuilt whenever an option changes, or null until the first go.
+        - board: the position set by the last position command.
+        - search: the last search started, which may have finished, or null.
+     */
+
+    public static final String NAME = "JChess";
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+    public static final int MAX_HASH_MEGABYTES = 1024;
+    public static final int MAX_THREADS = 64;
+    public static final int DEFAULT_DEPTH = 5;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final ExecutorService searchExecutor;
+    private final ScheduledExecutorService timer;
+    private final EngineSearch.Reporter reporter;
+    private int hashMegabytes;
+    private int threadCount;
+    private LazySMP moveStrategy;
+    private Board board;
+    private EngineSearch search;
+
+    /**
+     * Constructor for a UCIEngine.
+     *
+     * @param in the stream from which commands are read
+     * @param out the stream to which responses are written
+     */
+    public UCIEngine(final BufferedReader in, final PrintStream out) {
+        this.in = in;
+        this.out = out;
+        this.searchExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("uci-search-%d").build());
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("uci-timer-%d").build());
+        this.hashMegabytes = DEFAULT_HASH_MEGABYTES;
+        this.threadCount = 1;
+        this.board = Board.createStandardBoard();
+        this.reporter = new UCIReporter();
+    }
+
+    /**
+     * Runs a UCIEngine on standard input and output.
+     *
+     * @param args the command line arguments, which are ignored
+     * @throws IOException if standard input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        new UCIEngine(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+
+    /**
+     * Handles commands until the quit command or the end of the input, and then stops any search
+     * in progress, waiting for it to report its best Move.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = this.in.readLine()) != null) {
+                final String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].equals("quit")) {
+                    break;
+                }
+                try {
+                    handleCommand(tokens);
+                } catch (final IllegalArgumentException e) {
+                    send("info string " + e.getMessage());
+                }
+            }
+        } finally {
+            finishSearch();
+            this.searchExecutor.shutdown();
+            this.timer.shutdown();
+            if (this.moveStrategy != null) {
+                this.moveStrategy.shutdown();
+            }
+        }
+    }
+
+    private void handleCommand(final String[] tokens) {
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author the " + NAME + " authors");
+                send("option name Hash type spin default " + DEFAULT_HASH_MEGABYTES +
+                    " min 1 max " + MAX_HASH_MEGABYTES);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Ponder type check default false");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                finishSearch();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                finishSearch();
+                if (this.moveStrategy != null) {
+                    this.moveStrategy.getTranspositionTable().clear();
+                }
+                this.board = Board.createStandardBoard();
+                break;
+            case "position":
+                this.board = parsePosition(tokens);
+                break;
+            case "go":
+                finishSearch();
+                go(tokens);
+                break;
+            case "stop":
+                if (this.search != null) {
+                    this.search.stop();
+                }
+                break;
+            case "ponderhit":
+                if (this.search != null) {
+                    this.search.ponderHit();
+                }
+                break;
+            case "":
+                break;
+            default:
+                send("info string unknown command " + tokens[0]);
+        }
+    }
+
+    /**
+     * Sets the Hash or Threads option, from a command of the form
+     *     setoption name NAME value VALUE
+     * The search is rebuilt with the new option at the next go.
+     *
+     * @param tokens the tokens of the command
+     */
+    private void setOption(final String[] tokens) {
+        final int nameIndex = Arrays.asList(tokens).indexOf("name");
+        final int valueIndex = Arrays.asList(tokens).indexOf("value");
+        if (nameIndex < 0 || valueIndex < nameIndex + 2 || valueIndex + 1 >= tokens.length) {
+            throw new IllegalArgumentException("expected setoption name NAME value VALUE");
+        }
+        final String name = String.join(" ", Arrays.asList(tokens).subList(nameIndex + 1,
+            valueIndex));
+        final String value = tokens[valueIndex + 1];
+        if (name.equalsIgnoreCase("Hash")) {
+            this.hashMegabytes = parseInt(value, 1, MAX_HASH_MEGABYTES);
+        } else if (name.equalsIgnoreCase("Threads")) {
+            this.threadCount = parseInt(value, 1, MAX_THREADS);
+        } else if (name.equalsIgnoreCase("Ponder")) {
+            return;
+        } else {
+            throw new IllegalArgumentException("unknown option " + name);
+        }
+        if (this.moveStrategy != null) {
+            this.moveStrategy.shutdown();
+            this.moveStrategy = null;
+        }
+    }
+
+    /**
+     * Parses a command of the form
+     *     position (startpos | fen FEN) [moves MOVE...]
+     *
+     * @param tokens the tokens of the command
+     * @return the board after the moves
+     */
+    private static Board parsePosition(final String[] tokens) {
+        final List<String> arguments = Arrays.asList(tokens).subList(1, tokens.length);
+        final int movesIndex = arguments.contains("moves") ? arguments.indexOf("moves") :
+            arguments.size();
+        Board board;
+        if (!arguments.isEmpty() && arguments.get(0).equals("startpos")) {
+            board = Board.createStandardBoard();
+        } else if (!arguments.isEmpty() && arguments.get(0).equals("fen")) {
+            board = FenUtilities.createGameFromFEN(String.join(" ",
+                arguments.subList(1, movesIndex)));
+        } else {
+            throw new IllegalArgumentException("expected position startpos or position fen");
+        }
+        for (final String move : arguments.subList(Math.min(movesIndex + 1, arguments.size()),
+            arguments.size())) {
+            board = CoordinateNotation.playMove(board, move);
+        }
+        return board;
+    }
+
+    /**
+     * Starts a search of the current position, from a command of the form
+     *     go [depth N] [nodes N] [movetime MS] [wtime MS] [btime MS] [winc MS] [binc MS]
+     *        [movestogo N] [infinite] [ponder]
+     *
+     * @param tokens the tokens of the command
+     */
+    private void go(final String[] tokens) {
+        int depth = 0;
+        long nodes = Long.MAX_VALUE;
+        long moveTime = -1;
+        long time = -1;
+        long increment = 0;
+        int movesToGo = 0;
+        boolean infinite = false;
+        boolean ponder = false;
+        final boolean isWhite = this.board.currentPlayer().getAlliance().isWhite();
+        for (int i = 1; i < tokens.length; i++) {
+            final String value = i + 1 < tokens.length ? tokens[i + 1] : "";
+            switch (tokens[i]) {
+                case "depth":
+                    depth = parseInt(value, 1, EngineSearch.MAX_DEPTH);
+                    i++;
+                    break;
+                case "nodes":
+                    nodes = parseLong(value);
+                    i++;
+                    break;
+                case "movetime":
+                    moveTime = parseLong(value);
+                    i++;
+                    break;
+                case "wtime":
+                case "btime":
+                    if (tokens[i].equals("wtime") == isWhite) {
+                        time = parseLong(value);
+                    }
+                    i++;
+                    break;
+                case "winc":
+                case "binc":
+                    if (tokens[i].equals("winc") == isWhite) {
+                        increment = parseLong(value);
+                    }
+                    i++;
+                    break;
+                case "movestogo":
+                    movesToGo = parseInt(value, 1, Integer.MAX_VALUE);
+                    i++;
+                    break;
+                case "infinite":
+                    infinite = true;
+                    break;
+                case "ponder":
+                    ponder = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown go parameter " + tokens[i]);
+            }
+        }
+        final long timeLimit = moveTime < 0 && time >= 0 ?
+            EngineSearch.allocateTime(time, increment, movesToGo) : moveTime;
+        if (depth == 0) {
+            depth = infinite || ponder || timeLimit >= 0 || nodes != Long.MAX_VALUE ?
+                EngineSearch.MAX_DEPTH : DEFAULT_DEPTH;
+        }
+        if (this.moveStrategy == null) {
+            this.moveStrategy = new LazySMP(depth, this.threadCount, this.hashMegabytes);
+        }
+        this.moveStrategy.setSearchDepth(depth);
+        this.search = new EngineSearch(this.moveStrategy, this.board, nodes, timeLimit, infinite,
+            ponder, this.reporter);
+        this.search.start(this.searchExecutor, this.timer);
+    }
+
+    /**
+     * Stops the search in progress, if any, and waits for it to report its best Move.
+     */
+    private void finishSearch() {
+        if (this.search != null) {
+            this.search.stop();
+            this.search.await();
+        }
+    }
+
+    private synchronized void send(final String message) {
+        this.out.println(message);
+        this.out.flush();
+    }
+
+    private static int parseInt(final String value, final int min, final int max) {
+        final long parsed = parseLong(value);
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(value + " is not between " + min + " and " + max);
+        }
+        return (int) parsed;
+    }
+
+    private static long parseLong(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(value + " is not a number");
+        }
+    }
+
+    /**
+     * Formats the statistics of a search as the body of an info line.
+     *
+     * @param searchStats the statistics
+     * @param withVariation whether or not the score and principal variation are included
+     * @return the info line
+     */
+    private static String formatInfo(final SearchStats searchStats, final boolean withVariation) {
+        final StringBuilder info = new StringBuilder("info depth ").append(searchStats.getDepth())
+            .append(" seldepth ").append(searchStats.getSelectiveDepth());
+        if (withVariation) {
+            info.append(" score cp ").append(searchStats.getScore());
+        }
+        info.append(" nodes ").append(searchStats.getNodes())
+            .append(" nps ").append(searchStats.getNodesPerSecond())
+            .append(" time ").append(searchStats.getElapsedMillis());
+        if (withVariation && !searchStats.getPrincipalVariation().isEmpty()) {
+            info.append(" pv");
+            for (final Move move : searchStats.getPrincipalVariation()) {
+                info.append(' ').append(CoordinateNotation.toCoordinates(move));
+            }
+        }
+        return info.toString();
+    }
+
+    private final class UCIReporter implements EngineSearch.Reporter {
+
+        @Override
+        public void iterationCompleted(final SearchStats searchStats) {
+            send(formatInfo(searchStats, true));
+        }
+
+        @Override
+        public void searchProgressed(final SearchStats searchStats) {
+            send(formatInfo(searchStats, false));
+        }
+
+        @Override
+        public void searchFinished(final EngineSearch search, final Move bestMove,
+                                   final Move ponderMove) {
+            if (bestMove == null) {
+                send("bestmove 0000");
+            } else if (ponderMove == null) {
+                send("bestmove " + CoordinateNotation.toCoordinates(bestMove));
+            } else {
+                send("bestmove " + CoordinateNotation.toCoordinates(bestMove) + " ponder " +
+                    CoordinateNotation.toCoordinates(ponderMove));
+            }
+        }
+    }
+}
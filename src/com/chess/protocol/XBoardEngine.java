@@ -0,0 +1,551 @@
+package com.chess.protocol;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.SearchStats;
+import com.chess.pgn.FenUtilities;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+public final class XBoardEngine {
+
+    /*
+    Abstraction Function:
+    This class represents a headless engine that speaks the Chess Engine Communication Protocol,
+    version 2, used by XBoard and WinBoard, over the same LazySMP search core as the UCIEngine.
+    Unlike UCI, the engine keeps the game itself: Moves arrive one at a time with usermove, and the
+    engine replies with its own Move whenever it is on move and not in force mode. Commands are
+    read on the calling thread, and each search runs as an EngineSearch on a thread of its own,
+    which plays the engine's Move when it finishes. Both threads change the game under the lock of
+    the engine, and a search that is cancelled is discarded before it can play.
+
+    Moves are parsed with CoordinateNotation, which looks among the legal Moves of the Player to
+    move alone, so replaying a game in force mode costs one Board per Move. The time of each search
+    is a fixed st time, or a share of the engine's clock as last sent by time, or of the base time
+    of the level until then, allocated by the EngineSearch for the Moves left in the session. With
+    pondering on, the engine searches the reply its principal variation expects while the opponent
+    thinks, and keeps that search, starting its clock, if the opponent plays it. In analyze mode,
+    the position is searched until it changes or analysis ends. With post on, each completed
+    iteration prints a line of thinking output: the depth, the score in centipawns for the engine,
+    the time in centiseconds, the nodes and the principal variation.
+        - in: the stream from which commands are read.
+        - out: the stream to which responses are written, by either thread.
+        - searchExecutor: the thread on which searches run.
+        - timer: the thread that stops searches once their time is up.
+        - reporter: the writer of thinking output and of the engine's Moves.
+        - hashMegabytes: the size of the transposition table, set by the memory command.
+        - threadCount: the number of search threads, set by the cores command.
+        - moveStrategy: the search, rebuilt whenever its size changes, or null until the first
+                        search.
+        - board: the current position of the game.
+        - history: the position before each Move of the game, for undo and remove.
+        - engineColor: the Player that the engine plays, or null in force mode.
+        - analyzing: whether or not the engine is in analyze mode.
+        - posting: whether or not thinking output is printed.
+        - ponderingEnabled: whether or not the engine ponders, set by hard and easy.
+        - depthLimit: the depth set by sd, or 0 if there is none.
+        - moveTime: the milliseconds per Move set by st, or -1 if there is none.
+        - movesPerSession: the Moves per time control set by level, or 0 for the whole game.
+        - baseTime: the milliseconds of each time control set by level.
+        - increment: the milliseconds added for each Move set by level.
+        - engineTime: the milliseconds on the engine's clock set by time, or -1 if unknown.
+        - search: the search in progress, or null.
+        - ponderMove: the opponent's Move on which the search in progress is pondering, or null.
+        - negateScores: whether or not the search in progress is scored for the opponent.
+     */
+
+    public static final String NAME = UCIEngine.NAME;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final ExecutorService searchExecutor;
+    private final ScheduledExecutorService timer;
+    private final EngineSearch.Reporter reporter;
+    private int hashMegabytes;
+    private int threadCount;
+    private LazySMP moveStrategy;
+    private Board board;
+    private final List<Board> history;
+    private Alliance engineColor;
+    private boolean analyzing;
+    private boolean posting;
+    private boolean ponderingEnabled;
+    private int depthLimit;
+    private long moveTime;
+    private int movesPerSession;
+    private long baseTime;
+    private long increment;
+    private long engineTime;
+    private EngineSearch search;
+    private Move ponderMove;
+    private volatile boolean negateScores;
+
+    /**
+     * Constructor for an XBoardEngine.
+     *
+     * @param in the stream from which commands are read
+     * @param out the stream to which responses are written
+     */
+    public XBoardEngine(final BufferedReader in, final PrintStream out) {
+        this.in = in;
+        this.out = out;
+        this.searchExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xboard-search-%d").build());
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xboard-timer-%d").build());
+        this.reporter = new XBoardReporter();
+        this.hashMegabytes = UCIEngine.DEFAULT_HASH_MEGABYTES;
+        this.threadCount = 1;
+        this.history = new ArrayList<>();
+        this.moveTime = -1;
+        this.baseTime = 5 * 60 * 1000;
+        this.engineTime = -1;
+        newGame();
+    }
+
+    /**
+     * Runs an XBoardEngine on standard input and output.
+     *
+     * @param args the command line arguments, which are ignored
+     * @throws IOException if standard input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        new XBoardEngine(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+
+    /**
+     * Handles commands until the quit command or the end of the input, discarding any search in
+     * progress.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = this.in.readLine()) != null) {
+                final String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].equals("quit")) {
+                    break;
+                }
+                try {
+                    handleCommand(tokens);
+                } catch (final IllegalArgumentException e) {
+                    send("Error (" + e.getMessage() + "): " + line.trim());
+                }
+            }
+        } finally {
+            cancelSearch();
+            this.searchExecutor.shutdown();
+            this.timer.shutdown();
+            synchronized (this) {
+                if (this.moveStrategy != null) {
+                    this.moveStrategy.shutdown();
+                }
+            }
+        }
+    }
+
+    private void handleCommand(final String[] tokens) {
+        final String argument = tokens.length > 1 ? tokens[1] : "";
+        switch (tokens[0]) {
+            case "protover":
+                send("feature myname=\"" + NAME + "\" usermove=1 setboard=1 ping=1 analyze=1 " +
+                    "colors=0 san=0 time=1 draw=0 sigint=0 sigterm=0 reuse=1 memory=1 smp=1 " +
+                    "variants=\"normal\" done=1");
+                break;
+            case "new":
+                cancelSearch();
+                newGame();
+                break;
+            case "force":
+            case "result":
+                cancelSearch();
+                synchronized (this) {
+                    this.engineColor = null;
+                }
+                break;
+            case "go":
+                cancelSearch();
+                synchronized (this) {
+                    this.engineColor = this.board.currentPlayer().getAlliance();
+                    think();
+                }
+                break;
+            case "playother":
+                cancelSearch();
+                synchronized (this) {
+                    this.engineColor = this.board.currentPlayer().getOpponent().getAlliance();
+                }
+                break;
+            case "usermove":
+                userMove(argument);
+                break;
+            case "?":
+                synchronized (this) {
+                    if (this.search != null && !this.analyzing && !this.search.isPondering()) {
+                        this.search.stop();
+                    }
+                }
+                break;
+            case "setboard":
+                cancelSearch();
+                synchronized (this) {
+                    this.board = FenUtilities.createGameFromFEN(String.join(" ",
+                        Arrays.asList(tokens).subList(1, tokens.length)));
+                    this.history.clear();
+                    restartAnalysis();
+                }
+                break;
+            case "undo":
+            case "remove":
+                cancelSearch();
+                synchronized (this) {
+                    takeBack(tokens[0].equals("undo") ? 1 : 2);
+                    restartAnalysis();
+                }
+                break;
+            case "analyze":
+                cancelSearch();
+                synchronized (this) {
+                    this.analyzing = true;
+                    this.engineColor = null;
+                    restartAnalysis();
+                }
+                break;
+            case "exit":
+                cancelSearch();
+                synchronized (this) {
+                    this.analyzing = false;
+                }
+                break;
+            case "level":
+                setLevel(tokens);
+                break;
+            case "st":
+                synchronized (this) {
+                    this.moveTime = (long) (parseNumber(argument) * 1000);
+                }
+                break;
+            case "sd":
+                synchronized (this) {
+                    this.depthLimit = (int) Math.min(EngineSearch.MAX_DEPTH,
+                        Math.max(1, parseNumber(argument)));
+                }
+                break;
+            case "time":
+                synchronized (this) {
+                    this.engineTime = (long) parseNumber(argument) * 10;
+                }
+                break;
+            case "hard":
+                synchronized (this) {
+                    this.ponderingEnabled = true;
+                }
+                break;
+            case "easy":
+                synchronized (this) {
+                    this.ponderingEnabled = false;
+                }
+                if (isPondering()) {
+                    cancelSearch();
+                }
+                break;
+            case "post":
+            case "nopost":
+                synchronized (this) {
+                    this.posting = tokens[0].equals("post");
+                }
+                break;
+            case "memory":
+            case "cores":
+                cancelSearch();
+                resize(tokens[0], (int) parseNumber(argument));
+                break;
+            case "ping":
+                send("pong " + argument);
+                break;
+            case "xboard":
+            case "accepted":
+            case "rejected":
+            case "otim":
+            case "random":
+            case "computer":
+            case "name":
+            case "ics":
+            case "draw":
+            case ".":
+            case "":
+                break;
+            default:
+                if (tokens[0].matches("[a-h][1-8][a-h][1-8][qrbn]?")) {
+                    userMove(tokens[0]);
+                } else {
+                    send("Error (unknown command): " + tokens[0]);
+                }
+        }
+    }
+
+    /**
+     * Resets the game to the standard starting position, with the engine playing black.
+     */
+    private synchronized void newGame() {
+        this.board = Board.createStandardBoard();
+        this.history.clear();
+        this.engineColor = Alliance.BLACK;
+        this.analyzing = false;
+        this.depthLimit = 0;
+        this.engineTime = -1;
+        if (this.moveStrategy != null) {
+            this.moveStrategy.getTranspositionTable().clear();
+        }
+    }
+
+    /**
+     * Plays the opponent's Move. If the engine was pondering on that Move, the pondering search
+     * goes on as the engine's search, and otherwise the engine searches its reply afresh.
+     *
+     * @param coordinates the Move in coordinate notation
+     */
+    private void userMove(final String coordinates) {
+        synchronized (this) {
+            final Move move;
+            try {
+                move = CoordinateNotation.createMove(this.board, coordinates);
+            } catch (final IllegalArgumentException e) {
+                send("Illegal move: " + coordinates);
+                return;
+            }
+            if (this.search != null && this.ponderMove != null &&
+                CoordinateNotation.toCoordinates(move).equals(
+                    CoordinateNotation.toCoordinates(this.ponderMove))) {
+                this.history.add(this.board);
+                this.board = this.search.getBoard();
+                this.ponderMove = null;
+                this.negateScores = false;
+                this.search.ponderHit();
+                return;
+            }
+        }
+        cancelSearch();
+        synchronized (this) {
+            this.history.add(this.board);
+            this.board = CoordinateNotation.playMove(this.board, coordinates);
+            if (this.analyzing) {
+                restartAnalysis();
+            } else if (this.board.currentPlayer().getAlliance() == this.engineColor) {
+                think();
+            }
+        }
+    }
+
+    private synchronized void takeBack(final int moveCount) {
+        for (int i = 0; i < moveCount && !this.history.isEmpty(); i++) {
+            this.board = this.history.remove(this.history.size() - 1);
+        }
+    }
+
+    /**
+     * Sets a conventional time control, from a command of the form
+     *     level MOVES BASE INCREMENT
+     * where BASE is in minutes, or minutes and seconds as in 0:30, and INCREMENT is in seconds.
+     *
+     * @param tokens the tokens of the command
+     */
+    private synchronized void setLevel(final String[] tokens) {
+        if (tokens.length < 4) {
+            throw new IllegalArgumentException("expected level MOVES BASE INCREMENT");
+        }
+        final String[] base = tokens[2].split(":");
+        this.movesPerSession = (int) parseNumber(tokens[1]);
+        this.baseTime = (long) (parseNumber(base[0]) * 60 * 1000) +
+            (base.length > 1 ? (long) (parseNumber(base[1]) * 1000) : 0);
+        this.increment = (long) (parseNumber(tokens[3]) * 1000);
+        this.moveTime = -1;
+    }
+
+    private synchronized void resize(final String option, final int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(option + " must be positive");
+        }
+        if (option.equals("memory")) {
+            this.hashMegabytes = Math.min(value, UCIEngine.MAX_HASH_MEGABYTES);
+        } else {
+            this.threadCount = Math.min(value, UCIEngine.MAX_THREADS);
+        }
+        if (this.moveStrategy != null) {
+            this.moveStrategy.shutdown();
+            this.moveStrategy = null;
+        }
+    }
+
+    /**
+     * Starts a timed search for the engine's Move, which plays it once it finishes.
+     */
+    private synchronized void think() {
+        long timeLimit = this.moveTime;
+        if (timeLimit < 0) {
+            final int movesPlayed = this.history.size() / 2;
+            final int movesToGo = this.movesPerSession > 0 ?
+                this.movesPerSession - movesPlayed % this.movesPerSession : 0;
+            timeLimit = EngineSearch.allocateTime(this.engineTime >= 0 ? this.engineTime :
+                this.baseTime, this.increment, movesToGo);
+        }
+        startSearch(this.board, timeLimit, false, false);
+    }
+
+    /**
+     * Starts a search of the current position that runs until it is cancelled, if the engine is in
+     * analyze mode.
+     */
+    private synchronized void restartAnalysis() {
+        if (this.analyzing) {
+            startSearch(this.board, -1, true, false);
+        }
+    }
+
+    private synchronized void startSearch(final Board searchBoard, final long timeLimit,
+                                          final boolean infinite, final boolean pondering) {
+        final int depth = this.depthLimit > 0 ? this.depthLimit : EngineSearch.MAX_DEPTH;
+        if (this.moveStrategy == null) {
+            this.moveStrategy = new LazySMP(depth, this.threadCount, this.hashMegabytes);
+        }
+        this.moveStrategy.setSearchDepth(depth);
+        this.negateScores = searchBoard.currentPlayer().getAlliance() != this.engineColor &&
+            !this.analyzing;
+        this.search = new EngineSearch(this.moveStrategy, searchBoard, Long.MAX_VALUE,
+            timeLimit, infinite, pondering, this.reporter);
+        this.search.start(this.searchExecutor, this.timer);
+    }
+
+    /**
+     * Discards the search in progress, if any, and waits for it to finish without playing.
+     */
+    private void cancelSearch() {
+        final EngineSearch cancelled;
+        synchronized (this) {
+            cancelled = this.search;
+            this.search = null;
+            this.ponderMove = null;
+        }
+        if (cancelled != null) {
+            cancelled.stop();
+            cancelled.await();
+        }
+    }
+
+    private synchronized boolean isPondering() {
+        return this.ponderMove != null;
+    }
+
+    /**
+     * Plays the engine's Move, reports the result if the game is over, and otherwise ponders on
+     * the expected reply if pondering is enabled.
+     *
+     * @param bestMove the engine's Move
+     * @param expectedReply the reply expected by the principal variation, or null
+     */
+    private synchronized void playEngineMove(final Move bestMove, final Move expectedReply) {
+        this.history.add(this.board);
+        this.board = this.board.currentPlayer().makeMove(bestMove).getBoard();
+        send("move " + CoordinateNotation.toCoordinates(bestMove));
+        if (sendResultIfOver() || !this.ponderingEnabled || expectedReply == null) {
+            return;
+        }
+        try {
+            final Board ponderBoard = CoordinateNotation.playMove(this.board,
+                CoordinateNotation.toCoordinates(expectedReply));
+            final long timeLimit = this.moveTime;
+            this.ponderMove = expectedReply;
+            startSearch(ponderBoard, timeLimit >= 0 ? timeLimit : EngineSearch.allocateTime(
+                this.engineTime >= 0 ? this.engineTime : this.baseTime, this.increment, 0),
+                false, true);
+        } catch (final IllegalArgumentException e) {
+            this.ponderMove = null;
+        }
+    }
+
+    /**
+     * Reports the result of the game if the Player to move is checkmated or stalemated.
+     *
+     * @return whether or not the game is over
+     */
+    private synchronized boolean sendResultIfOver() {
+        if (this.board.currentPlayer().isInCheckMate()) {
+            send(this.board.currentPlayer().getAlliance().isWhite() ? "0-1 {Black mates}" :
+                "1-0 {White mates}");
+            return true;
+        } else if (this.board.currentPlayer().isInStaleMate()) {
+            send("1/2-1/2 {Stalemate}");
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void send(final String message) {
+        this.out.println(message);
+        this.out.flush();
+    }
+
+    private static double parseNumber(final String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(value + " is not a number");
+        }
+    }
+
+    private final class XBoardReporter implements EngineSearch.Reporter {
+
+        @Override
+        public void iterationCompleted(final SearchStats searchStats) {
+            synchronized (XBoardEngine.this) {
+                if (!posting) {
+                    return;
+                }
+            }
+            final StringBuilder thinking = new StringBuilder().append(searchStats.getDepth())
+                .append(' ').append(negateScores ? -searchStats.getScore() : searchStats.getScore())
+                .append(' ').append(searchStats.getElapsedMillis() / 10)
+                .append(' ').append(searchStats.getNodes());
+            for (final Move move : searchStats.getPrincipalVariation()) {
+                thinking.append(' ').append(CoordinateNotation.toCoordinates(move));
+            }
+            send(thinking.toString());
+        }
+
+        @Override
+        public void searchProgressed(final SearchStats searchStats) {
+        }
+
+        @Override
+        public void searchFinished(final EngineSearch finished, final Move bestMove,
+                                   final Move expectedReply) {
+            synchronized (XBoardEngine.this) {
+                if (finished != search) {
+                    return;
+                }
+                search = null;
+                if (analyzing) {
+                    return;
+                }
+                if (bestMove == null) {
+                    sendResultIfOver();
+                } else {
+                    playEngineMove(bestMove, expectedReply);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tests.chess.engine;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.player.MoveTransition;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class BoardTestUtils {
+
+    /*
+    A utility class for the tests of the engine, which reach the Boards they test by playing
+    sequences of moves.
+     */
+
+    private BoardTestUtils() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    /**
+     * Plays a sequence of moves, given in the from-to tile coordinate notation, from the standard
+     * starting position.
+     *
+     * @param moves the moves to be played, such as "f2", "f3", "e7", "e5"
+     * @return the Board after the moves are played
+     */
+    public static Board playMoves(final String... moves) {
+        return playMoves(Board.createStandardBoard(), moves);
+    }
+
+    /**
+     * Plays a sequence of moves, given in the from-to tile coordinate notation, from a Board.
+     *
+     * @param start the Board on which the first move is played
+     * @param moves the moves to be played, such as "f2", "f3", "e7", "e5"
+     * @return the Board after the moves are played
+     */
+    public static Board playMoves(final Board start, final String... moves) {
+        Board board = start;
+        for (int i = 0; i < moves.length; i += 2) {
+            final MoveTransition transition = board.currentPlayer().makeMove(
+                MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(moves[i]),
+                    BoardUtils.getCoordinateAtPosition(moves[i + 1])));
+            assertTrue(transition.getMoveStatus().isDone());
+            board = transition.getBoard();
+        }
+        return board;
+    }
+}
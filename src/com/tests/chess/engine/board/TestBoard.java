@@ -1,14 +1,20 @@
 package com.tests.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
 import com.chess.engine.player.MoveTransition;
 import com.chess.engine.player.ai.MiniMax;
 import com.chess.engine.player.ai.MoveStrategy;
 import org.junit.jupiter.api.Test;
 
 import static com.chess.engine.board.Move.*;
+import static com.tests.chess.engine.BoardTestUtils.playMoves;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestBoard {
@@ -58,4 +64,57 @@ public class TestBoard {
         assertEquals(aiMove, bestMove);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testZobristTransposition() {
+        final Board board = Board.createStandardBoard();
+        final Board knightsFirst = playMoves(board, "g1", "f3", "g8", "f6", "b1", "c3");
+        final Board knightsSecond = playMoves(board, "b1", "c3", "g8", "f6", "g1", "f3");
+        assertEquals(knightsFirst.getZobristHash(), knightsSecond.getZobristHash());
+        assertNotEquals(board.getZobristHash(), playMoves(board, "g1", "f3", "g8", "f6", "f3",
+            "g1", "f6", "g8", "g1", "f3").getZobristHash());
+        assertNotEquals(board.getZobristHash(), playMoves(board, "e2", "e4")
+            .getZobristHash());
+    }
+
+    @Test
+    public void testRepetitionAndHalfmoveClock() {
+        final Board board = playMoves(Board.createStandardBoard(), "e2", "e3", "e7", "e6");
+        assertEquals(0, board.getHalfmoveClock());
+        final Board once = playMoves(board, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertEquals(4, once.getHalfmoveClock());
+        assertEquals(2, once.getRepetitionCount());
+        assertTrue(once.isRepetition());
+        assertFalse(once.isThreefoldRepetition());
+        final Board twice = playMoves(once, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertTrue(twice.isThreefoldRepetition());
+        assertFalse(twice.isFiftyMoveDraw());
+        final Board reset = playMoves(twice, "d2", "d4");
+        assertEquals(0, reset.getHalfmoveClock());
+        assertFalse(reset.isRepetition());
+        assertFalse(playMoves(board, "g1", "f3", "g8", "f6").isRepetition());
+    }
+
+    @Test
+    public void testIncrementalScores() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("e1")));
+        builder.setPiece(new Rook(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("a1")));
+        builder.setPiece(new Rook(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("h1")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("b7")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("e5")));
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("g8")));
+        builder.setPiece(new Rook(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("a8")));
+        builder.setPiece(new Knight(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("c8")));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("d7")));
+        builder.setMoveMaker(Alliance.BLACK);
+        final Board board = builder.build();
+        assertEquals(300, board.getMaterialScore());
+        Board.setVerifyIncrementalScores(true);
+        try {
+            new MiniMax(3).execute(board);
+            new MiniMax(2).execute(playMoves(Board.createStandardBoard(), "e2", "e4", "d7", "d5"));
+        } finally {
+            Board.setVerifyIncrementalScores(false);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.tests.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.player.ai.CachedBoardEvaluator;
+import com.chess.engine.player.ai.EvaluationBreakdown;
+import com.chess.engine.player.ai.EvaluationParameters;
+import com.chess.engine.player.ai.EvaluationProfile;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.Mobility;
+import com.chess.engine.player.ai.PawnHashTable;
+import com.chess.engine.player.ai.PieceSquareTableEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import org.junit.jupiter.api.Test;
+
+import static com.tests.chess.engine.BoardTestUtils.playMoves;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEvaluation {
+
+    /*
+    Testing suite for the evaluators of the artificial intelligence.
+     */
+
+    @Test
+    public void testPieceSquareTableEvaluator() {
+        final PieceSquareTableEvaluator evaluator = new PieceSquareTableEvaluator();
+        assertEquals(0, evaluator.evaluate(Board.createStandardBoard(), 0));
+        assertTrue(evaluator.evaluate(playMoves("e2", "e4"), 0) > 0);
+        assertEquals(0, evaluator.evaluate(playMoves("e2", "e4", "e7", "e5"), 0));
+        final Board foolsMate = playMoves("f2", "f3", "e7", "e5", "g2", "g4", "d8", "h4");
+        assertTrue(evaluator.evaluate(foolsMate, 0) < -1000);
+    }
+
+    @Test
+    public void testPawnHashTable() {
+        final PawnHashTable table = new PawnHashTable(1000);
+        assertEquals(512, table.size());
+        final PawnHashTable.Entry start = table.probe(Board.createStandardBoard());
+        assertEquals(0, start.getMiddlegameScore());
+        assertEquals(3, start.countShelter(Alliance.WHITE,
+            BoardUtils.getCoordinateAtPosition("e1")));
+        assertEquals(0, start.countShelter(Alliance.BLACK,
+            BoardUtils.getCoordinateAtPosition("e4")));
+        assertSame(start, table.probe(playMoves("g1", "f3", "g8", "f6")));
+        assertEquals(0.5, table.getHitRate());
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("g1")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("e6")));
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("a8")));
+        builder.setMoveMaker(Alliance.WHITE);
+        final PawnHashTable.Entry passed = table.probe(builder.build());
+        assertEquals(1L << BoardUtils.getCoordinateAtPosition("e6"), passed.getPassedPawns());
+        assertEquals(50, passed.getMiddlegameScore());
+        assertEquals(105, passed.getEndgameScore());
+    }
+
+    @Test
+    public void testCachedBoardEvaluator() {
+        final PieceSquareTableEvaluator evaluator = new PieceSquareTableEvaluator();
+        final CachedBoardEvaluator cache = new CachedBoardEvaluator(evaluator, 1);
+        final Board board = playMoves("e2", "e4", "e7", "e5", "g1", "f3");
+        final Move expected = new LazySMP(3, 1, 1, evaluator).execute(board);
+        assertEquals(expected, new LazySMP(3, 1, 1, cache).execute(board));
+        assertTrue(cache.getHits() > 0);
+        assertEquals(evaluator.evaluate(board, 0), cache.evaluate(board, 0));
+        final Board foolsMate = playMoves("f2", "f3", "e7", "e5", "g2", "g4", "d8", "h4");
+        assertEquals(evaluator.evaluate(foolsMate, 2), cache.evaluate(foolsMate, 2));
+        assertEquals(evaluator.evaluate(foolsMate, 0), cache.evaluate(foolsMate, 0));
+    }
+
+    @Test
+    public void testMobility() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(16, Mobility.score(board.whitePlayer()));
+        assertEquals(16, Mobility.score(board.blackPlayer()));
+        final Board kingsPawn = playMoves("e2", "e4");
+        assertEquals(36, Mobility.score(kingsPawn.whitePlayer()));
+        assertEquals(16, Mobility.score(kingsPawn.blackPlayer()));
+    }
+
+    @Test
+    public void testEvaluationBreakdown() {
+        final Board board = playMoves("e2", "e4", "d7", "d5", "e4", "d5");
+        final StandardBoardEvaluator evaluator = new StandardBoardEvaluator(
+            StandardBoardEvaluator.createTerms(EvaluationParameters.getDefault()), true);
+        final EvaluationBreakdown breakdown = evaluator.evaluateDetailed(board);
+        assertEquals(evaluator.evaluate(board, 0), breakdown.getTotal());
+        assertEquals(100, breakdown.getScore("material"));
+        assertEquals(3900, breakdown.getWhiteScore("material"));
+        assertEquals(Mobility.score(board.blackPlayer()), breakdown.getBlackScore("mobility"));
+        final EvaluationProfile profile = evaluator.getProfile();
+        assertEquals(1, profile.getCalls(StandardBoardEvaluator.BITBASE));
+        assertEquals(1, profile.getCalls("mobility"));
+        evaluator.resetProfile();
+        assertEquals(0, evaluator.getProfile().getTotalNanos());
+        assertThrows(IllegalStateException.class, () -> new StandardBoardEvaluator().getProfile());
+    }
+
+    @Test
+    public void testLazyEvaluation() {
+        final Board board = playMoves("e2", "e4", "d7", "d5", "e4", "d5", "d8", "d5");
+        final StandardBoardEvaluator evaluator = new StandardBoardEvaluator(
+            StandardBoardEvaluator.createTerms(EvaluationParameters.getDefault()), true);
+        final int score = evaluator.evaluate(board, 0);
+        assertEquals(score, evaluator.evaluate(board, 0, score - 1, score + 1));
+        final int upperBound = evaluator.evaluate(board, 0, 500, 600);
+        assertTrue(upperBound <= 500 && upperBound >= score);
+        final int lowerBound = evaluator.evaluate(board, 0, -600, -500);
+        assertTrue(lowerBound >= -500 && lowerBound <= score);
+        assertEquals(4, evaluator.getProfile().getCalls("material"));
+        assertEquals(2, evaluator.getProfile().getCalls("mobility"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tests.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.NNUEEvaluator;
+import com.chess.engine.player.ai.NNUENetwork;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNNUE {
+
+    /*
+    Testing suite for the neural network evaluator.
+     */
+
+    @Test
+    public void testLoadNetwork() throws IOException {
+        final NNUENetwork network = createRandomNetwork(new Random(7), 16, 4);
+        final Path file = Files.createTempFile("network", ".nnue");
+        try {
+            network.save(file);
+            final NNUENetwork loaded = NNUENetwork.load(file);
+            assertEquals(16, loaded.getHiddenSize());
+            assertEquals(4, loaded.getLayerSize());
+            final Board board = Board.createStandardBoard();
+            assertEquals(new NNUEEvaluator(network).evaluate(board, 0),
+                new NNUEEvaluator(loaded).evaluate(board, 0));
+            Files.write(file, new byte[] { 1, 2, 3, 4 });
+            assertThrows(IOException.class, () -> NNUENetwork.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testIncrementalAccumulator() {
+        final Random random = new Random(11);
+        final NNUEEvaluator evaluator = new NNUEEvaluator(createRandomNetwork(random, 32, 8), 64);
+        Board board = Board.createStandardBoard();
+        for (int ply = 0; ply < 80 && !board.currentPlayer().isInCheckMate() &&
+            !board.currentPlayer().isInStaleMate(); ply++) {
+            final List<Board> children = new ArrayList<>();
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (transition.getMoveStatus().isDone()) {
+                    children.add(transition.getBoard());
+                }
+            }
+            for (final Board child : children) {
+                if (child.currentPlayer().isInCheckMate()) {
+                    continue;
+                }
+                assertEquals(evaluator.evaluateFromScratch(child), evaluator.evaluate(child, 0));
+            }
+            board = children.get(random.nextInt(children.size()));
+        }
+        assertNotNull(new LazySMP(2, 1, 1, evaluator).execute(Board.createStandardBoard()));
+    }
+
+    /**
+     * Creates a network with small random weights, so that no accumulator overflows.
+     *
+     * @param random the source of the weights
+     * @param hiddenSize the number of accumulators of each Player
+     * @param layerSize the number of neurons of the hidden layer
+     * @return the network
+     */
+    private static NNUENetwork createRandomNetwork(final Random random, final int hiddenSize,
+                                                   final int layerSize) {
+        final short[] featureWeights = new short[NNUENetwork.FEATURES * hiddenSize];
+        final short[] featureBiases = new short[hiddenSize];
+        final short[] hiddenWeights = new short[2 * hiddenSize * layerSize];
+        final int[] hiddenBiases = new int[layerSize];
+        final short[] outputWeights = new short[layerSize];
+        fill(random, featureWeights, 32);
+        fill(random, featureBiases, 64);
+        fill(random, hiddenWeights, 64);
+        fill(random, outputWeights, 64);
+        for (int i = 0; i < layerSize; i++) {
+            hiddenBiases[i] = random.nextInt(1024) - 512;
+        }
+        return new NNUENetwork(featureWeights, featureBiases, hiddenWeights, hiddenBiases,
+            outputWeights, random.nextInt(256) - 128);
+    }
+
+    private static void fill(final Random random, final short[] values, final int bound) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) (random.nextInt(2 * bound + 1) - bound);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tests.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PolyglotHashing;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.OpeningBook;
+import com.chess.engine.player.ai.PolyglotBook;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static com.chess.engine.board.Move.*;
+import static com.tests.chess.engine.BoardTestUtils.playMoves;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestOpeningBook {
+
+    /*
+    Testing suite for the Polyglot opening book.
+     */
+
+    private static final PolyglotHashing HASHING = PolyglotHashing.generate(1);
+
+    private static Move createMove(final Board board, final String from, final String to) {
+        return MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(from),
+            BoardUtils.getCoordinateAtPosition(to));
+    }
+
+    @Test
+    public void testBookMovesAndFallback() throws IOException {
+        final Board board = Board.createStandardBoard();
+        final Move e4 = createMove(board, "e2", "e4");
+        final Move d4 = createMove(board, "d2", "d4");
+        final long key = HASHING.calculateHash(board);
+        final Path bookFile = Files.createTempFile("book", ".bin");
+        try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(bookFile))) {
+            out.writeLong(key);
+            out.writeShort(PolyglotBook.encodeMove(e4));
+            out.writeShort(3);
+            out.writeInt(0);
+            out.writeLong(key);
+            out.writeShort(PolyglotBook.encodeMove(d4));
+            out.writeShort(0);
+            out.writeInt(0);
+        }
+        try {
+            final PolyglotBook book = new PolyglotBook(bookFile, HASHING);
+            assertEquals(2, book.findMoves(board).size());
+            assertThrows(IllegalArgumentException.class, () -> new PolyglotBook(bookFile, null));
+            final OpeningBook strategy = new OpeningBook(book, new MiniMax(1), new Random(1));
+            for (int i = 0; i < 10; i++) {
+                assertEquals(e4, strategy.selectBookMove(board));
+            }
+            final Board outOfBook = playMoves("e2", "e4");
+            assertNull(strategy.selectBookMove(outOfBook));
+            assertNotNull(strategy.execute(outOfBook));
+        } finally {
+            Files.delete(bookFile);
+        }
+    }
+
+    @Test
+    public void testCastlingEncoding() {
+        final Board board = playMoves("e2", "e4", "e7", "e5", "g1", "f3", "b8", "c6", "f1", "c4",
+            "g8", "f6");
+        final Move castle = createMove(board, "e1", "g1");
+        assertTrue(castle.isCastlingMove());
+        final int code = PolyglotBook.encodeMove(castle);
+        assertEquals(0x107, code);
+        assertEquals(castle, PolyglotBook.decodeMove(code, board));
+    }
+}
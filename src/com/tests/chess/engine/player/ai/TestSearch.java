@@ -0,0 +1,155 @@
+package com.tests.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.ai.AnalysisLine;
+import com.chess.engine.player.ai.LazySMP;
+import com.chess.engine.player.ai.MateSolver;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.ParallelMiniMax;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.SearchStats;
+import com.chess.engine.player.ai.StopSignal;
+import com.chess.engine.player.ai.YoungBrothersWait;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.chess.engine.board.Move.*;
+import static com.tests.chess.engine.BoardTestUtils.playMoves;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSearch {
+
+    /*
+    Testing suite for the search algorithms of the artificial intelligence.
+     */
+
+    @Test
+    public void testParallelFoolsMate() {
+        final Board board = playMoves("f2", "f3", "e7", "e5", "g2", "g4");
+        final MoveStrategy strategy = new ParallelMiniMax(4, 4);
+        final Move bestMove = MoveFactory.createMove(board,
+            BoardUtils.getCoordinateAtPosition("d8"), BoardUtils.getCoordinateAtPosition("h4"));
+        assertEquals(bestMove, strategy.execute(board));
+    }
+
+    @Test
+    public void testParallelMatchesMiniMax() {
+        final Board board = playMoves("e2", "e4", "d7", "d5");
+        final Move expected = new MiniMax(3).execute(board);
+        for (final int parallelism : new int[] { 1, 2, 8 }) {
+            assertEquals(expected, new ParallelMiniMax(3, parallelism).execute(board));
+        }
+    }
+
+    @Test
+    public void testLazySMPFoolsMate() {
+        final Board board = playMoves("f2", "f3", "e7", "e5", "g2", "g4");
+        final LazySMP strategy = new LazySMP(3, 4, 1);
+        final Move bestMove = MoveFactory.createMove(board,
+            BoardUtils.getCoordinateAtPosition("d8"), BoardUtils.getCoordinateAtPosition("h4"));
+        assertEquals(bestMove, strategy.execute(board));
+        assertEquals(4, strategy.getNodeCounts().length);
+        assertTrue(strategy.getNodeCounts()[0] > 0);
+    }
+
+    @Test
+    public void testYoungBrothersWaitIsReproducible() {
+        final Board board = playMoves("e2", "e4", "e7", "e5", "g1", "f3");
+        final YoungBrothersWait serial = new YoungBrothersWait(3, 1);
+        final Move serialMove = serial.execute(board);
+        for (final int parallelism : new int[] { 2, 8 }) {
+            final YoungBrothersWait parallel = new YoungBrothersWait(3, parallelism);
+            assertEquals(serialMove, parallel.execute(board));
+            assertEquals(serial.getNodeCount(), parallel.getNodeCount());
+        }
+    }
+
+    @Test
+    public void testStoppedSearchReturnsLegalMove() {
+        final Board board = playMoves("e2", "e4", "e7", "e5");
+        final StopSignal stopSignal = new StopSignal();
+        stopSignal.stop();
+        final MoveStrategy[] strategies = { new MiniMax(6), new ParallelMiniMax(6, 2),
+            new LazySMP(6, 2, 1), new YoungBrothersWait(6, 2) };
+        for (final MoveStrategy strategy : strategies) {
+            final Move move = strategy.execute(board, stopSignal);
+            assertTrue(board.currentPlayer().makeMove(move).getMoveStatus().isDone());
+        }
+    }
+
+    @Test
+    public void testSearchListenerReceivesIterations() {
+        final Board board = playMoves("f2", "f3", "e7", "e5", "g2", "g4");
+        final List<SearchStats> iterations = new ArrayList<>();
+        final LazySMP strategy = new LazySMP(3, 1, 1);
+        strategy.setSearchListener(new SearchListener() {
+            @Override
+            public void iterationCompleted(final SearchStats searchStats) {
+                iterations.add(searchStats);
+            }
+
+            @Override
+            public void searchProgressed(final SearchStats searchStats) {
+            }
+        });
+        final Move bestMove = strategy.execute(board);
+        assertEquals(3, iterations.size());
+        for (int i = 0; i < iterations.size(); i++) {
+            assertEquals(i + 1, iterations.get(i).getDepth());
+        }
+        final SearchStats lastIteration = iterations.get(2);
+        assertEquals(bestMove, lastIteration.getPrincipalVariation().get(0));
+        assertTrue(lastIteration.getNodes() > 0);
+        assertTrue(lastIteration.getTranspositionProbes() > 0);
+        assertTrue(lastIteration.getCutoffs() >= lastIteration.getFirstMoveCutoffs());
+        assertTrue(lastIteration.getScore() > 0);
+    }
+
+    @Test
+    public void testMateSolver() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("h8")));
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("c3")));
+        builder.setPiece(new Rook(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("a6")));
+        builder.setPiece(new Rook(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("b5")));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        assertFalse(new MateSolver(1).solve(board).isProven());
+        assertFalse(new MateSolver(2, true).solve(board).isProven());
+        final MateSolver.MateResult result = new MateSolver(3).solve(board);
+        assertTrue(result.isProven());
+        assertEquals(2, result.getMateIn());
+        assertEquals(3, result.getMateLine().size());
+        Board mated = board;
+        for (final Move move : result.getMateLine()) {
+            mated = mated.currentPlayer().makeMove(move).getBoard();
+        }
+        assertTrue(mated.currentPlayer().isInCheckMate());
+    }
+
+    @Test
+    public void testMultiPV() {
+        final Board board = playMoves("f2", "f3", "e7", "e5", "g2", "g4");
+        final List<AnalysisLine> lines = new LazySMP(3, 1, 1).analyze(board, 3,
+            new StopSignal());
+        assertEquals(3, lines.size());
+        assertEquals(MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d8"),
+            BoardUtils.getCoordinateAtPosition("h4")), lines.get(0).getMove());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(3, lines.get(i).getDepth());
+            assertEquals(lines.get(i).getMove(), lines.get(i).getPrincipalVariation().get(0));
+            if (i > 0) {
+                assertNotEquals(lines.get(i - 1).getMove(), lines.get(i).getMove());
+                assertTrue(lines.get(i - 1).getScore() >= lines.get(i).getScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.tests.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.player.ai.ParallelMiniMax;
+import com.chess.engine.player.ai.TablebaseStrategy;
+import com.chess.engine.tablebase.KPKBitbase;
+import com.chess.engine.tablebase.Tablebase;
+import com.chess.engine.tablebase.TablebaseFormat;
+import com.chess.engine.tablebase.TablebaseGenerator;
+import com.chess.engine.tablebase.TablebaseIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTablebase {
+
+    /*
+    Testing suite for the generation and probing of endgame tablebases.
+     */
+
+    @Test
+    public void testSignatures() {
+        assertEquals("KRvK", TablebaseIndex.forSignature("KvKR").getSignature());
+        assertEquals("KQvKR", TablebaseIndex.forSignature("KRvKQ").getSignature());
+        assertEquals(2 * 10 * 64 * 64, TablebaseIndex.forSignature("KQvK").size());
+        assertEquals(2 * 32 * 64 * 64, TablebaseIndex.forSignature("KPvK").size());
+        assertEquals(5, TablebaseGenerator.getAllTables(3).size());
+    }
+
+    @Test
+    public void testGenerateKQK() throws IOException {
+        final TablebaseGenerator generator = new TablebaseGenerator(null, 2);
+        final TablebaseIndex index = TablebaseIndex.forSignature("KQvK");
+        final byte[] values = generator.getValues(index);
+        int longestLoss = 0;
+        int draws = 0;
+        for (final byte value : values) {
+            final int unsigned = value & 0xFF;
+            if (TablebaseFormat.isLoss(unsigned)) {
+                longestLoss = Math.max(longestLoss, TablebaseFormat.getDistanceToMate(unsigned));
+            } else if (unsigned == TablebaseFormat.DRAW) {
+                draws++;
+            }
+        }
+        assertEquals(20, longestLoss);
+        assertTrue(draws > 0);
+        final int[] squares = { 63, 48, 0 };
+        final int mateInOne = values[index.getIndex(new int[] { 41, 52, 56 }, 0)] & 0xFF;
+        assertTrue(TablebaseFormat.isWin(mateInOne));
+        assertEquals(1, TablebaseFormat.getDistanceToMate(mateInOne));
+        assertEquals(TablebaseFormat.ILLEGAL, values[index.getIndex(squares, 0)] & 0xFF);
+        assertEquals(0, generator.verify(index, values));
+    }
+
+    @Test
+    public void testProbe() throws IOException {
+        final Path directory = Files.createTempDirectory("tablebases");
+        final Path tableFile = directory.resolve("KQvK" + TablebaseFormat.EXTENSION);
+        try {
+            new TablebaseGenerator(directory, 1).getValues(TablebaseIndex.forSignature("KQvK"));
+            final Tablebase tablebase = new Tablebase(directory);
+            assertEquals(1, tablebase.getTableCount());
+            assertEquals(3, tablebase.getMaxPieces());
+            assertEquals(Tablebase.NOT_FOUND, tablebase.probe(Board.createStandardBoard()));
+            final Board whiteToMove = createKQK(Alliance.WHITE, 41, 52, 56);
+            final int whiteValue = tablebase.probe(whiteToMove);
+            assertTrue(TablebaseFormat.isWin(whiteValue));
+            assertEquals(1, TablebaseFormat.getDistanceToMate(whiteValue));
+            final Board blackToMove = createKQK(Alliance.BLACK, 41 ^ 56, 52 ^ 56, 56 ^ 56);
+            assertEquals(whiteValue, tablebase.probe(blackToMove));
+            final Move mate = new TablebaseStrategy(tablebase, new ParallelMiniMax(1, 1))
+                .selectTablebaseMove(blackToMove);
+            assertTrue(blackToMove.currentPlayer().makeMove(mate).getBoard().currentPlayer()
+                .isInCheckMate());
+        } finally {
+            Files.deleteIfExists(tableFile);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testKPKBitbase() {
+        assertEquals(KPKBitbase.NOT_FOUND, KPKBitbase.probe(Board.createStandardBoard()));
+        assertEquals(KPKBitbase.WHITE_WINS, KPKBitbase.probe(createKPK(Alliance.WHITE,
+            Alliance.BLACK, 20, 28, 4)));
+        assertEquals(KPKBitbase.WHITE_WINS, KPKBitbase.probe(createKPK(Alliance.WHITE,
+            Alliance.WHITE, 20, 28, 4)));
+        assertEquals(KPKBitbase.BLACK_WINS, KPKBitbase.probe(createKPK(Alliance.BLACK,
+            Alliance.WHITE, 20 ^ 56, 28 ^ 56, 4 ^ 56)));
+        assertEquals(KPKBitbase.DRAW, KPKBitbase.probe(createKPK(Alliance.WHITE,
+            Alliance.WHITE, 63, 48, 0)));
+    }
+
+    private static Board createKPK(final Alliance strongerSide, final Alliance moveMaker,
+                                   final int kingCoordinate, final int pawnCoordinate,
+                                   final int loneKingCoordinate) {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(strongerSide, kingCoordinate));
+        builder.setPiece(new Pawn(strongerSide, pawnCoordinate));
+        builder.setPiece(new King(strongerSide.isWhite() ? Alliance.BLACK : Alliance.WHITE,
+            loneKingCoordinate));
+        builder.setMoveMaker(moveMaker);
+        return builder.build();
+    }
+
+    private static Board createKQK(final Alliance strongerSide, final int kingCoordinate,
+                                   final int queenCoordinate, final int loneKingCoordinate) {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(strongerSide, kingCoordinate));
+        builder.setPiece(new Queen(strongerSide, queenCoordinate));
+        builder.setPiece(new King(strongerSide.isWhite() ? Alliance.BLACK : Alliance.WHITE,
+            loneKingCoordinate));
+        builder.setMoveMaker(strongerSide);
+        return builder.build();
+    }
+}
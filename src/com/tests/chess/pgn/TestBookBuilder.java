@@ -0,0 +1,68 @@
+package com.tests.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.PolyglotHashing;
+import com.chess.engine.player.ai.PolyglotBook;
+import com.chess.pgn.BookBuilder;
+import com.chess.pgn.PGNGame;
+import com.chess.pgn.PGNReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBookBuilder {
+
+    /*
+    Testing suite for reading PGN games and building opening books from them.
+     */
+
+    private static final String GAMES =
+        "[Event \"Test\"]\n[Result \"1-0\"]\n\n" +
+        "1. e4 e5 2. Nf3 {a comment\nacross lines} Nc6 (2... d6 3. d4) 3. Bb5 $1 a6 1-0\n\n" +
+        "[Event \"Test\"]\n[Result \"0-1\"]\n\n" +
+        "1. e4 e5 2. Nf3 Nf6 3. Nxe5 d6 4. Nf3 Nxe4 0-1\n\n" +
+        "[Event \"Test\"]\n[Result \"1/2-1/2\"]\n\n" +
+        "1.d4 d5 2.c4 e6 1/2-1/2\n";
+
+    @Test
+    public void testReadGames() throws IOException {
+        final PGNReader reader = new PGNReader(new StringReader(GAMES));
+        final PGNGame game = reader.readGame();
+        assertEquals(PGNGame.WHITE_WINS, game.getResult());
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6"), game.getMoves());
+        assertEquals(8, reader.readGame().getMoves().size());
+        assertEquals(PGNGame.DRAW, reader.readGame().getResult());
+        assertNull(reader.readGame());
+    }
+
+    @Test
+    public void testBuildBook() throws IOException {
+        final Path directory = Files.createTempDirectory("books");
+        final Path pgnFile = directory.resolve("games.pgn");
+        final Path bookFile = directory.resolve("book.bin");
+        Files.write(pgnFile, GAMES.getBytes());
+        final PolyglotHashing hashing = PolyglotHashing.generate(1);
+        try {
+            final BookBuilder builder = new BookBuilder(hashing, 4, 3, 1, directory);
+            builder.addPGN(pgnFile);
+            assertEquals(3, builder.getGameCount());
+            builder.write(bookFile);
+            final PolyglotBook book = new PolyglotBook(bookFile, hashing);
+            final List<PolyglotBook.BookMove> moves = book.findMoves(Board.createStandardBoard());
+            assertEquals(2, moves.size());
+            assertEquals("e4", moves.get(0).getMove().toString());
+            assertEquals(2, moves.get(0).getWeight());
+            assertEquals(1, moves.get(1).getWeight());
+        } finally {
+            Files.deleteIfExists(bookFile);
+            Files.deleteIfExists(pgnFile);
+            Files.delete(directory);
+        }
+    }
+}
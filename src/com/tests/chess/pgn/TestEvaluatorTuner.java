@@ -0,0 +1,79 @@
+package com.tests.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.player.ai.EvaluationParameters;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.pgn.EvaluatorTuner;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEvaluatorTuner {
+
+    /*
+    Testing suite for reading FEN strings and tuning the evaluator on labelled positions.
+     */
+
+    private static final String POSITIONS =
+        "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1 [0.5]\n" +
+        "4k3/8/8/8/8/8/3QK3/8 w - - 0 1 [1.0]\n" +
+        "4k3/3q4/8/8/8/8/8/4K3 b - - 0 1 \"0-1\";\n" +
+        "4k3/8/8/8/8/8/8/R3K3 w - - 3 40 1-0\n" +
+        "not a position 1-0\n" +
+        "4k3/4Q3/4K3/8/8/8/8/8 b - - 0 1 1-0\n" +
+        "r3k3/8/8/8/8/8/8/4K3 b - - 0 1 0-1\n";
+
+    @Test
+    public void testFenRoundTrip() {
+        final String fen = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+        final Board board = FenUtilities.createGameFromFEN(fen);
+        assertEquals(fen, FenUtilities.createFENFromGame(board));
+        assertEquals(Board.createStandardBoard().toString(),
+            FenUtilities.createGameFromFEN(FenUtilities.createFENFromGame(
+                Board.createStandardBoard())).toString());
+    }
+
+    @Test
+    public void testTuneReducesError() throws IOException {
+        final Path directory = Files.createTempDirectory("tuner");
+        final Path positions = directory.resolve("positions.epd");
+        final Path output = directory.resolve("tuned.properties");
+        Files.write(positions, POSITIONS.getBytes());
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final EvaluatorTuner tuner = new EvaluatorTuner(pool);
+            tuner.addPositions(positions);
+            assertEquals(5, tuner.getPositionCount());
+            assertEquals(2, tuner.getSkippedCount());
+            final double[] start = EvaluationParameters.getDefault().toVector();
+            final double k = tuner.fitScalingConstant(start);
+            final double[] tuned = tuner.tune(start, 200, 1.0, k, null);
+            assertTrue(tuner.computeError(tuned, k) < tuner.computeError(start, k));
+            final EvaluationParameters parameters = EvaluationParameters.fromVector(tuned);
+            parameters.save(output, null);
+            assertEquals(parameters, EvaluationParameters.load(output));
+        } finally {
+            pool.shutdown();
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(positions);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    public void testParametersMatchEvaluator() {
+        final Board board = FenUtilities.createGameFromFEN(
+            "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        final StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+        final StandardBoardEvaluator reweighted = new StandardBoardEvaluator(
+            EvaluationParameters.fromVector(new double[] { 100, 310, 300, 500, 900, 50, 60, 4, 3,
+                2, 1 }));
+        assertEquals(evaluator.evaluate(board, 0), reweighted.evaluate(board, 0));
+    }
+}
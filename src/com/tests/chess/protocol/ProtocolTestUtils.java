@@ -0,0 +1,34 @@
+package com.tests.chess.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedWriter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ProtocolTestUtils {
+
+    /*
+    A utility class for the tests of the protocol front ends, which write commands to an engine
+    through a pipe and wait for its responses.
+     */
+
+    private ProtocolTestUtils() {
+        throw new RuntimeException("You cannot instantiate me!");
+    }
+
+    static void send(final PipedWriter commands, final String text) throws IOException {
+        commands.write(text);
+        commands.flush();
+    }
+
+    static void awaitOutput(final ByteArrayOutputStream output, final String text)
+        throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!output.toString().contains(text) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(output.toString().contains(text), output.toString());
+    }
+}
@@ -0,0 +1,82 @@
+package com.tests.chess.protocol;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+import com.chess.pgn.FenUtilities;
+import com.chess.protocol.CoordinateNotation;
+import com.chess.protocol.UCIEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static com.tests.chess.protocol.ProtocolTestUtils.awaitOutput;
+import static com.tests.chess.protocol.ProtocolTestUtils.send;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestUCIEngine {
+
+    /*
+    Testing suite for the coordinate notation of Moves and the UCI front end.
+     */
+
+    @Test
+    public void testCoordinateNotation() {
+        final Board castling = FenUtilities.createGameFromFEN(
+            "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals("e1g1", CoordinateNotation.toCoordinates(
+            CoordinateNotation.createMove(castling, "e1g1")));
+        final Board promotion = CoordinateNotation.playMove(
+            FenUtilities.createGameFromFEN("8/4P3/8/8/8/8/k7/4K3 w - - 0 1"), "e7e8q");
+        assertEquals(Piece.PieceType.QUEEN,
+            promotion.getTile(BoardUtils.getCoordinateAtPosition("e8")).getPiece().getPieceType());
+        assertThrows(IllegalArgumentException.class,
+            () -> CoordinateNotation.createMove(Board.createStandardBoard(), "e2e5"));
+        assertThrows(IllegalArgumentException.class,
+            () -> CoordinateNotation.createMove(Board.createStandardBoard(), "z9e4"));
+    }
+
+    @Test
+    public void testSearchAndStop() throws Exception {
+        final PipedWriter commands = new PipedWriter();
+        final BufferedReader in = new BufferedReader(new PipedReader(commands));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final UCIEngine engine = new UCIEngine(in, new PrintStream(output, true));
+        final Thread engineThread = new Thread(() -> {
+            try {
+                engine.run();
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        engineThread.start();
+        send(commands, "uci\nisready\nsetoption name Hash value 1\n");
+        send(commands, "position startpos moves e2e4 e7e5 g1f3\ngo depth 2\n");
+        awaitOutput(output, "bestmove");
+        final String searched = output.toString();
+        assertTrue(searched.contains("uciok"));
+        assertTrue(searched.contains("readyok"));
+        assertTrue(searched.contains("info depth 2"));
+        final String bestMove = searched.substring(searched.indexOf("bestmove ") + 9).trim()
+            .split("\\s+")[0];
+        CoordinateNotation.createMove(FenUtilities.createGameFromFEN(
+            "rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2"), bestMove);
+        output.reset();
+        send(commands, "go infinite\n");
+        Thread.sleep(200);
+        assertFalse(output.toString().contains("bestmove"));
+        final long stopNanos = System.nanoTime();
+        send(commands, "stop\n");
+        awaitOutput(output, "bestmove");
+        assertTrue(System.nanoTime() - stopNanos < TimeUnit.SECONDS.toNanos(1));
+        send(commands, "quit\n");
+        engineThread.join(5000);
+        assertFalse(engineThread.isAlive());
+    }
+}
@@ -0,0 +1,61 @@
+package com.tests.chess.protocol;
+
+import com.chess.engine.board.Board;
+import com.chess.protocol.CoordinateNotation;
+import com.chess.protocol.XBoardEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.PrintStream;
+
+import static com.tests.chess.protocol.ProtocolTestUtils.awaitOutput;
+import static com.tests.chess.protocol.ProtocolTestUtils.send;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestXBoardEngine {
+
+    /*
+    Testing suite for the XBoard front end.
+     */
+
+    @Test
+    public void testGameAndAnalysis() throws Exception {
+        final PipedWriter commands = new PipedWriter();
+        final BufferedReader in = new BufferedReader(new PipedReader(commands));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final XBoardEngine engine = new XBoardEngine(in, new PrintStream(output, true));
+        final Thread engineThread = new Thread(() -> {
+            try {
+                engine.run();
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        engineThread.start();
+        send(commands, "xboard\nprotover 2\nnew\nmemory 1\npost\nsd 2\nusermove e2e4\n");
+        awaitOutput(output, "move ");
+        final String played = output.toString();
+        assertTrue(played.contains("done=1"));
+        assertTrue(played.contains("\n2 "));
+        final String reply = played.substring(played.indexOf("move ") + 5).trim().split("\\s+")[0];
+        CoordinateNotation.playMove(CoordinateNotation.playMove(Board.createStandardBoard(),
+            "e2e4"), reply);
+        output.reset();
+        send(commands, "usermove e2e5\nping 1\n");
+        awaitOutput(output, "pong 1");
+        assertTrue(output.toString().contains("Illegal move: e2e5"));
+        output.reset();
+        send(commands, "force\nundo\nundo\nusermove d2d4\nanalyze\n");
+        Thread.sleep(200);
+        send(commands, "exit\nping 2\n");
+        awaitOutput(output, "pong 2");
+        assertFalse(output.toString().contains("move "));
+        send(commands, "quit\n");
+        engineThread.join(5000);
+        assertFalse(engineThread.isAlive());
+    }
+}